@@ -0,0 +1,48 @@
+package mundoPirata.mundoPirata.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador de versión por agregado, incrementado después de cada commit que lo modifica.
+ * ConditionalGetFilter arma con estos contadores el ETag de los endpoints públicos.
+ *
+ * Los contadores viven en memoria y vuelven a cero al reiniciar, por eso se acompañan de
+ * la época de arranque: un ETag emitido antes del reinicio nunca coincide con uno nuevo.
+ */
+@Component
+public class AggregateVersions {
+
+    public enum Aggregate {
+        NEWS, CALENDAR, MAP_LOCATIONS, DESTINATIONS, TICKETS, USERS
+    }
+
+    private final AtomicLongArray versions = new AtomicLongArray(Aggregate.values().length);
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    /**
+     * Incrementa la versión del agregado cuando se confirma la transacción en curso
+     * (o en el momento, si no hay una). Un rollback no la cambia. Corre después de las demás
+     * acciones post-commit: un GET que ve la versión nueva ya lee las cachés actualizadas.
+     * Sin transacción corre en el momento, así que se llama después de invalidar las cachés.
+     */
+    public void bumpAfterCommit(Aggregate aggregate) {
+        TransactionHooks.afterCommitLast(() -> bump(aggregate));
+    }
+
+    /**
+     * Incrementa la versión en el momento; para recargas que no vienen de una escritura.
+     */
+    public void bump(Aggregate aggregate) {
+        versions.incrementAndGet(aggregate.ordinal());
+    }
+
+    public long get(Aggregate aggregate) {
+        return versions.get(aggregate.ordinal());
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+}
@@ -0,0 +1,229 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET condicional para los endpoints públicos de solo lectura.
+ *
+ * El ETag se arma con las versiones de AggregateVersions de los agregados que muestra cada
+ * ruta, sin leer ni serializar la respuesta. Si coincide con If-None-Match se responde 304
+ * sin llegar al controlador ni a la base de datos. Incluye la fecha del día porque algunas
+ * vistas (próximos eventos) cambian a medianoche sin que haya escrituras.
+ *
+ * Métricas: http.conditional.requests y http.conditional.latency por resultado
+ * (not_modified o full) y http.conditional.bytes con los bytes enviados (sent) y los que
+ * se evitó enviar (saved), estimados con el tamaño de la última respuesta completa de la URL.
+ */
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    private static final int MAX_TRACKED_URLS = 10_000;
+
+    private final AggregateVersions aggregateVersions;
+    private final String cacheControl;
+    private final Map<String, Aggregate[]> routes = new LinkedHashMap<>();
+    private final Map<String, Long> lastBodySize = new ConcurrentHashMap<>();
+    private final Counter notModified;
+    private final Counter full;
+    private final Timer notModifiedLatency;
+    private final Timer fullLatency;
+    private final DistributionSummary bytesSent;
+    private final DistributionSummary bytesSaved;
+
+    public ConditionalGetFilter(AggregateVersions aggregateVersions, long maxAgeSeconds, MeterRegistry meterRegistry) {
+        this.aggregateVersions = aggregateVersions;
+        // Sin max-age el navegador guarda la respuesta pero revalida siempre: las escrituras se ven al instante
+        this.cacheControl = maxAgeSeconds > 0 ? "public, max-age=" + maxAgeSeconds + ", must-revalidate" : "public, no-cache";
+        this.notModified = counter(meterRegistry, "not_modified");
+        this.full = counter(meterRegistry, "full");
+        this.notModifiedLatency = timer(meterRegistry, "not_modified");
+        this.fullLatency = timer(meterRegistry, "full");
+        this.bytesSent = bytes(meterRegistry, "sent");
+        this.bytesSaved = bytes(meterRegistry, "saved");
+    }
+
+    /**
+     * Registra una ruta pública (prefijo) y los agregados de los que dependen sus respuestas.
+     */
+    public ConditionalGetFilter route(String pathPrefix, Aggregate... aggregates) {
+        routes.put(pathPrefix, aggregates);
+        return this;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || aggregatesFor(pathOf(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        String url = request.getQueryString() == null ? pathOf(request) : pathOf(request) + "?" + request.getQueryString();
+        // Las versiones se leen antes de armar la respuesta: si hay una escritura en el medio,
+        // el ETag queda viejo y el próximo request recibe la respuesta completa
+        String etag = etag(aggregatesFor(pathOf(request)));
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            notModified.increment();
+            Long saved = lastBodySize.get(url);
+            if (saved != null) {
+                bytesSaved.record(saved);
+            }
+            notModifiedLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        CountingResponse counting = new CountingResponse(response);
+        filterChain.doFilter(request, counting);
+        full.increment();
+        fullLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (counting.getStatus() == HttpStatus.OK.value()) {
+            bytesSent.record(counting.bytes);
+            if (lastBodySize.size() >= MAX_TRACKED_URLS) {
+                lastBodySize.clear();
+            }
+            lastBodySize.put(url, counting.bytes);
+        }
+    }
+
+    private String etag(Aggregate[] aggregates) {
+        StringBuilder etag = new StringBuilder("W/\"").append(aggregateVersions.getEpoch())
+                .append('-').append(LocalDate.now().toEpochDay());
+        for (Aggregate aggregate : aggregates) {
+            etag.append('-').append(aggregateVersions.get(aggregate));
+        }
+        return etag.append('"').toString();
+    }
+
+    // If-None-Match puede traer varios ETags separados por comas o "*"
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Aggregate[] aggregatesFor(String path) {
+        for (Map.Entry<String, Aggregate[]> route : routes.entrySet()) {
+            String prefix = route.getKey();
+            if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("http.conditional.requests")
+                .tag("result", result)
+                .description("GET públicos respondidos con 304 (not_modified) o con el cuerpo completo (full)")
+                .register(meterRegistry);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("http.conditional.latency")
+                .tag("result", result)
+                .description("Tiempo de respuesta de los GET públicos según si se respondió 304 o completo")
+                .register(meterRegistry);
+    }
+
+    private static DistributionSummary bytes(MeterRegistry meterRegistry, String result) {
+        return DistributionSummary.builder("http.conditional.bytes")
+                .tag("result", result)
+                .baseUnit("bytes")
+                .description("Bytes de cuerpo enviados (sent) y evitados con 304 (saved)")
+                .register(meterRegistry);
+    }
+
+    // Cuenta los bytes del cuerpo escritos por el controlador
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream stream;
+        private long bytes;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
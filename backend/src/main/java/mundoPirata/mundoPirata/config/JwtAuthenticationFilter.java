@@ -6,16 +6,20 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import mundoPirata.mundoPirata.service.JwtService;
+import mundoPirata.mundoPirata.service.TokenRevocationService;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -23,6 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -32,7 +38,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -40,11 +45,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        // Firma y expiración se verifican una sola vez por request
+        Optional<JwtService.TokenClaims> claims = jwtService.parseToken(jwt);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (claims.isPresent() && claims.get().getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationService.isRevoked(claims.get())) {
+            UserDetails userDetails = resolveUserDetails(claims.get());
+            if (userDetails != null && jwtService.isTokenValid(claims.get(), userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -58,4 +66,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Obtiene el usuario sin consultar la base de datos: primero desde la caché y luego
+     * desde los claims del token. Solo se recarga desde la base si el token no trae rol
+     * o fue emitido antes de la última modificación del usuario.
+     */
+    private UserDetails resolveUserDetails(JwtService.TokenClaims claims) {
+        String email = claims.getSubject();
+        UserDetails userDetails = userDetailsCache.get(email);
+        if (userDetails != null) {
+            return userDetails;
+        }
+
+        if (claims.getRole() != null && !userDetailsCache.isInvalidatedSince(email, claims.getIssuedAt())) {
+            userDetails = org.springframework.security.core.userdetails.User.withUsername(email)
+                    .password("")
+                    .authorities(new SimpleGrantedAuthority("ROLE_" + claims.getRole().toUpperCase()))
+                    .build();
+        } else {
+            try {
+                userDetails = userDetailsService.loadUserByUsername(email);
+            } catch (UsernameNotFoundException e) {
+                return null;
+            }
+        }
+
+        userDetailsCache.put(userDetails);
+        return userDetails;
+    }
+}
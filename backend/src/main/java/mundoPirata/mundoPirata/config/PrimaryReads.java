@@ -0,0 +1,46 @@
+package mundoPirata.mundoPirata.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Lecturas que tienen que ir al primario aunque corran en una transacción de solo lectura.
+ *
+ * Las cachés e índices en memoria se recargan justo después del commit de una escritura: si
+ * leyeran de la réplica podrían guardar datos anteriores a esa escritura hasta la próxima
+ * recarga. ReplicaRoutingDataSource consulta esta marca al pedir la conexión; sin réplica
+ * configurada no tiene efecto.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Ejecuta la acción pidiendo las conexiones al primario. Solo afecta a las transacciones que
+     * empiezan dentro de la acción (o que todavía no pidieron su conexión).
+     */
+    public static <T> T execute(Supplier<T> action) {
+        if (isForced()) {
+            return action.get();
+        }
+        FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            FORCED.remove();
+        }
+    }
+
+    public static void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static boolean isForced() {
+        return FORCED.get() != null;
+    }
+}
@@ -0,0 +1,66 @@
+package mundoPirata.mundoPirata.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Límites de requests por ruta, por IP y por email. Se arma en SecurityConfig; el límite
+ * por IP lo aplica RateLimitFilter y el límite por email lo consultan los controllers,
+ * que son los que conocen el email del body.
+ */
+public class RateLimitRules {
+
+    private final Duration refillPeriod;
+    private final Duration idleTimeout;
+    private final Map<String, TokenBucketRateLimiter> ipLimiters = new HashMap<>();
+    private final Map<String, TokenBucketRateLimiter> emailLimiters = new HashMap<>();
+
+    public RateLimitRules(Duration refillPeriod, Duration idleTimeout) {
+        this.refillPeriod = refillPeriod;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Registra los límites de un POST a la ruta. Un límite menor o igual a cero lo deshabilita.
+     */
+    public RateLimitRules route(String path, int perIp, int perEmail) {
+        if (perIp > 0) {
+            ipLimiters.put(path, new TokenBucketRateLimiter(perIp, refillPeriod, idleTimeout));
+        }
+        if (perEmail > 0) {
+            emailLimiters.put(path, new TokenBucketRateLimiter(perEmail, refillPeriod, idleTimeout));
+        }
+        return this;
+    }
+
+    public boolean hasIpLimit(String path) {
+        return ipLimiters.containsKey(path);
+    }
+
+    /**
+     * @return 0 si el request está permitido, o los segundos a esperar para reintentar
+     */
+    public long checkIp(String path, String ip) {
+        return check(ipLimiters.get(path), ip);
+    }
+
+    /**
+     * @return 0 si el request está permitido, o los segundos a esperar para reintentar
+     */
+    public long checkEmail(String path, String email) {
+        if (email == null) {
+            return 0;
+        }
+        return check(emailLimiters.get(path), email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static long check(TokenBucketRateLimiter limiter, String key) {
+        if (limiter == null) {
+            return 0;
+        }
+        long waitNanos = limiter.tryAcquire(key);
+        return waitNanos == 0 ? 0 : Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+    }
+}
@@ -0,0 +1,93 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Controla el atraso de la réplica para decidir si las lecturas pueden ir a ella.
+ *
+ * Cada datasource.replica.lag-check-ms consulta SHOW REPLICA STATUS (MySQL 8.0.22+, requiere
+ * el permiso REPLICATION CLIENT). La réplica se usa solo si el último chequeo respondió y el
+ * atraso (Seconds_Behind_Source) no supera datasource.replica.max-lag. Si la réplica no
+ * responde, la replicación está detenida o el atraso es mayor, las lecturas vuelven al primario
+ * hasta un chequeo que la encuentre al día. Hasta el primer chequeo también se usa el primario.
+ *
+ * Una base que no es réplica (SHOW REPLICA STATUS sin filas) cuenta como al día: así se puede
+ * probar el ruteo con dos bases locales independientes.
+ *
+ * Métricas: db.replica.lag (segundos, NaN si no se pudo medir) y db.replica.usable (1 o 0).
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toSeconds();
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Atraso de la réplica en el último chequeo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .description("1 si las transacciones de solo lectura van a la réplica")
+                .register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        OptionalLong lag;
+        try {
+            lag = readLag();
+        } catch (SQLException e) {
+            log.warn("Could not read replica status: {}", e.getMessage());
+            lag = OptionalLong.empty();
+        }
+        update(lag);
+    }
+
+    // Atraso medido; vacío si la réplica no respondió o la replicación está detenida
+    void update(OptionalLong lag) {
+        boolean nowUsable = lag.isPresent() && lag.getAsLong() <= maxLagSeconds;
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                log.info("Read-only transactions routed to the replica (lag {}s)", lag.getAsLong());
+            } else {
+                log.warn("Replica unavailable or lagging (lag {}), read-only transactions fall back to the primary",
+                        lag.isPresent() ? lag.getAsLong() + "s" : "unknown");
+            }
+        }
+        usable = nowUsable;
+        lagSeconds = lag.isPresent() ? lag.getAsLong() : Double.NaN;
+    }
+
+    private OptionalLong readLag() throws SQLException {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!status.next()) {
+                return OptionalLong.of(0);
+            }
+            long seconds = status.getLong("Seconds_Behind_Source");
+            return status.wasNull() ? OptionalLong.empty() : OptionalLong.of(seconds);
+        }
+    }
+}
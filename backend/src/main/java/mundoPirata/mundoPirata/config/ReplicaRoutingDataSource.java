@@ -0,0 +1,70 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Manda las transacciones de solo lectura (@Transactional(readOnly = true)) a la réplica y todo
+ * lo demás al primario.
+ *
+ * La decisión se toma al pedir la conexión, así que este DataSource tiene que ir envuelto en un
+ * LazyConnectionDataSourceProxy: la conexión real se pide con la primera sentencia, cuando la
+ * transacción ya marcó si es de solo lectura. Vuelve al primario si ReplicaLagMonitor da la
+ * réplica por atrasada o caída, y dentro de PrimaryReads.
+ *
+ * Métricas: db.connections.routed por destino (primary o replica) y db.replica.fallbacks con
+ * las lecturas que fueron al primario por el estado de la réplica.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryConnections = routed(meterRegistry, "primary");
+        this.replicaConnections = routed(meterRegistry, "replica");
+        this.fallbacks = Counter.builder("db.replica.fallbacks")
+                .description("Transacciones de solo lectura enviadas al primario por atraso o falla de la réplica")
+                .register(meterRegistry);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = route();
+        (target == Target.REPLICA ? replicaConnections : primaryConnections).increment();
+        return target;
+    }
+
+    private Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PrimaryReads.isForced()) {
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isUsable()) {
+            fallbacks.increment();
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.connections.routed")
+                .description("Conexiones pedidas por destino")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
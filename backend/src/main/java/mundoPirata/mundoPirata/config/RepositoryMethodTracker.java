@@ -0,0 +1,47 @@
+package mundoPirata.mundoPirata.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recuerda qué método de repositorio está ejecutando el hilo, para que SlowQueryDataSource
+ * sepa de dónde viene cada sentencia. Si un repositorio llama a otro, cuenta el de afuera.
+ *
+ * Las sentencias que Hibernate ejecuta fuera de una llamada al repositorio (el flush al hacer
+ * commit, una carga lazy) no tienen método.
+ */
+public class RepositoryMethodTracker implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repositoryName;
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+    public RepositoryMethodTracker(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    /**
+     * Método de repositorio en curso en este hilo (Repositorio.método), o null.
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (CURRENT.get() != null) {
+            return invocation.proceed();
+        }
+        CURRENT.set(names.computeIfAbsent(invocation.getMethod(), method -> repositoryName + "." + method.getName()));
+        try {
+            return invocation.proceed();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+}
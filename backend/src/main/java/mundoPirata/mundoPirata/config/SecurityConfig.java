@@ -1,16 +1,17 @@
 package mundoPirata.mundoPirata.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.AuthenticationProvider;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,15 +19,50 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
 
-    private final CustomUserDetailsService userDetailsService;
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 14;
+
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final AggregateVersions aggregateVersions;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.target-ms:250}")
+    private long passwordHashTargetMillis;
+
+    @Value("${security.rate-limit.refill-period:1m}")
+    private Duration rateLimitRefillPeriod;
+
+    @Value("${security.rate-limit.idle-timeout:10m}")
+    private Duration rateLimitIdleTimeout;
+
+    @Value("${security.rate-limit.login.per-ip:20}")
+    private int loginPerIp;
+
+    @Value("${security.rate-limit.login.per-email:5}")
+    private int loginPerEmail;
+
+    @Value("${security.rate-limit.refresh.per-ip:30}")
+    private int refreshPerIp;
+
+    @Value("${security.rate-limit.register.per-ip:5}")
+    private int registerPerIp;
+
+    @Value("${security.rate-limit.register.per-email:3}")
+    private int registerPerEmail;
+
+    @Value("${http.public-cache.max-age:0}")
+    private long publicCacheMaxAge;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -34,8 +70,9 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .authenticationProvider(authenticationProvider())
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(new RateLimitFilter(rateLimitRules()), JwtAuthenticationFilter.class)
+            .addFilterBefore(conditionalGetFilter(), JwtAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
                 // Swagger UI
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
@@ -53,8 +90,10 @@ public class SecurityConfig {
                 .requestMatchers("/api/checkout-pro/**").permitAll()
                 .requestMatchers("/api/orders/process-purchase").permitAll()
                 .requestMatchers("/api/test/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
                 // Endpoints que requieren autenticación
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/users/**").hasAnyRole("ADMIN", "USER")
                 .requestMatchers("/api/news/**").hasRole("ADMIN")
                 .requestMatchers("/api/calendar/**").hasRole("ADMIN")
@@ -73,22 +112,65 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Límites por ruta para los endpoints abiertos que disparan BCrypt o envío de emails.
+     * Cada límite es la cantidad de requests permitidos por período de recarga.
+     */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
-        return authProvider;
+    public RateLimitRules rateLimitRules() {
+        return new RateLimitRules(rateLimitRefillPeriod, rateLimitIdleTimeout)
+                .route("/api/auth/login", loginPerIp, loginPerEmail)
+                .route("/api/auth/refresh", refreshPerIp, 0)
+                .route("/api/users/register", registerPerIp, registerPerEmail);
     }
 
-    @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
-        return authConfig.getAuthenticationManager();
+    /**
+     * ETag por versión para los GET públicos: cada ruta declara los agregados que muestra.
+     * No es un @Bean para que Spring Boot no lo registre además como filtro del servlet.
+     */
+    private ConditionalGetFilter conditionalGetFilter() {
+        return new ConditionalGetFilter(aggregateVersions, publicCacheMaxAge, meterRegistry)
+                .route("/api/news/public", Aggregate.NEWS, Aggregate.USERS)
+                .route("/api/calendar/public", Aggregate.CALENDAR, Aggregate.USERS)
+                .route("/api/map-locations/public", Aggregate.MAP_LOCATIONS, Aggregate.USERS)
+                .route("/api/destinations/public", Aggregate.DESTINATIONS)
+                .route("/api/tickets/public", Aggregate.TICKETS, Aggregate.CALENDAR);
     }
 
+    /**
+     * Los hashes nuevos se guardan con prefijo {bcrypt} y un costo calibrado a la latencia objetivo.
+     * Los hashes existentes sin prefijo se siguen validando como BCrypt y se re-hashean al hacer login.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(calibrateBCryptStrength());
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Busca el mayor costo de BCrypt cuyo hash no supere la latencia objetivo en este hardware.
+     * Cada incremento de costo duplica el tiempo de cálculo.
+     */
+    private int calibrateBCryptStrength() {
+        int strength = MIN_BCRYPT_STRENGTH;
+        long elapsedMillis = measureBCryptMillis(strength);
+        while (strength < MAX_BCRYPT_STRENGTH && elapsedMillis * 2 <= passwordHashTargetMillis) {
+            strength++;
+            elapsedMillis *= 2;
+        }
+        log.info("Costo de BCrypt calibrado en {} (~{} ms por hash, objetivo {} ms)",
+                strength, elapsedMillis, passwordHashTargetMillis);
+        return strength;
+    }
+
+    private static long measureBCryptMillis(int strength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(strength);
+        probe.encode("calibracion"); // calentamiento
+        long start = System.nanoTime();
+        probe.encode("calibracion");
+        return Math.max(1, (System.nanoTime() - start) / 1_000_000);
     }
 
     @Bean
@@ -97,6 +179,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Retry-After", "X-Total-Count", "X-Next-Cursor", "Link"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,227 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mide cada sentencia SQL y loguea las que superan el umbral.
+ *
+ * Envuelve las conexiones y sentencias del DataSource de la aplicación. Cada sentencia se
+ * registra en db.query (histograma) por forma de consulta: el método de repositorio que la
+ * originó (NewsRepository.findActiveDTOs) o, si no salió de un repositorio, la operación y la
+ * tabla (insert orders). Las lentas se loguean en WARN con el SQL, los tipos de los parámetros
+ * (nunca los valores), el método de repositorio, la clase de la aplicación que la pidió y el
+ * requestId del MDC, y se cuentan en db.query.slow.
+ *
+ * unwrap e isWrapperFor llegan a los DataSource envueltos (los de DelegatingDataSource).
+ */
+@Slf4j
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final int MAX_CACHED_SHAPES = 2_000;
+    private static final int MAX_LOGGED_SQL = 2_000;
+    private static final String APPLICATION_PACKAGE = "mundoPirata.mundoPirata.";
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+`?(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final long thresholdNanos;
+    private final Supplier<MeterRegistry> meterRegistry;
+    // Operación y tabla por texto de SQL; Hibernate reusa los mismos textos
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final Map<Shape, Meters> meters = new ConcurrentHashMap<>();
+
+    /**
+     * El registro de métricas se pide con la primera sentencia: el DataSource se crea antes.
+     */
+    public SlowQueryDataSource(DataSource target, Duration threshold, Supplier<MeterRegistry> meterRegistry) {
+        super(target);
+        this.thresholdNanos = threshold.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timedConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timedConnection(super.getConnection(username, password));
+    }
+
+    private Connection timedConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(proxy, connection, method, args);
+                    return switch (method.getName()) {
+                        case "createStatement" -> timedStatement(Statement.class, (Statement) result, null);
+                        case "prepareStatement" -> timedStatement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                        case "prepareCall" -> timedStatement(CallableStatement.class, (Statement) result, (String) args[0]);
+                        default -> result;
+                    };
+                });
+    }
+
+    private Object timedStatement(Class<? extends Statement> type, Statement statement, String preparedSql) {
+        StatementState state = new StatementState(preparedSql);
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        String sql = state.sql != null ? state.sql
+                                : args != null && args.length > 0 && args[0] instanceof String text ? text : state.batchSql;
+                        long start = System.nanoTime();
+                        try {
+                            return invoke(proxy, statement, method, args);
+                        } finally {
+                            record(sql, state, System.nanoTime() - start);
+                            if (name.equals("executeBatch")) {
+                                state.batchSize = 0;
+                            }
+                        }
+                    }
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        state.bindTypes.put(index, name.equals("setNull") || args[1] == null ? "null" : args[1].getClass().getSimpleName());
+                    } else if (name.equals("clearParameters")) {
+                        state.bindTypes.clear();
+                    } else if (name.equals("addBatch")) {
+                        state.batchSize++;
+                        if (args != null && args.length == 1) {
+                            state.batchSql = (String) args[0];
+                        }
+                    }
+                    return invoke(proxy, statement, method, args);
+                });
+    }
+
+    private void record(String sql, StatementState state, long nanos) {
+        if (sql == null) {
+            return;
+        }
+        String repositoryMethod = RepositoryMethodTracker.current();
+        Shape shape = shape(sql, repositoryMethod);
+        Meters shapeMeters = meters.computeIfAbsent(shape, this::meters);
+        shapeMeters.latency.record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        shapeMeters.slow.increment();
+        String requestId = MDC.get(RequestIdFilter.MDC_KEY);
+        log.warn("Slow query took={}ms query=\"{}\" repository={} caller={} requestId={} params={} batch={} sql=\"{}\"",
+                TimeUnit.NANOSECONDS.toMillis(nanos), shape.query(),
+                repositoryMethod != null ? repositoryMethod : "-", caller(),
+                requestId != null ? requestId : "-", state.bindTypes.values(), state.batchSize, loggedSql(sql));
+    }
+
+    private Shape shape(String sql, String repositoryMethod) {
+        Shape sqlShape = shapes.get(sql);
+        if (sqlShape == null) {
+            sqlShape = sqlShape(sql);
+            // Los SQL armados a mano (IN con distinta cantidad de valores) no llenan la memoria
+            if (shapes.size() < MAX_CACHED_SHAPES) {
+                shapes.put(sql, sqlShape);
+            }
+        }
+        return repositoryMethod != null ? new Shape(repositoryMethod, sqlShape.operation()) : sqlShape;
+    }
+
+    private static Shape sqlShape(String sql) {
+        String trimmed = sql.strip();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String operation = end > 0 ? trimmed.substring(0, end).toLowerCase(Locale.ROOT) : "other";
+        Matcher table = TABLE.matcher(trimmed);
+        return new Shape(table.find() ? operation + " " + table.group(1).toLowerCase(Locale.ROOT) : operation, operation);
+    }
+
+    private Meters meters(Shape shape) {
+        MeterRegistry registry = meterRegistry.get();
+        Timer latency = Timer.builder("db.query")
+                .description("Duración de las sentencias SQL por forma de consulta")
+                .tag("query", shape.query())
+                .tag("operation", shape.operation())
+                .publishPercentileHistogram()
+                .register(registry);
+        Counter slow = Counter.builder("db.query.slow")
+                .description("Sentencias SQL que superaron el umbral de consulta lenta")
+                .tag("query", shape.query())
+                .tag("operation", shape.operation())
+                .register(registry);
+        return new Meters(latency, slow);
+    }
+
+    // Primera clase de la aplicación en la pila (el servicio que pidió los datos); solo para las lentas
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(APPLICATION_PACKAGE + "config."))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName())
+                .orElse("-"));
+    }
+
+    private static String loggedSql(String sql) {
+        String compact = IN_LIST.matcher(WHITESPACE.matcher(sql.strip()).replaceAll(" ")).replaceAll("(?...)");
+        return compact.length() > MAX_LOGGED_SQL ? compact.substring(0, MAX_LOGGED_SQL) + "..." : compact;
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Hibernate guarda las sentencias en mapas: equals y hashCode tienen que ser los del proxy
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+        }
+    }
+
+    private static final class StatementState {
+        private final String sql;
+        private final Map<Integer, String> bindTypes = new TreeMap<>();
+        private String batchSql;
+        private int batchSize;
+
+        private StatementState(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private record Shape(String query, String operation) {
+    }
+
+    private record Meters(Timer latency, Counter slow) {
+    }
+}
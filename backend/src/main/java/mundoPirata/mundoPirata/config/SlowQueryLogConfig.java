@@ -0,0 +1,58 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Log de consultas lentas y métricas por consulta (ver SlowQueryDataSource).
+ *
+ * Envuelve el DataSource principal (el bean dataSource: el pool único o, con réplica, el
+ * ReplicaRoutingDataSource) y agrega a cada repositorio de Spring Data un RepositoryMethodTracker.
+ * Se desactiva con datasource.slow-query.enabled=false.
+ *
+ * El bean dataSource pasa a ser un SlowQueryDataSource: quien necesite un DataSource interno (por
+ * ejemplo el contador de EndpointQueryBudgetTest) lo obtiene con unwrap, no por el tipo del bean.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.slow-query.enabled", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    @Bean
+    static BeanPostProcessor slowQueryDataSourcePostProcessor(@Value("${datasource.slow-query.threshold:200ms}") Duration threshold,
+                                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource
+                        && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource(dataSource, threshold, meterRegistry::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryMethodTrackerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodTracker(repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package mundoPirata.mundoPirata.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets en memoria por clave (IP, email), repartidos en franjas con su propio lock
+ * para que requests de distintas claves no compitan entre sí.
+ *
+ * Cada bucket se guarda como un único long: el instante en que volvería a estar lleno
+ * (algoritmo GCRA, equivalente a un token bucket de capacidad {@code capacity} que recarga
+ * {@code capacity} tokens por {@code refillPeriod}). Los buckets que ya se recargaron por
+ * completo y llevan más de {@code idleTimeout} sin uso se eliminan al recorrer la franja.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 64;
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, Duration idleTimeout) {
+        this(capacity, refillPeriod, idleTimeout, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, Duration idleTimeout, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor a cero");
+        }
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = nanosPerToken * (capacity - 1);
+        this.idleNanos = idleTimeout.toNanos();
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Consume un token de la clave.
+     *
+     * @return 0 si se permitió el request, o los nanosegundos hasta que haya un token disponible
+     */
+    public long tryAcquire(String key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            if (++stripe.operations % SWEEP_INTERVAL == 0) {
+                stripe.evictIdle(now, idleNanos);
+            }
+            long[] bucket = stripe.buckets.get(key);
+            long fullAt = bucket != null ? Math.max(bucket[0], now) : now;
+            long waitNanos = fullAt - burstNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket == null) {
+                stripe.buckets.put(key, new long[]{fullAt + nanosPerToken});
+            } else {
+                bucket[0] = fullAt + nanosPerToken;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Cantidad de claves con bucket activo.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        private final Map<String, long[]> buckets = new HashMap<>();
+        private int operations;
+
+        private void evictIdle(long now, long idleNanos) {
+            buckets.values().removeIf(bucket -> now - bucket[0] > idleNanos);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package mundoPirata.mundoPirata.config;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para ejecutar acciones cuando la transacción actual se confirma.
+ * Se usa para invalidar cachés en memoria sin exponer datos no confirmados.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Ejecuta la acción después del commit de la transacción activa,
+     * o inmediatamente si no hay una transacción en curso.
+     */
+    public static void afterCommit(Runnable action) {
+        register(action, Ordered.LOWEST_PRECEDENCE - 1);
+    }
+
+    /**
+     * Como afterCommit, pero después de todas las demás acciones de la transacción sin importar
+     * el orden en que se registraron. AggregateVersions la usa para que un ETag nuevo nunca se
+     * emita antes de que las cachés y snapshots tengan los datos nuevos.
+     */
+    public static void afterCommitLast(Runnable action) {
+        register(action, Ordered.LOWEST_PRECEDENCE);
+    }
+
+    private static void register(Runnable action, int order) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return order;
+                }
+
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
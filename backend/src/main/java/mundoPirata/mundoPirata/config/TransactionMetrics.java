@@ -0,0 +1,66 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duración de las transacciones, desde que empiezan hasta el commit o rollback.
+ *
+ * Spring Boot registra este listener en el JpaTransactionManager. Solo se miden las
+ * transacciones nuevas: las que se suman a una en curso son parte de la de afuera.
+ *
+ * Métrica: db.transaction (histograma) por nombre (Clase.método del @Transactional),
+ * read_only y outcome (commit o rollback).
+ */
+@Component
+public class TransactionMetrics implements TransactionExecutionListener {
+
+    private final MeterRegistry meterRegistry;
+    // La misma TransactionExecution llega al empezar y al terminar la transacción
+    private final Map<TransactionExecution, Long> startTimes = new ConcurrentHashMap<>();
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure == null) {
+            startTimes.put(transaction, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        record(transaction, commitFailure == null ? "commit" : "rollback");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, @Nullable Throwable rollbackFailure) {
+        record(transaction, "rollback");
+    }
+
+    private void record(TransactionExecution transaction, String outcome) {
+        Long start = startTimes.remove(transaction);
+        if (start == null) {
+            return;
+        }
+        String name = transaction.getTransactionName();
+        Timer.builder("db.transaction")
+                .description("Duración de las transacciones")
+                .tag("name", name == null || name.isEmpty() ? "unnamed" : name)
+                .tag("read_only", String.valueOf(transaction.isReadOnly()))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,98 @@
+package mundoPirata.mundoPirata.config;
+
+import jakarta.annotation.PostConstruct;
+import mundoPirata.mundoPirata.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché LRU acotada de UserDetails usada por el filtro JWT para no consultar la base
+ * de datos en cada request autenticado.
+ *
+ * Al invalidar un usuario se registra el instante de la invalidación: los tokens emitidos
+ * antes de ese momento ya no se confían por sus claims y obligan a recargar el usuario.
+ * Esos instantes no se descartan por tamaño sino cuando pasa la vida de un access token
+ * (después ya no queda ningún token anterior vigente), y se guardan también en
+ * users.tokens_valid_after: al iniciar se cargan los que siguen vigentes.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Map<String, UserDetails> entries;
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final UserRepository userRepository;
+    private final long accessTokenLifetimeMillis;
+
+    public UserDetailsCache(UserRepository userRepository,
+                            @Value("${security.user-cache.max-size:10000}") int maxSize,
+                            @Value("${jwt.access-expiration-ms:900000}") long accessTokenLifetimeMillis) {
+        this.userRepository = userRepository;
+        this.entries = lruMap(maxSize);
+        this.accessTokenLifetimeMillis = accessTokenLifetimeMillis;
+    }
+
+    @PostConstruct
+    public void loadInvalidations() {
+        LocalDateTime since = LocalDateTime.now().minusNanos(accessTokenLifetimeMillis * 1_000_000);
+        for (Object[] row : userRepository.findTokenInvalidationsSince(since)) {
+            invalidatedAt.put((String) row[0], ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    public UserDetails get(String email) {
+        synchronized (entries) {
+            return entries.get(email);
+        }
+    }
+
+    public void put(UserDetails userDetails) {
+        synchronized (entries) {
+            entries.put(userDetails.getUsername(), userDetails);
+        }
+    }
+
+    /**
+     * Indica si el usuario fue invalidado después de emitido el token.
+     */
+    public boolean isInvalidatedSince(String email, Date issuedAt) {
+        Long invalidated = invalidatedAt.get(email);
+        return invalidated != null && (issuedAt == null || issuedAt.getTime() <= invalidated);
+    }
+
+    /**
+     * Descarta el usuario ahora y nuevamente tras el commit, para que un request
+     * concurrente no vuelva a cachear datos previos a la modificación. Quien modifica el
+     * usuario guarda además users.tokens_valid_after en la misma transacción.
+     */
+    public void invalidate(String email) {
+        evict(email);
+        TransactionHooks.afterCommit(() -> evict(email));
+    }
+
+    private void evict(String email) {
+        long now = System.currentTimeMillis();
+        // Una invalidación más vieja que la vida de un access token ya no afecta a ningún token
+        invalidatedAt.values().removeIf(invalidated -> invalidated < now - accessTokenLifetimeMillis);
+        invalidatedAt.put(email, now);
+        synchronized (entries) {
+            entries.remove(email);
+        }
+    }
+
+    private static <V> Map<String, V> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package mundoPirata.mundoPirata.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.dto.AdminDashboardDTO;
+import mundoPirata.mundoPirata.service.AdminDashboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+@Tag(name = "Panel de administración", description = "Totales del panel de administración")
+public class AdminDashboardController {
+    
+    private final AdminDashboardService adminDashboardService;
+    
+    @GetMapping
+    @Operation(summary = "Obtener el panel de administración",
+               description = "Ventas, entradas vendidas, donaciones, ubicaciones activas y usuarios en un solo documento. " +
+                       "Se cachea unos segundos; components informa el estado y la latencia de cada total.")
+    public ResponseEntity<AdminDashboardDTO> getDashboard() {
+        return ResponseEntity.ok(adminDashboardService.getDashboard());
+    }
+}
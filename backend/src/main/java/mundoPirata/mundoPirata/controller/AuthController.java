@@ -9,16 +9,23 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.RateLimitRules;
 import mundoPirata.mundoPirata.dto.AuthResponseDTO;
 import mundoPirata.mundoPirata.dto.LoginDTO;
+import mundoPirata.mundoPirata.dto.RefreshTokenDTO;
 import mundoPirata.mundoPirata.dto.UserDTO;
 import mundoPirata.mundoPirata.service.AuthService;
 import mundoPirata.mundoPirata.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -28,6 +35,7 @@ public class AuthController {
     
     private final AuthService authService;
     private final UserService userService;
+    private final RateLimitRules rateLimitRules;
     
     @PostMapping("/login")
     @Operation(summary = "Iniciar sesión", description = "Autentica un usuario y devuelve un token JWT.")
@@ -35,10 +43,53 @@ public class AuthController {
         @ApiResponse(responseCode = "200", description = "Login exitoso",
                 content = @Content(schema = @Schema(implementation = AuthResponseDTO.class))),
         @ApiResponse(responseCode = "401", description = "Credenciales inválidas"),
+        @ApiResponse(responseCode = "429", description = "Demasiados intentos para la IP o el email, reintentar luego"),
+        @ApiResponse(responseCode = "503", description = "Demasiados logins simultáneos, reintentar luego"),
     })
     public ResponseEntity<AuthResponseDTO> login(@Valid @RequestBody LoginDTO loginDTO) {
-        AuthResponseDTO authResponse = authService.login(loginDTO);
-        return ResponseEntity.ok(authResponse);
+        long retryAfterSeconds = rateLimitRules.checkEmail("/api/auth/login", loginDTO.getEmail());
+        if (retryAfterSeconds > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .build();
+        }
+        try {
+            AuthResponseDTO authResponse = authService.login(loginDTO);
+            return ResponseEntity.ok(authResponse);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+    }
+    
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar token", description = "Canjea un refresh token por un nuevo access token. El refresh token usado se rota.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Token renovado",
+                content = @Content(schema = @Schema(implementation = AuthResponseDTO.class))),
+        @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado o ya utilizado")
+    })
+    public ResponseEntity<AuthResponseDTO> refresh(@Valid @RequestBody RefreshTokenDTO refreshTokenDTO) {
+        try {
+            return ResponseEntity.ok(authService.refresh(refreshTokenDTO.getRefreshToken()));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca el access token enviado en el header Authorization y el refresh token del body, si se envía.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Sesión cerrada")
+    })
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenDTO refreshTokenDTO) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        String refreshToken = refreshTokenDTO != null ? refreshTokenDTO.getRefreshToken() : null;
+        authService.logout(accessToken, refreshToken);
+        return ResponseEntity.noContent().build();
     }
     
     @GetMapping("/me")
@@ -101,10 +101,20 @@ public class CalendarController {
     }
     
     @GetMapping
-    @Operation(summary = "Obtener todos los eventos", description = "Retorna todos los eventos (activos e inactivos) - Solo administradores")
-    public ResponseEntity<List<CalendarDTO>> getAllEvents() {
-        List<CalendarDTO> events = calendarService.getAllEvents();
-        return ResponseEntity.ok(events);
+    @Operation(summary = "Obtener todos los eventos", description = "Retorna los eventos (activos e inactivos) por fecha - Solo administradores. Paginado por cursor: hasta size elementos (50 por defecto, máximo 200); " +
+               "si hay más, el header X-Next-Cursor (y Link rel=next) trae el cursor de la página siguiente.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de eventos"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<List<CalendarDTO>> getAllEvents(
+            @Parameter(description = "Cursor de la página siguiente (header X-Next-Cursor)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 200)") @RequestParam(required = false) Integer size) {
+        try {
+            return CursorResponses.ok(calendarService.getAllEvents(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/type/{typeId}")
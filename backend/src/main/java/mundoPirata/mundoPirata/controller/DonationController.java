@@ -71,10 +71,20 @@ public class DonationController {
     }
     
     @GetMapping
-    @Operation(summary = "Obtener todas las donaciones", description = "Retorna todas las donaciones del sistema - Solo administradores")
-    public ResponseEntity<List<DonationDTO>> getAllDonations() {
-        List<DonationDTO> donations = donationService.getAllDonations();
-        return ResponseEntity.ok(donations);
+    @Operation(summary = "Obtener todas las donaciones", description = "Retorna las donaciones del sistema, de la más reciente a la más antigua - Solo administradores. Paginado por cursor: hasta size elementos (50 por defecto, máximo 200); " +
+               "si hay más, el header X-Next-Cursor (y Link rel=next) trae el cursor de la página siguiente.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de donaciones"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<List<DonationDTO>> getAllDonations(
+            @Parameter(description = "Cursor de la página siguiente (header X-Next-Cursor)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 200)") @RequestParam(required = false) Integer size) {
+        try {
+            return CursorResponses.ok(donationService.getAllDonations(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/user/{userId}")
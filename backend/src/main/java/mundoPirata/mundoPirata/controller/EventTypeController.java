@@ -4,8 +4,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import mundoPirata.mundoPirata.entity.EventType;
-import mundoPirata.mundoPirata.repository.EventTypeRepository;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry.EventTypeEntry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,13 +18,13 @@ import java.util.List;
 @Tag(name = "Tipos de Eventos", description = "Gestión de tipos de eventos del calendario")
 public class EventTypeController {
     
-    private final EventTypeRepository eventTypeRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
     
     @GetMapping
     @Operation(summary = "Obtener todos los tipos de eventos", description = "Retorna la lista completa de tipos de eventos disponibles")
     @ApiResponse(responseCode = "200", description = "Lista de tipos de eventos")
-    public ResponseEntity<List<EventType>> getAllEventTypes() {
-        List<EventType> eventTypes = eventTypeRepository.findAll();
+    public ResponseEntity<List<EventTypeEntry>> getAllEventTypes() {
+        List<EventTypeEntry> eventTypes = List.copyOf(referenceDataRegistry.getEventTypes());
         return ResponseEntity.ok(eventTypes);
     }
 } 
\ No newline at end of file
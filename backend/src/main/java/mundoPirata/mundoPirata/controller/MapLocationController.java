@@ -48,11 +48,13 @@ public class MapLocationController {
     }
     
     @GetMapping("/public/search")
-    @Operation(summary = "Buscar ubicaciones", description = "Busca ubicaciones activas por nombre, dirección o descripción")
+    @Operation(summary = "Buscar ubicaciones", description = "Busca ubicaciones activas por nombre, dirección o descripción, " +
+               "sin distinguir tildes y tolerando errores de tipeo. Devuelve las más parecidas primero.")
     @ApiResponse(responseCode = "200", description = "Lista de ubicaciones encontradas")
     public ResponseEntity<List<MapLocationDTO>> searchActiveLocations(
-            @Parameter(description = "Texto a buscar") @RequestParam String q) {
-        List<MapLocationDTO> locations = mapLocationService.searchActiveLocations(q);
+            @Parameter(description = "Texto a buscar") @RequestParam String q,
+            @Parameter(description = "Cantidad máxima de resultados (máximo 100)") @RequestParam(defaultValue = "20") int limit) {
+        List<MapLocationDTO> locations = mapLocationService.searchActiveLocations(q, limit);
         return ResponseEntity.ok(locations);
     }
     
@@ -11,6 +11,7 @@ import mundoPirata.mundoPirata.dto.NewsDTO;
 import mundoPirata.mundoPirata.dto.NewsCreateDTO;
 import mundoPirata.mundoPirata.dto.NewsUpdateDTO;
 import mundoPirata.mundoPirata.service.NewsService;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,7 +30,10 @@ public class NewsController {
     // Endpoints públicos
     @GetMapping("/public")
     @Operation(summary = "Obtener noticias activas", description = "Retorna todas las noticias activas ordenadas por fecha descendente")
-    @ApiResponse(responseCode = "200", description = "Lista de noticias activas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de noticias activas"),
+        @ApiResponse(responseCode = "304", description = "Las noticias no cambiaron desde el ETag enviado en If-None-Match")
+    })
     public ResponseEntity<List<NewsDTO>> getAllActiveNews() {
         List<NewsDTO> news = newsService.getAllActiveNews();
         return ResponseEntity.ok(news);
@@ -48,10 +52,25 @@ public class NewsController {
     }
     
     @GetMapping("/public/search")
-    @Operation(summary = "Buscar noticias por título", description = "Busca noticias que contengan el texto en el título")
-    public ResponseEntity<List<NewsDTO>> searchNews(@Parameter(description = "Texto a buscar en el título") @RequestParam String title) {
-        List<NewsDTO> news = newsService.searchNewsByTitle(title);
-        return ResponseEntity.ok(news);
+    @Operation(summary = "Buscar noticias", description = "Busca en título y contenido de las noticias activas, sin distinguir tildes ni mayúsculas. " +
+               "Los resultados se ordenan por relevancia y se paginan; el total se informa en el header X-Total-Count.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de noticias ordenadas por relevancia"),
+        @ApiResponse(responseCode = "400", description = "Falta el texto a buscar")
+    })
+    public ResponseEntity<List<NewsDTO>> searchNews(
+            @Parameter(description = "Texto a buscar") @RequestParam(required = false) String q,
+            @Parameter(description = "Texto a buscar (nombre anterior del parámetro)") @RequestParam(required = false) String title,
+            @Parameter(description = "Número de página, desde 0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "20") int size) {
+        String query = q != null ? q : title;
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Page<NewsDTO> results = newsService.searchNews(query, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(results.getTotalElements()))
+                .body(results.getContent());
     }
     
     // Endpoints administrativos
@@ -86,10 +105,20 @@ public class NewsController {
     }
     
     @GetMapping
-    @Operation(summary = "Obtener todas las noticias", description = "Retorna todas las noticias (activas e inactivas) - Solo administradores")
-    public ResponseEntity<List<NewsDTO>> getAllNews() {
-        List<NewsDTO> news = newsService.getAllNews();
-        return ResponseEntity.ok(news);
+    @Operation(summary = "Obtener todas las noticias", description = "Retorna las noticias (activas e inactivas), de la más reciente a la más antigua - Solo administradores. Paginado por cursor: hasta size elementos (50 por defecto, máximo 200); " +
+               "si hay más, el header X-Next-Cursor (y Link rel=next) trae el cursor de la página siguiente.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de noticias"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<List<NewsDTO>> getAllNews(
+            @Parameter(description = "Cursor de la página siguiente (header X-Next-Cursor)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 200)") @RequestParam(required = false) Integer size) {
+        try {
+            return CursorResponses.ok(newsService.getAllNews(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/type/{typeId}")
@@ -4,8 +4,8 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import mundoPirata.mundoPirata.entity.NewsType;
-import mundoPirata.mundoPirata.repository.NewsTypeRepository;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry.NewsTypeEntry;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,20 +18,20 @@ import java.util.List;
 @Tag(name = "Tipos de Noticias", description = "Gestión de tipos de noticias")
 public class NewsTypeController {
     
-    private final NewsTypeRepository newsTypeRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
     
     @GetMapping
     @Operation(summary = "Obtener todos los tipos de noticias", description = "Retorna todos los tipos de noticias disponibles")
     @ApiResponse(responseCode = "200", description = "Lista de tipos de noticias")
-    public ResponseEntity<List<NewsType>> getAllNewsTypes() {
-        List<NewsType> newsTypes = newsTypeRepository.findAll();
+    public ResponseEntity<List<NewsTypeEntry>> getAllNewsTypes() {
+        List<NewsTypeEntry> newsTypes = List.copyOf(referenceDataRegistry.getNewsTypes());
         return ResponseEntity.ok(newsTypes);
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Obtener tipo de noticia por ID", description = "Retorna un tipo de noticia específico por su ID")
-    public ResponseEntity<NewsType> getNewsTypeById(@PathVariable Long id) {
-        return newsTypeRepository.findById(id)
+    public ResponseEntity<NewsTypeEntry> getNewsTypeById(@PathVariable Long id) {
+        return referenceDataRegistry.findNewsType(id)
                 .map(newsType -> ResponseEntity.ok(newsType))
                 .orElse(ResponseEntity.notFound().build());
     }
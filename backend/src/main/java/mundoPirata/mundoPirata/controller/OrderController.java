@@ -69,10 +69,20 @@ public class OrderController {
     }
     
     @GetMapping
-    @Operation(summary = "Obtener todas las órdenes", description = "Retorna todas las órdenes del sistema - Solo administradores")
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
-        List<OrderDTO> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    @Operation(summary = "Obtener todas las órdenes", description = "Retorna las órdenes del sistema, de la más reciente a la más antigua - Solo administradores. Paginado por cursor: hasta size elementos (50 por defecto, máximo 200); " +
+               "si hay más, el header X-Next-Cursor (y Link rel=next) trae el cursor de la página siguiente.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de órdenes"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<List<OrderDTO>> getAllOrders(
+            @Parameter(description = "Cursor de la página siguiente (header X-Next-Cursor)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 200)") @RequestParam(required = false) Integer size) {
+        try {
+            return CursorResponses.ok(orderService.getAllOrders(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/user/{userId}")
@@ -0,0 +1,65 @@
+package mundoPirata.mundoPirata.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.dto.TimeSeriesDTO;
+import mundoPirata.mundoPirata.entity.BucketGranularity;
+import mundoPirata.mundoPirata.service.TimeSeriesService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/time-series")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+@Tag(name = "Series de tiempo", description = "Curvas de venta de entradas y de donaciones")
+public class TimeSeriesController {
+    
+    private final TimeSeriesService timeSeriesService;
+    
+    @GetMapping("/ticket-sales")
+    @Operation(summary = "Entradas vendidas de un partido",
+               description = "Entradas y monto por paso desde la apertura de la venta (o from) hasta el partido (o to)")
+    public ResponseEntity<TimeSeriesDTO> getTicketSales(
+            @Parameter(description = "Fecha y hora del partido") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime match,
+            @Parameter(description = "ID de la ubicación (todas si se omite)") @RequestParam(required = false) Long locationId,
+            @Parameter(description = "minute, hour o day") @RequestParam(defaultValue = "hour") BucketGranularity granularity,
+            @Parameter(description = "Paso de cada punto, múltiplo de la granularidad (15m, 6h, P7D)") @RequestParam(required = false) String step,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(timeSeriesService.getTicketSales(match, locationId, granularity, step, from, to));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/donations")
+    @Operation(summary = "Donaciones por destino",
+               description = "Donaciones y monto por paso; sin rango, los últimos 30 días")
+    public ResponseEntity<TimeSeriesDTO> getDonations(
+            @Parameter(description = "ID del destino (todos si se omite)") @RequestParam(required = false) Long destinationId,
+            @Parameter(description = "minute, hour o day") @RequestParam(defaultValue = "day") BucketGranularity granularity,
+            @Parameter(description = "Paso de cada punto, múltiplo de la granularidad (15m, 6h, P7D)") @RequestParam(required = false) String step,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(timeSeriesService.getDonations(destinationId, granularity, step, from, to));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/rebuild")
+    @Operation(summary = "Reconstruir las series",
+               description = "Recalcula todos los intervalos desde las órdenes y donaciones aprobadas")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.ok(timeSeriesService.rebuild());
+    }
+}
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.RateLimitRules;
 import mundoPirata.mundoPirata.dto.UserDTO;
 import mundoPirata.mundoPirata.dto.UserRegistrationDTO;
 import mundoPirata.mundoPirata.dto.UserUpdateDTO;
@@ -14,6 +15,8 @@ import mundoPirata.mundoPirata.dto.UserAdminCreateDTO;
 import mundoPirata.mundoPirata.dto.UserAdminUpdateDTO;
 import mundoPirata.mundoPirata.entity.User;
 import mundoPirata.mundoPirata.service.UserService;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,14 +31,22 @@ import java.util.List;
 public class UserController {
     
     private final UserService userService;
+    private final RateLimitRules rateLimitRules;
     
     @PostMapping("/register")
     @Operation(summary = "Registrar nuevo usuario", description = "Crea un nuevo usuario en el sistema y envía email de bienvenida. Verifica que el email no esté registrado previamente.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Usuario creado exitosamente"),
-        @ApiResponse(responseCode = "400", description = "Error en los datos del usuario o email ya registrado")
+        @ApiResponse(responseCode = "400", description = "Error en los datos del usuario o email ya registrado"),
+        @ApiResponse(responseCode = "429", description = "Demasiados registros para la IP o el email, reintentar luego")
     })
     public ResponseEntity<UserDTO> registerUser(@Valid @RequestBody UserRegistrationDTO registrationDTO) {
+        long retryAfterSeconds = rateLimitRules.checkEmail("/api/users/register", registrationDTO.getEmail());
+        if (retryAfterSeconds > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .build();
+        }
         try {
             UserDTO createdUser = userService.registerUser(registrationDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
@@ -65,10 +76,20 @@ public class UserController {
     }
     
     @GetMapping
-    @Operation(summary = "Obtener todos los usuarios", description = "Retorna la lista completa de usuarios registrados")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    @Operation(summary = "Obtener todos los usuarios", description = "Retorna los usuarios registrados ordenados por apellido. Paginado por cursor: " +
+               "hasta size elementos (50 por defecto, máximo 200); si hay más, el header X-Next-Cursor (y Link rel=next) trae el cursor de la página siguiente.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de usuarios"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<List<UserDTO>> getAllUsers(
+            @Parameter(description = "Cursor de la página siguiente (header X-Next-Cursor)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 200)") @RequestParam(required = false) Integer size) {
+        try {
+            return CursorResponses.ok(userService.getAllUsers(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/role/{role}")
@@ -79,10 +100,26 @@ public class UserController {
     }
     
     @GetMapping("/search")
-    @Operation(summary = "Buscar usuarios por nombre", description = "Busca usuarios que contengan el texto en su nombre o apellido")
-    public ResponseEntity<List<UserDTO>> searchUsersByName(@Parameter(description = "Texto a buscar") @RequestParam String name) {
-        List<UserDTO> users = userService.searchUsersByName(name);
-        return ResponseEntity.ok(users);
+    @Operation(summary = "Buscar usuarios", description = "Busca usuarios cuyo nombre, apellido, email o DNI empiece con cada palabra del texto, " +
+               "sin distinguir tildes ni mayúsculas. Los resultados se ordenan por apellido y nombre y se paginan; " +
+               "el total se informa en el header X-Total-Count.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de usuarios encontrados"),
+        @ApiResponse(responseCode = "400", description = "Falta el texto a buscar")
+    })
+    public ResponseEntity<List<UserDTO>> searchUsers(
+            @Parameter(description = "Texto a buscar") @RequestParam(required = false) String q,
+            @Parameter(description = "Texto a buscar (nombre anterior del parámetro)") @RequestParam(required = false) String name,
+            @Parameter(description = "Número de página, desde 0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página (máximo 100)") @RequestParam(defaultValue = "20") int size) {
+        String query = q != null ? q : name;
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Page<UserDTO> users = userService.searchUsers(query, page, size);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(users.getTotalElements()))
+                .body(users.getContent());
     }
     
     @PutMapping("/{id}")
@@ -0,0 +1,42 @@
+package mundoPirata.mundoPirata.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Totales del panel de administración. Un valor en null indica que su consulta no respondió
+ * a tiempo o falló; el detalle está en components.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminDashboardDTO {
+    private BigDecimal totalSales;
+    private Long soldTickets;
+    private Long availableTickets;
+    private BigDecimal totalDonations;
+    private Long pendingDonations;
+    private DonationStatsDTO donationStats;
+    private Long activeMapLocations;
+    private Long users;
+    private Long admins;
+    private Long news;
+    // Eventos del calendario con fecha en el mes actual
+    private Long eventsThisMonth;
+    private LocalDateTime generatedAt;
+    private Map<String, ComponentStatusDTO> components;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ComponentStatusDTO {
+        // ok, timeout, error o rejected (pool saturado)
+        private String status;
+        private Long latencyMs;
+    }
+}
@@ -11,4 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class AuthResponseDTO {
     private String token;
+    private String refreshToken;
+    // Segundos de validez del access token
+    private Long expiresIn;
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package mundoPirata.mundoPirata.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Una página de un listado paginado por keyset: los elementos y el cursor de la página
+ * siguiente (null si es la última).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -25,4 +25,12 @@ public class OrderDTO {
     private List<OrderItemDTO> orderItems;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    // Usado por las consultas de proyección de OrderRepository; los ítems se completan después
+    public OrderDTO(Long id, Long userId, String userName, BigDecimal totalAmount, LocalDateTime purchaseDate,
+                    String paymentMethod, String paymentId, Order.PurchaseState purchaseState,
+                    LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, userId, userName, totalAmount, purchaseDate, paymentMethod, paymentId, purchaseState,
+                null, createdAt, updatedAt);
+    }
 } 
\ No newline at end of file
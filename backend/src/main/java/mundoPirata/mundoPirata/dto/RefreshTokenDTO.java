@@ -0,0 +1,15 @@
+package mundoPirata.mundoPirata.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDTO {
+    
+    @NotBlank(message = "El refresh token es obligatorio")
+    private String refreshToken;
+}
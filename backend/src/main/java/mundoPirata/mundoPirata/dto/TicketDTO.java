@@ -21,4 +21,10 @@ public class TicketDTO {
     private String eventTitle;
     private Boolean available;
     private LocalDateTime createdAt;
+    
+    // Usado por las consultas de proyección de TicketRepository; el título del evento se completa después
+    public TicketDTO(Long id, String code, Long locationId, String locationName, BigDecimal price,
+                     LocalDateTime dateTime, Boolean available, LocalDateTime createdAt) {
+        this(id, code, locationId, locationName, price, dateTime, null, available, createdAt);
+    }
 } 
\ No newline at end of file
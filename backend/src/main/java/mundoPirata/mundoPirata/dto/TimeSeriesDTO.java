@@ -0,0 +1,37 @@
+package mundoPirata.mundoPirata.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import mundoPirata.mundoPirata.entity.BucketGranularity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serie de tiempo con un punto por cada paso entre from (incluido) y to (excluido); los pasos
+ * sin ventas o donaciones van en cero.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesDTO {
+    private BucketGranularity granularity;
+    // Duración de cada punto en ISO-8601 (PT1H): la granularidad o un múltiplo de ella
+    private String step;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    // Solo en las ventas de entradas: alta de la primera entrada del partido
+    private LocalDateTime salesOpenedAt;
+    private List<PointDTO> points;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PointDTO {
+        private LocalDateTime start;
+        private Long count;
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,38 @@
+package mundoPirata.mundoPirata.entity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tamaño de los intervalos de las series de tiempo (TicketSalesBucket, DonationBucket).
+ */
+public enum BucketGranularity {
+    minute(ChronoUnit.MINUTES, "%Y-%m-%d %H:%i:00"),
+    hour(ChronoUnit.HOURS, "%Y-%m-%d %H:00:00"),
+    day(ChronoUnit.DAYS, "%Y-%m-%d 00:00:00");
+
+    private final ChronoUnit unit;
+    // Formato de DATE_FORMAT de MySQL que lleva una fecha al inicio de su intervalo
+    private final String sqlFormat;
+
+    BucketGranularity(ChronoUnit unit, String sqlFormat) {
+        this.unit = unit;
+        this.sqlFormat = sqlFormat;
+    }
+
+    public Duration getStep() {
+        return unit.getDuration();
+    }
+
+    public String getSqlFormat() {
+        return sqlFormat;
+    }
+
+    /**
+     * Inicio del intervalo que contiene la fecha.
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+}
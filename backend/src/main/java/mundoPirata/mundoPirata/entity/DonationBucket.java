@@ -0,0 +1,50 @@
+package mundoPirata.mundoPirata.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Donaciones aprobadas durante un intervalo, por destino.
+ */
+@Entity
+@Table(name = "donation_buckets")
+@IdClass(DonationBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationBucket {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private BucketGranularity granularity;
+    
+    @Id
+    @Column(name = "destination_id", nullable = false)
+    private Long destinationId;
+    
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "donations", nullable = false)
+    private Long donations;
+    
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private BucketGranularity granularity;
+        private Long destinationId;
+        private LocalDateTime bucketStart;
+    }
+}
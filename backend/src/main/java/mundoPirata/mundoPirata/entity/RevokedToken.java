@@ -0,0 +1,28 @@
+package mundoPirata.mundoPirata.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    
+    // Identificador (jti) del access token revocado
+    @Id
+    @Column(name = "jti", nullable = false, length = 36)
+    private String jti;
+    
+    // Expiración original del token: pasada esta fecha el registro puede eliminarse
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
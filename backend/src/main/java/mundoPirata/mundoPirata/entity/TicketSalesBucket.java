@@ -0,0 +1,56 @@
+package mundoPirata.mundoPirata.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entradas vendidas en órdenes aprobadas durante un intervalo, por partido y ubicación.
+ */
+@Entity
+@Table(name = "ticket_sales_buckets")
+@IdClass(TicketSalesBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketSalesBucket {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private BucketGranularity granularity;
+    
+    // Fecha y hora del partido (date_time de las entradas)
+    @Id
+    @Column(name = "match_date_time", nullable = false)
+    private LocalDateTime matchDateTime;
+    
+    @Id
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+    
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "tickets", nullable = false)
+    private Long tickets;
+    
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private BucketGranularity granularity;
+        private LocalDateTime matchDateTime;
+        private Long locationId;
+        private LocalDateTime bucketStart;
+    }
+}
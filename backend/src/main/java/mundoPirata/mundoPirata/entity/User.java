@@ -54,6 +54,10 @@ public class User implements UserDetails {
     @Column(name = "enabled", nullable = false)
     private Boolean enabled = true;
     
+    // Los access tokens emitidos antes de este instante no se confían por sus claims
+    @Column(name = "tokens_valid_after")
+    private LocalDateTime tokensValidAfter;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,8 +1,12 @@
 package mundoPirata.mundoPirata.repository;
 
+import mundoPirata.mundoPirata.dto.CalendarDTO;
 import mundoPirata.mundoPirata.entity.Calendar;
 import mundoPirata.mundoPirata.entity.EventType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -19,5 +23,26 @@ public interface CalendarRepository extends JpaRepository<Calendar, Long> {
     
     List<Calendar> findByDateBetween(LocalDate startDate, LocalDate endDate);
     
+    long countByDateBetween(LocalDate startDate, LocalDate endDate);
+    
     List<Calendar> findByDate(LocalDate date);
-} 
\ No newline at end of file
+    
+    // Proyección a CalendarDTO en una sola consulta, sin entidades administradas
+    String DTO_SELECT = "SELECT new mundoPirata.mundoPirata.dto.CalendarDTO(c.id, c.title, c.detail, a.id, " +
+            "CONCAT(a.name, ' ', a.lastName), c.date, e.id, e.type, c.state, c.createdAt, c.updatedAt) " +
+            "FROM Calendar c JOIN c.author a JOIN c.eventType e ";
+    
+    // Todos los eventos, para CalendarSnapshotService
+    @Query(DTO_SELECT + "ORDER BY c.date, c.id")
+    List<CalendarDTO> findAllDTOs();
+    
+    @Query(DTO_SELECT + "WHERE c.date BETWEEN :startDate AND :endDate ORDER BY c.date, c.id")
+    List<CalendarDTO> findDTOsByDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    // Listado paginado por keyset (eventos por fecha); índice (date, id) en V3__performance_indexes.sql
+    @Query(DTO_SELECT + "ORDER BY c.date ASC, c.id ASC")
+    List<CalendarDTO> findFirstPage(Pageable limit);
+    
+    @Query(DTO_SELECT + "WHERE c.date > :date OR (c.date = :date AND c.id > :id) ORDER BY c.date ASC, c.id ASC")
+    List<CalendarDTO> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable limit);
+}
\ No newline at end of file
@@ -4,10 +4,6 @@ import mundoPirata.mundoPirata.entity.Destination;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 @Repository
 public interface DestinationRepository extends JpaRepository<Destination, Long> {
-    
-    List<Destination> findByStateTrue();
-} 
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package mundoPirata.mundoPirata.repository;
+
+import mundoPirata.mundoPirata.entity.BucketGranularity;
+import mundoPirata.mundoPirata.entity.DonationBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DonationBucketRepository extends JpaRepository<DonationBucket, DonationBucket.Key> {
+    
+    // Suma una donación en el intervalo que empieza en bucketStart
+    @Modifying
+    @Query(value = "INSERT INTO donation_buckets (granularity, destination_id, bucket_start, donations, amount) " +
+           "SELECT * FROM (SELECT :granularity AS g, d.destination_id AS destination, :bucketStart AS start_time, " +
+           "1 AS donated, d.amount AS donated_amount FROM donations d WHERE d.id = :donationId) AS s " +
+           "ON DUPLICATE KEY UPDATE donations = donations + donated, amount = amount + donated_amount", nativeQuery = true)
+    int addDonation(@Param("granularity") String granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("donationId") Long donationId);
+    
+    // Resta una donación de su intervalo; si quedaría negativo no lo toca y devuelve 0
+    @Modifying
+    @Query(value = "UPDATE donation_buckets b JOIN donations d ON d.id = :donationId AND b.destination_id = d.destination_id " +
+           "SET b.donations = b.donations - 1, b.amount = b.amount - d.amount " +
+           "WHERE b.granularity = :granularity AND b.bucket_start = :bucketStart " +
+           "AND b.donations >= 1 AND b.amount >= d.amount", nativeQuery = true)
+    int subtractDonation(@Param("granularity") String granularity,
+                         @Param("bucketStart") LocalDateTime bucketStart,
+                         @Param("donationId") Long donationId);
+    
+    // Los intervalos de un día no vencen: si no hay ninguno, la tabla nunca se cargó
+    boolean existsByGranularity(BucketGranularity granularity);
+    
+    // Bloquea las donaciones aprobadas hasta el fin de la transacción (ver TimeSeriesService.rebuild)
+    @Query(value = "SELECT COUNT(*) FROM donations WHERE purchase_state = 'approved' FOR SHARE", nativeQuery = true)
+    long lockApprovedDonations();
+    
+    @Modifying
+    @Query(value = "DELETE FROM donation_buckets WHERE granularity = :granularity", nativeQuery = true)
+    int deleteGranularity(@Param("granularity") String granularity);
+    
+    // Recalcula los intervalos desde las donaciones aprobadas desde since; format es el
+    // DATE_FORMAT de la granularidad (BucketGranularity.getSqlFormat)
+    @Modifying
+    @Query(value = "INSERT INTO donation_buckets (granularity, destination_id, bucket_start, donations, amount) " +
+           "SELECT :granularity, s.destination, s.start_time, COUNT(*), SUM(s.amount) " +
+           "FROM (SELECT d.destination_id AS destination, DATE_FORMAT(d.donation_date, :format) AS start_time, d.amount " +
+           "FROM donations d WHERE d.purchase_state = 'approved' AND d.donation_date >= :since) AS s " +
+           "GROUP BY s.destination, s.start_time", nativeQuery = true)
+    int rebuild(@Param("granularity") String granularity,
+                @Param("format") String format,
+                @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM DonationBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") BucketGranularity granularity, @Param("before") LocalDateTime before);
+    
+    // Intervalo, donaciones y monto entre from (incluido) y to (excluido); sin destino suma todos
+    @Query("SELECT b.bucketStart, SUM(b.donations), SUM(b.amount) FROM DonationBucket b " +
+           "WHERE b.granularity = :granularity AND (:destinationId IS NULL OR b.destinationId = :destinationId) " +
+           "AND b.bucketStart >= :from AND b.bucketStart < :to " +
+           "GROUP BY b.bucketStart ORDER BY b.bucketStart")
+    List<Object[]> findSeries(@Param("granularity") BucketGranularity granularity,
+                              @Param("destinationId") Long destinationId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+}
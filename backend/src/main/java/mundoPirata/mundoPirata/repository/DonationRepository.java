@@ -1,8 +1,9 @@
 package mundoPirata.mundoPirata.repository;
 
+import mundoPirata.mundoPirata.dto.DonationDTO;
 import mundoPirata.mundoPirata.entity.Donation;
 import mundoPirata.mundoPirata.entity.Destination;
-import mundoPirata.mundoPirata.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,17 +12,18 @@ import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DonationRepository extends JpaRepository<Donation, Long> {
     
-    List<Donation> findByUser(User user);
-    
     List<Donation> findByDestination(Destination destination);
     
     List<Donation> findByPurchaseState(Donation.PurchaseState state);
     
-    List<Donation> findByDonationDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    long countByPurchaseState(Donation.PurchaseState state);
+    
+    boolean existsByPurchaseState(Donation.PurchaseState state);
     
     @Query("SELECT COALESCE(SUM(d.amount), 0) FROM Donation d WHERE d.purchaseState = :state")
     BigDecimal getTotalDonationsByState(@Param("state") Donation.PurchaseState state);
@@ -35,4 +37,44 @@ public interface DonationRepository extends JpaRepository<Donation, Long> {
     BigDecimal getTotalDonationsByStateBetween(@Param("state") Donation.PurchaseState state,
                                               @Param("startDate") LocalDateTime startDate,
                                               @Param("endDate") LocalDateTime endDate);
-} 
\ No newline at end of file
+    
+    // Estadísticas de las donaciones en un estado, agrupadas en la base: nombre del destino, cantidad,
+    // monto total y monto dentro del período, de mayor a menor monto. El índice
+    // (purchase_state, destination_id, donation_date, amount) de V4__donation_stats_index.sql la cubre
+    @Query("SELECT de.name, COUNT(d), SUM(d.amount), " +
+           "SUM(CASE WHEN d.donationDate BETWEEN :startDate AND :endDate THEN d.amount ELSE 0 END) " +
+           "FROM Donation d JOIN d.destination de WHERE d.purchaseState = :state " +
+           "GROUP BY de.id, de.name ORDER BY SUM(d.amount) DESC")
+    List<Object[]> sumByDestination(@Param("state") Donation.PurchaseState state,
+                                    @Param("startDate") LocalDateTime startDate,
+                                    @Param("endDate") LocalDateTime endDate);
+    
+    // Proyección a DonationDTO en una sola consulta, sin entidades administradas
+    String DTO_SELECT = "SELECT new mundoPirata.mundoPirata.dto.DonationDTO(d.id, u.id, CONCAT(u.name, ' ', u.lastName), " +
+            "de.id, de.name, de.address, d.amount, d.donationDate, d.paymentMethod, d.paymentId, d.purchaseState, " +
+            "d.createdAt, d.updatedAt) FROM Donation d JOIN d.user u JOIN d.destination de ";
+    
+    @Query(DTO_SELECT + "WHERE d.id = :id")
+    Optional<DonationDTO> findDTOById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationDTO> findDTOsByUserId(@Param("userId") Long userId);
+    
+    @Query(DTO_SELECT + "WHERE de.id = :destinationId ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationDTO> findDTOsByDestinationId(@Param("destinationId") Long destinationId);
+    
+    @Query(DTO_SELECT + "WHERE d.purchaseState = :state ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationDTO> findDTOsByPurchaseState(@Param("state") Donation.PurchaseState state);
+    
+    @Query(DTO_SELECT + "WHERE d.donationDate BETWEEN :startDate AND :endDate ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationDTO> findDTOsByDonationDateBetween(@Param("startDate") LocalDateTime startDate,
+                                                    @Param("endDate") LocalDateTime endDate);
+    
+    // Listado paginado por keyset (donaciones, de la más reciente a la más antigua); índice (donation_date, id) en V3__performance_indexes.sql
+    @Query(DTO_SELECT + "ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationDTO> findFirstPage(Pageable limit);
+    
+    @Query(DTO_SELECT + "WHERE d.donationDate < :donationDate OR (d.donationDate = :donationDate AND d.id < :id) " +
+           "ORDER BY d.donationDate DESC, d.id DESC")
+    List<DonationDTO> findPageAfter(@Param("donationDate") LocalDateTime donationDate, @Param("id") Long id, Pageable limit);
+}
\ No newline at end of file
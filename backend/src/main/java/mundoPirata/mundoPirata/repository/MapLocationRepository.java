@@ -28,13 +28,10 @@ public interface MapLocationRepository extends JpaRepository<MapLocation, Long>
     // Obtener ubicaciones por autor
     List<MapLocation> findByAuthorId(Long authorId);
     
-    // Buscar ubicaciones activas por texto (nombre, dirección o descripción)
-    @Query("SELECT ml FROM MapLocation ml WHERE ml.state = true AND " +
-           "(LOWER(ml.name) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(ml.address) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(ml.description) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<MapLocation> findActiveLocationsBySearchText(String searchText);
-    
     // Contar ubicaciones activas
     long countByStateTrue();
+    
+    // Campos indexados por la búsqueda en memoria: id, nombre, dirección y descripción
+    @Query("SELECT ml.id, ml.name, ml.address, ml.description FROM MapLocation ml WHERE ml.state = true")
+    List<Object[]> findActiveSearchFields();
 } 
\ No newline at end of file
@@ -1,23 +1,62 @@
 package mundoPirata.mundoPirata.repository;
 
+import mundoPirata.mundoPirata.dto.NewsDTO;
 import mundoPirata.mundoPirata.entity.News;
-import mundoPirata.mundoPirata.entity.NewsType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NewsRepository extends JpaRepository<News, Long> {
     
-    List<News> findByStateTrue();
+    // Campos indexados por el buscador en memoria: id, título, contenido y fecha
+    @Query("SELECT n.id, n.title, n.content, n.date FROM News n WHERE n.state = true")
+    List<Object[]> findActiveSearchFields();
     
-    List<News> findByStateTrueOrderByDateDesc();
+    // Peso del título frente al contenido en las dos búsquedas: searchActiveFullText y InMemoryNewsIndex
+    int TITLE_BOOST = 3;
     
-    List<News> findByType(NewsType type);
+    // Búsqueda FULLTEXT (solo MySQL): el título pesa TITLE_BOOST veces el contenido. MATCH(title, content)
+    // ya cuenta el título una vez, así que se le suman TITLE_BOOST - 1 veces MATCH(title)
+    @Query(value = "SELECT n.id FROM news n " +
+           "WHERE n.state = true AND MATCH(n.title, n.content) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
+           "ORDER BY (" + (TITLE_BOOST - 1) + " * MATCH(n.title) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
+           "+ MATCH(n.title, n.content) AGAINST (:query IN NATURAL LANGUAGE MODE)) DESC, n.date DESC, n.id DESC " +
+           "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Number> searchActiveFullText(@Param("query") String query, @Param("limit") int limit, @Param("offset") long offset);
     
-    List<News> findByDateBetween(LocalDate startDate, LocalDate endDate);
+    @Query(value = "SELECT COUNT(*) FROM news n " +
+           "WHERE n.state = true AND MATCH(n.title, n.content) AGAINST (:query IN NATURAL LANGUAGE MODE)", nativeQuery = true)
+    long countActiveFullText(@Param("query") String query);
     
-    List<News> findByTitleContainingIgnoreCase(String title);
-} 
\ No newline at end of file
+    @Query(value = "SELECT COUNT(DISTINCT index_name) FROM information_schema.statistics " +
+           "WHERE table_schema = DATABASE() AND table_name = 'news' AND index_type = 'FULLTEXT'", nativeQuery = true)
+    long countFullTextIndexes();
+    
+    // Proyección a NewsDTO en una sola consulta, sin entidades administradas
+    String DTO_SELECT = "SELECT new mundoPirata.mundoPirata.dto.NewsDTO(n.id, t.id, t.type, n.title, n.content, " +
+            "a.id, CONCAT(a.name, ' ', a.lastName), n.date, n.state, n.createdAt, n.updatedAt) " +
+            "FROM News n JOIN n.type t JOIN n.author a ";
+    
+    @Query(DTO_SELECT + "WHERE n.id = :id")
+    Optional<NewsDTO> findDTOById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE n.state = true ORDER BY n.date DESC, n.id DESC")
+    List<NewsDTO> findActiveDTOs();
+    
+    @Query(DTO_SELECT + "WHERE t.id = :typeId ORDER BY n.date DESC, n.id DESC")
+    List<NewsDTO> findDTOsByTypeId(@Param("typeId") Long typeId);
+    
+    // Listado paginado por keyset (noticias, de la más reciente a la más antigua); índice (date, id) en V3__performance_indexes.sql
+    @Query(DTO_SELECT + "ORDER BY n.date DESC, n.id DESC")
+    List<NewsDTO> findFirstPage(Pageable limit);
+    
+    @Query(DTO_SELECT + "WHERE n.date < :date OR (n.date = :date AND n.id < :id) ORDER BY n.date DESC, n.id DESC")
+    List<NewsDTO> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable limit);
+}
\ No newline at end of file
@@ -1,7 +1,9 @@
 package mundoPirata.mundoPirata.repository;
 
+import mundoPirata.mundoPirata.dto.OrderDTO;
+import mundoPirata.mundoPirata.dto.OrderItemDTO;
 import mundoPirata.mundoPirata.entity.Order;
-import mundoPirata.mundoPirata.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,20 +11,48 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
-    List<Order> findByUser(User user);
-    
-    List<Order> findByPurchaseState(Order.PurchaseState state);
-    
-    List<Order> findByPurchaseDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+    boolean existsByPurchaseState(Order.PurchaseState state);
     
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.purchaseState = 'approved'")
     BigDecimal getTotalSales();
     
     @Query("SELECT COUNT(o) FROM Order o WHERE o.purchaseState = 'approved' AND o.purchaseDate BETWEEN :startDate AND :endDate")
     Long countApprovedOrdersBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-} 
\ No newline at end of file
+    
+    // Proyección a OrderDTO sin los ítems (se leen aparte con findItemDTOsByOrderIdIn)
+    String DTO_SELECT = "SELECT new mundoPirata.mundoPirata.dto.OrderDTO(o.id, u.id, CONCAT(u.name, ' ', u.lastName), " +
+            "o.totalAmount, o.purchaseDate, o.paymentMethod, o.paymentId, o.purchaseState, o.createdAt, o.updatedAt) " +
+            "FROM Order o JOIN o.user u ";
+    
+    @Query(DTO_SELECT + "WHERE o.id = :id")
+    Optional<OrderDTO> findDTOById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE u.id = :userId ORDER BY o.purchaseDate DESC, o.id DESC")
+    List<OrderDTO> findDTOsByUserId(@Param("userId") Long userId);
+    
+    @Query(DTO_SELECT + "WHERE o.purchaseState = :state ORDER BY o.purchaseDate DESC, o.id DESC")
+    List<OrderDTO> findDTOsByPurchaseState(@Param("state") Order.PurchaseState state);
+    
+    @Query(DTO_SELECT + "WHERE o.purchaseDate BETWEEN :startDate AND :endDate ORDER BY o.purchaseDate DESC, o.id DESC")
+    List<OrderDTO> findDTOsByPurchaseDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    // Listado paginado por keyset (órdenes, de la más reciente a la más antigua); índice (purchase_date, id) en V3__performance_indexes.sql
+    @Query(DTO_SELECT + "ORDER BY o.purchaseDate DESC, o.id DESC")
+    List<OrderDTO> findFirstPage(Pageable limit);
+    
+    @Query(DTO_SELECT + "WHERE o.purchaseDate < :purchaseDate OR (o.purchaseDate = :purchaseDate AND o.id < :id) " +
+           "ORDER BY o.purchaseDate DESC, o.id DESC")
+    List<OrderDTO> findPageAfter(@Param("purchaseDate") LocalDateTime purchaseDate, @Param("id") Long id, Pageable limit);
+    
+    // Ítems de varias órdenes en una consulta, con el código del ticket y el nombre de la ubicación
+    @Query("SELECT new mundoPirata.mundoPirata.dto.OrderItemDTO(oi.id, o.id, t.id, t.code, l.name, oi.quantity, oi.unitPrice, oi.subtotal) " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.ticket t JOIN t.location l WHERE o.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemDTO> findItemDTOsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package mundoPirata.mundoPirata.repository;
 
+import mundoPirata.mundoPirata.dto.TicketDTO;
 import mundoPirata.mundoPirata.entity.Location;
 import mundoPirata.mundoPirata.entity.Ticket;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,19 +15,44 @@ import java.util.Optional;
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
     
-    List<Ticket> findByAvailableTrue();
-    
-    List<Ticket> findByLocation(Location location);
-    
-    List<Ticket> findByLocationAndAvailableTrue(Location location);
-    
     List<Ticket> findByDateTimeBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    Optional<Ticket> findByCode(String code);
-    
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.location = :location AND t.available = true")
     Long countAvailableByLocation(@Param("location") Location location);
     
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.available = false")
     Long countSoldTickets();
-} 
\ No newline at end of file
+    
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.available = true")
+    Long countAvailableTickets();
+    
+    // Apertura de la venta de un partido: alta de su primera entrada (en la ubicación, si se indica)
+    @Query("SELECT MIN(t.createdAt) FROM Ticket t WHERE t.dateTime = :matchDateTime " +
+           "AND (:locationId IS NULL OR t.location.id = :locationId)")
+    LocalDateTime findSalesOpening(@Param("matchDateTime") LocalDateTime matchDateTime, @Param("locationId") Long locationId);
+    
+    // Proyección a TicketDTO en una sola consulta; el título del evento lo completa TicketService
+    String DTO_SELECT = "SELECT new mundoPirata.mundoPirata.dto.TicketDTO(t.id, t.code, l.id, l.name, t.price, " +
+            "t.dateTime, t.available, t.createdAt) FROM Ticket t JOIN t.location l ";
+    
+    @Query(DTO_SELECT + "WHERE t.id = :id")
+    Optional<TicketDTO> findDTOById(@Param("id") Long id);
+    
+    @Query(DTO_SELECT + "WHERE t.code = :code")
+    Optional<TicketDTO> findDTOByCode(@Param("code") String code);
+    
+    @Query(DTO_SELECT + "ORDER BY t.id")
+    List<TicketDTO> findAllDTOs();
+    
+    @Query(DTO_SELECT + "WHERE t.available = true ORDER BY t.id")
+    List<TicketDTO> findAvailableDTOs();
+    
+    @Query(DTO_SELECT + "WHERE l.id = :locationId ORDER BY t.id")
+    List<TicketDTO> findDTOsByLocationId(@Param("locationId") Long locationId);
+    
+    @Query(DTO_SELECT + "WHERE l.id = :locationId AND t.available = true ORDER BY t.id")
+    List<TicketDTO> findAvailableDTOsByLocationId(@Param("locationId") Long locationId);
+    
+    @Query(DTO_SELECT + "WHERE t.dateTime BETWEEN :startDate AND :endDate ORDER BY t.id")
+    List<TicketDTO> findDTOsByDateTimeBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package mundoPirata.mundoPirata.repository;
+
+import mundoPirata.mundoPirata.entity.BucketGranularity;
+import mundoPirata.mundoPirata.entity.TicketSalesBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TicketSalesBucketRepository extends JpaRepository<TicketSalesBucket, TicketSalesBucket.Key> {
+    
+    // Suma las entradas de una orden en el intervalo que empieza en bucketStart, por partido y
+    // ubicación. Solo lee los ítems de la orden (índice order_id)
+    @Modifying
+    @Query(value = "INSERT INTO ticket_sales_buckets (granularity, match_date_time, location_id, bucket_start, tickets, amount) " +
+           "SELECT * FROM (SELECT :granularity AS g, t.date_time AS match_time, t.location_id AS location, " +
+           ":bucketStart AS start_time, SUM(oi.quantity) AS sold, SUM(oi.subtotal) AS sold_amount " +
+           "FROM order_items oi JOIN tickets t ON t.id = oi.ticket_id WHERE oi.order_id = :orderId " +
+           "GROUP BY t.date_time, t.location_id) AS s " +
+           "ON DUPLICATE KEY UPDATE tickets = tickets + sold, amount = amount + sold_amount", nativeQuery = true)
+    int addOrder(@Param("granularity") String granularity,
+                 @Param("bucketStart") LocalDateTime bucketStart,
+                 @Param("orderId") Long orderId);
+    
+    // Resta las entradas de una orden de sus intervalos. Un intervalo que quedaría negativo no se
+    // toca: devuelve menos filas que countOrderBuckets y TimeSeriesService lo informa
+    @Modifying
+    @Query(value = "UPDATE ticket_sales_buckets b JOIN (SELECT t.date_time AS match_time, t.location_id AS location, " +
+           "SUM(oi.quantity) AS sold, SUM(oi.subtotal) AS sold_amount " +
+           "FROM order_items oi JOIN tickets t ON t.id = oi.ticket_id WHERE oi.order_id = :orderId " +
+           "GROUP BY t.date_time, t.location_id) AS s ON b.match_date_time = s.match_time AND b.location_id = s.location " +
+           "SET b.tickets = b.tickets - s.sold, b.amount = b.amount - s.sold_amount " +
+           "WHERE b.granularity = :granularity AND b.bucket_start = :bucketStart " +
+           "AND b.tickets >= s.sold AND b.amount >= s.sold_amount", nativeQuery = true)
+    int subtractOrder(@Param("granularity") String granularity,
+                      @Param("bucketStart") LocalDateTime bucketStart,
+                      @Param("orderId") Long orderId);
+    
+    // Intervalos (partido y ubicación) en los que cuenta una orden
+    @Query(value = "SELECT COUNT(DISTINCT t.date_time, t.location_id) FROM order_items oi " +
+           "JOIN tickets t ON t.id = oi.ticket_id WHERE oi.order_id = :orderId", nativeQuery = true)
+    int countOrderBuckets(@Param("orderId") Long orderId);
+    
+    // Los intervalos de un día no vencen: si no hay ninguno, la tabla nunca se cargó
+    boolean existsByGranularity(BucketGranularity granularity);
+    
+    // Bloquea las órdenes aprobadas hasta el fin de la transacción (ver TimeSeriesService.rebuild)
+    @Query(value = "SELECT COUNT(*) FROM orders WHERE purchase_state = 'approved' FOR SHARE", nativeQuery = true)
+    long lockApprovedOrders();
+    
+    @Modifying
+    @Query(value = "DELETE FROM ticket_sales_buckets WHERE granularity = :granularity", nativeQuery = true)
+    int deleteGranularity(@Param("granularity") String granularity);
+    
+    // Recalcula los intervalos desde las órdenes aprobadas compradas desde since; format es el
+    // DATE_FORMAT de la granularidad (BucketGranularity.getSqlFormat)
+    @Modifying
+    @Query(value = "INSERT INTO ticket_sales_buckets (granularity, match_date_time, location_id, bucket_start, tickets, amount) " +
+           "SELECT :granularity, s.match_time, s.location, s.start_time, SUM(s.quantity), SUM(s.subtotal) " +
+           "FROM (SELECT t.date_time AS match_time, t.location_id AS location, " +
+           "DATE_FORMAT(o.purchase_date, :format) AS start_time, oi.quantity, oi.subtotal " +
+           "FROM orders o JOIN order_items oi ON oi.order_id = o.id JOIN tickets t ON t.id = oi.ticket_id " +
+           "WHERE o.purchase_state = 'approved' AND o.purchase_date >= :since) AS s " +
+           "GROUP BY s.match_time, s.location, s.start_time", nativeQuery = true)
+    int rebuild(@Param("granularity") String granularity,
+                @Param("format") String format,
+                @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM TicketSalesBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") BucketGranularity granularity, @Param("before") LocalDateTime before);
+    
+    // Intervalo, entradas y monto de un partido entre from (incluido) y to (excluido); sin
+    // ubicación suma todas. Usa la clave primaria (granularity, match_date_time, ...)
+    @Query("SELECT b.bucketStart, SUM(b.tickets), SUM(b.amount) FROM TicketSalesBucket b " +
+           "WHERE b.granularity = :granularity AND b.matchDateTime = :matchDateTime " +
+           "AND (:locationId IS NULL OR b.locationId = :locationId) " +
+           "AND b.bucketStart >= :from AND b.bucketStart < :to " +
+           "GROUP BY b.bucketStart ORDER BY b.bucketStart")
+    List<Object[]> findSeries(@Param("granularity") BucketGranularity granularity,
+                              @Param("matchDateTime") LocalDateTime matchDateTime,
+                              @Param("locationId") Long locationId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+}
@@ -1,11 +1,14 @@
 package mundoPirata.mundoPirata.repository;
 
 import mundoPirata.mundoPirata.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmail(String email);
     
+    // Invalidaciones de tokens todavía vigentes, para UserDetailsCache al iniciar
+    @Query("SELECT u.email, u.tokensValidAfter FROM User u WHERE u.tokensValidAfter > :since")
+    List<Object[]> findTokenInvalidationsSince(@Param("since") LocalDateTime since);
+    
     boolean existsByEmail(String email);
     
     boolean existsByDni(Long dni);
@@ -22,6 +29,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     long countByRole(User.Role role);
     
-    @Query("SELECT u FROM User u WHERE u.name LIKE %:name% OR u.lastName LIKE %:name%")
-    List<User> findByNameContaining(@Param("name") String name);
+    // Solo los campos que indexa la búsqueda de usuarios: ID, nombre, apellido, email y DNI
+    @Query("SELECT u.id, u.name, u.lastName, u.email, u.dni FROM User u")
+    List<Object[]> findSearchFields();
+    
+    // Solo ID, nombre y apellido: usado para resolver nombres de autor en lote
+    @Query("SELECT u.id, u.name, u.lastName FROM User u WHERE u.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Listado paginado por keyset (usuarios por apellido); índice (last_name, id) en V3__performance_indexes.sql
+    @Query("SELECT u FROM User u ORDER BY u.lastName ASC, u.id ASC")
+    List<User> findFirstPage(Pageable limit);
+    
+    @Query("SELECT u FROM User u WHERE u.lastName > :lastName OR (u.lastName = :lastName AND u.id > :id) ORDER BY u.lastName ASC, u.id ASC")
+    List<User> findPageAfter(@Param("lastName") String lastName, @Param("id") Long id, Pageable limit);
 } 
\ No newline at end of file
@@ -0,0 +1,282 @@
+package mundoPirata.mundoPirata.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.dto.AdminDashboardDTO;
+import mundoPirata.mundoPirata.dto.AdminDashboardDTO.ComponentStatusDTO;
+import mundoPirata.mundoPirata.dto.DonationStatsDTO;
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Arma el panel de administración en un solo documento.
+ *
+ * Cada total (ventas, entradas vendidas y disponibles, donaciones y pendientes, estadísticas de
+ * donaciones, ubicaciones activas, usuarios, administradores, noticias y eventos del mes) corre en
+ * paralelo en un pool acotado, cada uno en su propia transacción de solo lectura. Todos comparten
+ * el plazo admin.dashboard.query-timeout: el que no responde a tiempo queda en null con estado
+ * timeout (y la transacción lleva el mismo límite, así la base corta la consulta) y el resto se
+ * devuelve igual.
+ *
+ * El documento se guarda admin.dashboard.cache-ttl, o admin.dashboard.degraded-cache-ttl si algún
+ * total no llegó, para no dejar ese total vacío por todo el TTL. Al vencer, un solo hilo lo rearma
+ * y los demás requests reciben el documento anterior; solo el primero espera.
+ *
+ * Métricas: admin.dashboard.component (latencia por componente y estado) y admin.dashboard.cache
+ * (hit, stale o miss).
+ */
+@Service
+@Slf4j
+public class AdminDashboardService {
+
+    private static final String OK = "ok";
+    private static final String TIMEOUT = "timeout";
+    private static final String ERROR = "error";
+    private static final String REJECTED = "rejected";
+
+    private final OrderService orderService;
+    private final TicketService ticketService;
+    private final DonationService donationService;
+    private final MapLocationService mapLocationService;
+    private final UserService userService;
+    private final NewsService newsService;
+    private final CalendarService calendarService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readTransaction;
+    private final ThreadPoolExecutor executor;
+    private final long queryTimeoutNanos;
+    private final long cacheTtlNanos;
+    private final long degradedCacheTtlNanos;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    private volatile Snapshot snapshot;
+
+    public AdminDashboardService(
+            OrderService orderService,
+            TicketService ticketService,
+            DonationService donationService,
+            MapLocationService mapLocationService,
+            UserService userService,
+            NewsService newsService,
+            CalendarService calendarService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${admin.dashboard.threads:8}") int threads,
+            @Value("${admin.dashboard.queue-capacity:16}") int queueCapacity,
+            @Value("${admin.dashboard.query-timeout:2s}") Duration queryTimeout,
+            @Value("${admin.dashboard.cache-ttl:10s}") Duration cacheTtl,
+            @Value("${admin.dashboard.degraded-cache-ttl:1s}") Duration degradedCacheTtl) {
+        this.orderService = orderService;
+        this.ticketService = ticketService;
+        this.donationService = donationService;
+        this.mapLocationService = mapLocationService;
+        this.userService = userService;
+        this.newsService = newsService;
+        this.calendarService = calendarService;
+        this.meterRegistry = meterRegistry;
+        this.queryTimeoutNanos = queryTimeout.toNanos();
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.degradedCacheTtlNanos = Math.min(degradedCacheTtl.toNanos(), cacheTtlNanos);
+
+        // Los métodos de los servicios se suman a esta transacción y heredan su timeout (en segundos)
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setTimeout((int) Math.max(1, (queryTimeout.toMillis() + 999) / 1000));
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "admin-dashboard-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hits = Counter.builder("admin.dashboard.cache")
+                .tag("result", "hit")
+                .description("Requests del panel servidos desde la caché")
+                .register(meterRegistry);
+        this.staleHits = Counter.builder("admin.dashboard.cache")
+                .tag("result", "stale")
+                .description("Requests del panel servidos con el documento anterior mientras otro hilo lo rearmaba")
+                .register(meterRegistry);
+        this.misses = Counter.builder("admin.dashboard.cache")
+                .tag("result", "miss")
+                .description("Requests del panel que consultaron la base de datos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el panel en caché o lo arma si venció. Mientras otro hilo lo arma, devuelve el
+     * anterior; sin anterior (el primer request) espera.
+     */
+    public AdminDashboardDTO getDashboard() {
+        Snapshot current = snapshot;
+        if (current != null && current.isFresh()) {
+            hits.increment();
+            return current.dashboard;
+        }
+        if (current == null) {
+            rebuildLock.lock();
+        } else if (!rebuildLock.tryLock()) {
+            staleHits.increment();
+            return current.dashboard;
+        }
+        try {
+            current = snapshot;
+            if (current != null && current.isFresh()) {
+                hits.increment();
+                return current.dashboard;
+            }
+            misses.increment();
+            AdminDashboardDTO dashboard = load();
+            long ttl = isComplete(dashboard) ? cacheTtlNanos : degradedCacheTtlNanos;
+            snapshot = new Snapshot(dashboard, System.nanoTime() + ttl);
+            return dashboard;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static boolean isComplete(AdminDashboardDTO dashboard) {
+        return dashboard.getComponents().values().stream().allMatch(component -> OK.equals(component.getStatus()));
+    }
+
+    private AdminDashboardDTO load() {
+        long deadline = System.nanoTime() + queryTimeoutNanos;
+        YearMonth currentMonth = YearMonth.now();
+        Component<BigDecimal> totalSales = submit("totalSales", orderService::getTotalSales);
+        Component<Long> soldTickets = submit("soldTickets", ticketService::getSoldTicketsCount);
+        Component<Long> availableTickets = submit("availableTickets", ticketService::getAvailableTicketsCount);
+        Component<BigDecimal> totalDonations = submit("totalDonations", donationService::getTotalDonations);
+        Component<Long> pendingDonations = submit("pendingDonations",
+                () -> donationService.getDonationsCountByState(Donation.PurchaseState.pending));
+        Component<DonationStatsDTO> donationStats = submit("donationStats", donationService::getDonationStatistics);
+        Component<Long> activeMapLocations = submit("activeMapLocations", mapLocationService::getActiveLocationsCount);
+        Component<Long> users = submit("users", () -> userService.countUsersByRole(User.Role.user));
+        Component<Long> admins = submit("admins", () -> userService.countUsersByRole(User.Role.admin));
+        Component<Long> news = submit("news", newsService::getNewsCount);
+        Component<Long> eventsThisMonth = submit("eventsThisMonth",
+                () -> calendarService.getEventsCountBetween(currentMonth.atDay(1), currentMonth.atEndOfMonth()));
+
+        Map<String, ComponentStatusDTO> statuses = new LinkedHashMap<>();
+        AdminDashboardDTO dashboard = new AdminDashboardDTO();
+        dashboard.setTotalSales(await(totalSales, deadline, statuses));
+        dashboard.setSoldTickets(await(soldTickets, deadline, statuses));
+        dashboard.setAvailableTickets(await(availableTickets, deadline, statuses));
+        dashboard.setTotalDonations(await(totalDonations, deadline, statuses));
+        dashboard.setPendingDonations(await(pendingDonations, deadline, statuses));
+        dashboard.setDonationStats(await(donationStats, deadline, statuses));
+        dashboard.setActiveMapLocations(await(activeMapLocations, deadline, statuses));
+        dashboard.setUsers(await(users, deadline, statuses));
+        dashboard.setAdmins(await(admins, deadline, statuses));
+        dashboard.setNews(await(news, deadline, statuses));
+        dashboard.setEventsThisMonth(await(eventsThisMonth, deadline, statuses));
+        dashboard.setGeneratedAt(LocalDateTime.now());
+        dashboard.setComponents(statuses);
+        return dashboard;
+    }
+
+    private <T> Component<T> submit(String name, Supplier<T> query) {
+        Component<T> component = new Component<>(name);
+        try {
+            component.future = executor.submit(() -> {
+                try {
+                    return readTransaction.execute(status -> query.get());
+                } finally {
+                    component.finishedAt = System.nanoTime();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Dashboard pool saturated, skipping component {}", name);
+        }
+        return component;
+    }
+
+    private <T> T await(Component<T> component, long deadline, Map<String, ComponentStatusDTO> statuses) {
+        T value = null;
+        String status;
+        if (component.future == null) {
+            status = REJECTED;
+        } else {
+            try {
+                value = component.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                status = OK;
+            } catch (TimeoutException e) {
+                component.future.cancel(true);
+                status = TIMEOUT;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                component.future.cancel(true);
+                status = ERROR;
+            } catch (ExecutionException e) {
+                log.warn("Dashboard component {} failed: {}", component.name, e.getCause().toString());
+                status = ERROR;
+            }
+        }
+        long finishedAt = component.finishedAt > 0 ? component.finishedAt : System.nanoTime();
+        long latencyNanos = finishedAt - component.submittedAt;
+        Timer.builder("admin.dashboard.component")
+                .description("Latencia de cada total del panel de administración")
+                .tag("component", component.name)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+        statuses.put(component.name, new ComponentStatusDTO(status, TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+        return value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Component<T> {
+        private final String name;
+        private final long submittedAt = System.nanoTime();
+        private Future<T> future;
+        private volatile long finishedAt;
+
+        private Component(String name) {
+            this.name = name;
+        }
+    }
+
+    private record Snapshot(AdminDashboardDTO dashboard, long expiresAt) {
+        boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+    }
+}
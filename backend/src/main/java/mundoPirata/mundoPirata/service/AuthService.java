@@ -7,11 +7,12 @@ import mundoPirata.mundoPirata.dto.LoginDTO;
 import mundoPirata.mundoPirata.dto.UserDTO;
 import mundoPirata.mundoPirata.entity.User;
 import mundoPirata.mundoPirata.repository.UserRepository;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 
 @Service
 @RequiredArgsConstructor
@@ -21,20 +22,47 @@ public class AuthService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    
+    // Hash usado cuando el email no existe, para que el tiempo de respuesta no revele qué emails están registrados
+    private volatile String unknownUserHash;
     
+    /**
+     * Login con una única consulta del usuario. La verificación de BCrypt (y el re-hash si el
+     * costo configurado cambió) corre en el pool acotado de PasswordHashingExecutor.
+     *
+     * @throws BadCredentialsException si el email o la contraseña son incorrectos
+     * @throws java.util.concurrent.RejectedExecutionException si el pool de login está saturado
+     */
     public AuthResponseDTO login(LoginDTO loginDTO) {
         log.info("Attempting login for email: {}", loginDTO.getEmail());
 
-        authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                loginDTO.getEmail(),
-                loginDTO.getPassword()
-            )
-        );
+        Optional<User> userOpt = userRepository.findByEmail(loginDTO.getEmail());
+        String storedHash = userOpt.map(User::getPassword).orElseGet(this::getUnknownUserHash);
+
+        PasswordCheck check = passwordHashingExecutor.execute(() -> {
+            if (!passwordEncoder.matches(loginDTO.getPassword(), storedHash)) {
+                return PasswordCheck.INVALID;
+            }
+            if (passwordEncoder.upgradeEncoding(storedHash)) {
+                return new PasswordCheck(true, passwordEncoder.encode(loginDTO.getPassword()));
+            }
+            return PasswordCheck.VALID;
+        });
 
-        UserDetails user = userRepository.findByEmail(loginDTO.getEmail())
-                .orElseThrow(() -> new IllegalStateException("User not found after authentication"));
+        if (userOpt.isEmpty() || !check.matches()) {
+            throw new BadCredentialsException("Credenciales inválidas");
+        }
+
+        User user = userOpt.get();
+        if (check.upgradedHash() != null) {
+            user.setPassword(check.upgradedHash());
+            userRepository.save(user);
+            log.info("Password hash upgraded for user: {}", user.getUsername());
+        }
 
         log.info("Authentication successful for user: {}", user.getUsername());
         
@@ -42,9 +70,35 @@ public class AuthService {
         
         log.info("JWT token generated for user: {}", user.getUsername());
 
-        return AuthResponseDTO.builder()
-                .token(jwtToken)
-                .build();
+        return buildResponse(jwtToken, refreshTokenService.issue(user));
+    }
+    
+    /**
+     * Emite un nuevo access token a partir de un refresh token, sin pasar por BCrypt.
+     * El refresh token usado se rota.
+     *
+     * @throws BadCredentialsException si el refresh token es inválido, expiró o ya fue usado
+     */
+    public AuthResponseDTO refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        if (!rotation.user().isEnabled()) {
+            refreshTokenService.revoke(rotation.refreshToken());
+            throw new BadCredentialsException("Usuario deshabilitado");
+        }
+        return buildResponse(jwtService.generateToken(rotation.user()), rotation.refreshToken());
+    }
+    
+    /**
+     * Revoca el access token hasta su expiración y, si se envía, el refresh token.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            jwtService.parseToken(accessToken)
+                    .ifPresent(claims -> tokenRevocationService.revoke(claims.getId(), claims.getExpiration()));
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
     }
     
     public UserDTO getUserByEmail(String email) {
@@ -58,4 +112,24 @@ public class AuthService {
             throw new RuntimeException("Usuario no encontrado");
         }
     }
-} 
\ No newline at end of file
+    
+    private AuthResponseDTO buildResponse(String accessToken, String refreshToken) {
+        return AuthResponseDTO.builder()
+                .token(accessToken)
+                .refreshToken(refreshToken)
+                .expiresIn(jwtService.getAccessTokenExpirationMillis() / 1000)
+                .build();
+    }
+    
+    private String getUnknownUserHash() {
+        if (unknownUserHash == null) {
+            unknownUserHash = passwordHashingExecutor.execute(() -> passwordEncoder.encode("usuario-inexistente"));
+        }
+        return unknownUserHash;
+    }
+    
+    private record PasswordCheck(boolean matches, String upgradedHash) {
+        static final PasswordCheck VALID = new PasswordCheck(true, null);
+        static final PasswordCheck INVALID = new PasswordCheck(false, null);
+    }
+}
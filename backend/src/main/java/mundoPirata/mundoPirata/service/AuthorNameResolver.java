@@ -0,0 +1,97 @@
+package mundoPirata.mundoPirata.service;
+
+import mundoPirata.mundoPirata.config.PrimaryReads;
+import mundoPirata.mundoPirata.config.TransactionHooks;
+import mundoPirata.mundoPirata.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resuelve nombres de autor ("Nombre Apellido") por ID de usuario para listados que solo
+ * guardan el authorId. Los IDs que no están en la caché LRU se cargan con una única
+ * consulta por listado; UserService invalida la entrada cuando cambia el usuario.
+ */
+@Component
+public class AuthorNameResolver {
+
+    public static final String UNKNOWN_AUTHOR = "Usuario no encontrado";
+
+    private final UserRepository userRepository;
+    private final Map<Long, String> names;
+    // Cuenta las invalidaciones (protegido por names): una carga que empezó antes de una no se guarda
+    private long generation;
+
+    public AuthorNameResolver(UserRepository userRepository,
+                              @Value("${map-locations.author-cache.max-size:1000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.names = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public String resolve(Long userId) {
+        return resolveAll(Set.of(userId)).getOrDefault(userId, UNKNOWN_AUTHOR);
+    }
+
+    /**
+     * Devuelve el nombre de cada ID conocido. Los IDs sin usuario no aparecen en el resultado.
+     */
+    public Map<Long, String> resolveAll(Collection<Long> userIds) {
+        Map<Long, String> resolved = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        long loadGeneration;
+        synchronized (names) {
+            loadGeneration = generation;
+            for (Long userId : userIds) {
+                String name = names.get(userId);
+                if (name != null) {
+                    resolved.put(userId, name);
+                } else if (userId != null) {
+                    missing.add(userId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        Map<Long, String> loaded = new HashMap<>();
+        // Desde el primario: tras una invalidación, una réplica atrasada devolvería el nombre anterior
+        for (Object[] row : PrimaryReads.execute(() -> userRepository.findNamesByIdIn(missing))) {
+            loaded.put((Long) row[0], row[1] + " " + row[2]);
+        }
+        synchronized (names) {
+            // Si hubo una invalidación durante la consulta, lo leído puede ser anterior al cambio
+            if (generation == loadGeneration) {
+                names.putAll(loaded);
+            }
+        }
+        resolved.putAll(loaded);
+        return resolved;
+    }
+
+    /**
+     * Descarta el nombre ahora y nuevamente tras el commit de la transacción en curso.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        TransactionHooks.afterCommit(() -> evict(userId));
+    }
+
+    private void evict(Long userId) {
+        synchronized (names) {
+            names.remove(userId);
+            generation++;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
 import mundoPirata.mundoPirata.dto.CalendarDTO;
 import mundoPirata.mundoPirata.dto.CalendarCreateDTO;
 import mundoPirata.mundoPirata.dto.CalendarUpdateDTO;
+import mundoPirata.mundoPirata.dto.CursorPage;
 import mundoPirata.mundoPirata.entity.Calendar;
-import mundoPirata.mundoPirata.entity.EventType;
 import mundoPirata.mundoPirata.entity.User;
 import mundoPirata.mundoPirata.entity.Ticket;
 import mundoPirata.mundoPirata.repository.CalendarRepository;
@@ -19,6 +21,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,12 +33,15 @@ public class CalendarService {
     private final EventTypeRepository eventTypeRepository;
     private final UserRepository userRepository;
     private final TicketRepository ticketRepository;
+    private final CalendarSnapshotService calendarSnapshotService;
+    private final AggregateVersions aggregateVersions;
+    private final ReferenceDataRegistry referenceDataRegistry;
     
     public CalendarDTO createEvent(CalendarCreateDTO calendarCreateDTO) {
         User author = userRepository.findById(calendarCreateDTO.getAuthorId())
                 .orElseThrow(() -> new RuntimeException("Autor no encontrado"));
         
-        EventType eventType = eventTypeRepository.findById(calendarCreateDTO.getEventTypeId())
+        referenceDataRegistry.findEventType(calendarCreateDTO.getEventTypeId())
                 .orElseThrow(() -> new RuntimeException("Tipo de evento no encontrado"));
         
         Calendar event = new Calendar();
@@ -43,10 +49,12 @@ public class CalendarService {
         event.setDetail(calendarCreateDTO.getDetail());
         event.setAuthor(author);
         event.setDate(calendarCreateDTO.getDate());
-        event.setEventType(eventType);
+        event.setEventType(eventTypeRepository.getReferenceById(calendarCreateDTO.getEventTypeId()));
         event.setState(true);
         
         Calendar savedEvent = calendarRepository.save(event);
+        calendarSnapshotService.refreshAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.CALENDAR);
         return convertToDTO(savedEvent);
     }
     
@@ -67,59 +75,66 @@ public class CalendarService {
         }
         
         if (calendarUpdateDTO.getEventTypeId() != null) {
-            EventType eventType = eventTypeRepository.findById(calendarUpdateDTO.getEventTypeId())
+            referenceDataRegistry.findEventType(calendarUpdateDTO.getEventTypeId())
                     .orElseThrow(() -> new RuntimeException("Tipo de evento no encontrado"));
-            event.setEventType(eventType);
+            event.setEventType(eventTypeRepository.getReferenceById(calendarUpdateDTO.getEventTypeId()));
         }
         
         Calendar updatedEvent = calendarRepository.save(event);
+        calendarSnapshotService.refreshAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.CALENDAR);
         return convertToDTO(updatedEvent);
     }
     
+    @Transactional(readOnly = true)
     public Optional<CalendarDTO> getEventById(Long eventId) {
-        return calendarRepository.findById(eventId)
-                .map(this::convertToDTO);
+        return calendarSnapshotService.getEventById(eventId);
     }
     
+    @Transactional(readOnly = true)
     public List<CalendarDTO> getAllActiveEvents() {
-        return calendarRepository.findByStateTrueOrderByDate().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return calendarSnapshotService.getAllActiveEvents();
     }
     
-    public List<CalendarDTO> getAllEvents() {
-        return calendarRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Paginado por keyset (ver KeysetCursor): el costo por página no depende del tamaño de la tabla
+    @Transactional(readOnly = true)
+    public CursorPage<CalendarDTO> getAllEvents(String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        List<CalendarDTO> rows = after == null
+                ? calendarRepository.findFirstPage(KeysetCursor.limit(pageSize))
+                : calendarRepository.findPageAfter(after.getKeyAsDate(), after.getId(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.page(rows, pageSize, event -> KeysetCursor.of(event.getDate(), event.getId()),
+                Function.identity());
     }
     
+    @Transactional(readOnly = true)
     public List<CalendarDTO> getEventsByType(Long typeId) {
-        EventType eventType = eventTypeRepository.findById(typeId)
-                .orElseThrow(() -> new RuntimeException("Tipo de evento no encontrado"));
+        if (referenceDataRegistry.findEventType(typeId).isEmpty()) {
+            throw new RuntimeException("Tipo de evento no encontrado");
+        }
         
-        return calendarRepository.findByEventType(eventType).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return calendarSnapshotService.getEventsByType(typeId);
     }
     
+    @Transactional(readOnly = true)
     public List<CalendarDTO> getEventsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return calendarRepository.findByDateBetween(startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return calendarRepository.findDTOsByDateBetween(startDate, endDate);
     }
     
+    @Transactional(readOnly = true)
     public List<CalendarDTO> getEventsByDate(LocalDate date) {
-        return calendarRepository.findByDate(date).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return calendarSnapshotService.getEventsByDate(date);
     }
     
+    @Transactional(readOnly = true)
+    public long getEventsCountBetween(LocalDate startDate, LocalDate endDate) {
+        return calendarRepository.countByDateBetween(startDate, endDate);
+    }
+    
+    @Transactional(readOnly = true)
     public List<CalendarDTO> getUpcomingEvents() {
-        LocalDate today = LocalDate.now();
-        return calendarRepository.findByDateBetween(today, today.plusMonths(3)).stream()
-                .filter(event -> event.getState())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return calendarSnapshotService.getUpcomingEvents();
     }
     
     public void toggleEventState(Long eventId) {
@@ -128,6 +143,8 @@ public class CalendarService {
         
         event.setState(!event.getState());
         calendarRepository.save(event);
+        calendarSnapshotService.refreshAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.CALENDAR);
     }
     
     public void deleteEvent(Long eventId) {
@@ -164,14 +181,18 @@ public class CalendarService {
         // Eliminar físicamente todas las entradas disponibles
         if (!allTickets.isEmpty()) {
             ticketRepository.deleteAll(allTickets);
+            aggregateVersions.bumpAfterCommit(Aggregate.TICKETS);
             System.out.println("✅ " + allTickets.size() + " entradas disponibles eliminadas");
         }
         
         // Eliminar físicamente el evento del calendario
         calendarRepository.delete(event);
+        calendarSnapshotService.refreshAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.CALENDAR);
         System.out.println("✅ Evento '" + event.getTitle() + "' eliminado del calendario");
     }
     
+    // Solo para devolver el evento recién guardado; las lecturas usan las proyecciones de CalendarRepository
     private CalendarDTO convertToDTO(Calendar event) {
         CalendarDTO dto = new CalendarDTO();
         dto.setId(event.getId());
@@ -181,7 +202,7 @@ public class CalendarService {
         dto.setAuthorName(event.getAuthor().getName() + " " + event.getAuthor().getLastName());
         dto.setDate(event.getDate());
         dto.setEventTypeId(event.getEventType().getId());
-        dto.setEventTypeDescription(event.getEventType().getType());
+        dto.setEventTypeDescription(referenceDataRegistry.eventTypeOf(event.getEventType()).type());
         dto.setState(event.getState());
         dto.setCreatedAt(event.getCreatedAt());
         dto.setUpdatedAt(event.getUpdatedAt());
@@ -0,0 +1,165 @@
+package mundoPirata.mundoPirata.service;
+
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.config.PrimaryReads;
+import mundoPirata.mundoPirata.config.TransactionHooks;
+import mundoPirata.mundoPirata.dto.CalendarDTO;
+import mundoPirata.mundoPirata.repository.CalendarRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Vistas precalculadas e inmutables del calendario para los endpoints públicos.
+ *
+ * El snapshot se arma con una única consulta (proyección a CalendarDTO) la primera vez que
+ * se usa y se vuelve a armar después del commit de cada escritura del calendario. La vista
+ * de próximos eventos depende del día actual: a medianoche se recalcula en memoria sin
+ * consultar la base.
+ */
+@Service
+@Slf4j
+public class CalendarSnapshotService {
+
+    private static final int UPCOMING_MONTHS = 3;
+
+    private final CalendarRepository calendarRepository;
+    private final TransactionTemplate readTransaction;
+
+    private volatile Snapshot snapshot;
+
+    public CalendarSnapshotService(CalendarRepository calendarRepository, PlatformTransactionManager transactionManager) {
+        this.calendarRepository = calendarRepository;
+        // Propia transacción de solo lectura: la reconstrucción corre después del commit de la escritura
+        // y lee del primario (PrimaryReads) para no guardar datos anteriores a ella
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public List<CalendarDTO> getAllActiveEvents() {
+        return current().allActive;
+    }
+
+    public List<CalendarDTO> getUpcomingEvents() {
+        return current().upcoming;
+    }
+
+    public List<CalendarDTO> getEventsByDate(LocalDate date) {
+        return current().byDate.getOrDefault(date, List.of());
+    }
+
+    public List<CalendarDTO> getEventsByType(Long eventTypeId) {
+        return current().byType.getOrDefault(eventTypeId, List.of());
+    }
+
+    public Optional<CalendarDTO> getEventById(Long eventId) {
+        return Optional.ofNullable(current().byId.get(eventId));
+    }
+
+    /**
+     * Reconstruye el snapshot cuando se confirma la transacción en curso.
+     */
+    public void refreshAfterCommit() {
+        TransactionHooks.afterCommit(this::rebuild);
+    }
+
+    /**
+     * Al cambiar el día, los eventos de ayer dejan de ser "próximos" y entran los del nuevo día.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollover() {
+        if (snapshot != null) {
+            log.info("Calendar snapshot rolled over to {}", refreshDay(LocalDate.now()).today);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        // Si el rollover programado todavía no corrió, se recalcula la vista del día
+        if (current == null || !current.today.equals(LocalDate.now())) {
+            current = refreshDay(LocalDate.now());
+        }
+        return current;
+    }
+
+    private synchronized Snapshot refreshDay(LocalDate today) {
+        if (snapshot == null) {
+            return rebuild();
+        }
+        if (!snapshot.today.equals(today)) {
+            snapshot = snapshot.withToday(today);
+        }
+        return snapshot;
+    }
+
+    private synchronized Snapshot rebuild() {
+        List<CalendarDTO> events = PrimaryReads.execute(() -> readTransaction.execute(status -> calendarRepository.findAllDTOs()));
+        Snapshot rebuilt = new Snapshot(events, LocalDate.now());
+        snapshot = rebuilt;
+        log.debug("Calendar snapshot rebuilt with {} events", events.size());
+        return rebuilt;
+    }
+
+    /**
+     * Vistas inmutables, ordenadas por fecha e ID, de un mismo conjunto de eventos.
+     */
+    private static final class Snapshot {
+        private final List<CalendarDTO> events;
+        private final LocalDate today;
+        private final List<CalendarDTO> allActive;
+        private final List<CalendarDTO> upcoming;
+        private final Map<Long, CalendarDTO> byId;
+        private final Map<LocalDate, List<CalendarDTO>> byDate;
+        private final Map<Long, List<CalendarDTO>> byType;
+
+        private Snapshot(List<CalendarDTO> events, LocalDate today) {
+            this(List.copyOf(events), today, null);
+        }
+
+        private Snapshot(List<CalendarDTO> events, LocalDate today, Snapshot previous) {
+            this.events = events;
+            this.today = today;
+            if (previous != null) {
+                this.allActive = previous.allActive;
+                this.byId = previous.byId;
+                this.byDate = previous.byDate;
+                this.byType = previous.byType;
+            } else {
+                this.allActive = events.stream()
+                        .filter(event -> Boolean.TRUE.equals(event.getState()))
+                        .toList();
+                this.byId = Collections.unmodifiableMap(events.stream()
+                        .collect(Collectors.toMap(CalendarDTO::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new)));
+                this.byDate = groupBy(events, CalendarDTO::getDate);
+                this.byType = groupBy(events, CalendarDTO::getEventTypeId);
+            }
+            LocalDate until = today.plusMonths(UPCOMING_MONTHS);
+            this.upcoming = allActive.stream()
+                    .filter(event -> !event.getDate().isBefore(today) && !event.getDate().isAfter(until))
+                    .toList();
+        }
+
+        private Snapshot withToday(LocalDate newToday) {
+            return new Snapshot(events, newToday, this);
+        }
+
+        private static <K> Map<K, List<CalendarDTO>> groupBy(List<CalendarDTO> events, Function<CalendarDTO, K> key) {
+            Map<K, List<CalendarDTO>> grouped = events.stream()
+                    .collect(Collectors.groupingBy(key, LinkedHashMap::new, Collectors.toList()));
+            grouped.replaceAll((k, list) -> List.copyOf(list));
+            return Collections.unmodifiableMap(grouped);
+        }
+    }
+}
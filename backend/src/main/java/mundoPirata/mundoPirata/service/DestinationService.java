@@ -1,11 +1,14 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
 import mundoPirata.mundoPirata.dto.DestinationCreateDTO;
 import mundoPirata.mundoPirata.dto.DestinationDTO;
 import mundoPirata.mundoPirata.entity.Destination;
 import mundoPirata.mundoPirata.repository.DestinationRepository;
 import mundoPirata.mundoPirata.repository.DonationRepository;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry.DestinationEntry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,21 +23,28 @@ public class DestinationService {
     
     private final DestinationRepository destinationRepository;
     private final DonationRepository donationRepository;
+    private final AggregateVersions aggregateVersions;
+    private final ReferenceDataRegistry referenceDataRegistry;
     
+    // Las lecturas salen de ReferenceDataRegistry, que se recarga después de cada escritura
+    @Transactional(readOnly = true)
     public List<DestinationDTO> getAllDestinations() {
-        return destinationRepository.findAll().stream()
+        return referenceDataRegistry.getDestinations().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<DestinationDTO> getActiveDestinations() {
-        return destinationRepository.findByStateTrue().stream()
+        return referenceDataRegistry.getDestinations().stream()
+                .filter(DestinationEntry::isActive)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public Optional<DestinationDTO> getDestinationById(Long id) {
-        return destinationRepository.findById(id)
+        return referenceDataRegistry.findDestination(id)
                 .map(this::convertToDTO);
     }
     
@@ -46,6 +56,8 @@ public class DestinationService {
         destination.setState(true); // Nueva destinación activa por defecto
         
         Destination savedDestination = destinationRepository.save(destination);
+        referenceDataRegistry.reloadAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.DESTINATIONS);
         return convertToDTO(savedDestination);
     }
     
@@ -59,6 +71,8 @@ public class DestinationService {
         destination.setState(destinationDTO.getState());
         
         Destination savedDestination = destinationRepository.save(destination);
+        referenceDataRegistry.reloadAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.DESTINATIONS);
         return convertToDTO(savedDestination);
     }
     
@@ -68,6 +82,8 @@ public class DestinationService {
         
         destination.setState(!destination.getState());
         Destination savedDestination = destinationRepository.save(destination);
+        referenceDataRegistry.reloadAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.DESTINATIONS);
         return convertToDTO(savedDestination);
     }
     
@@ -82,6 +98,8 @@ public class DestinationService {
         }
         
         destinationRepository.delete(destination);
+        referenceDataRegistry.reloadAfterCommit();
+        aggregateVersions.bumpAfterCommit(Aggregate.DESTINATIONS);
     }
     
     private DestinationDTO convertToDTO(Destination destination) {
@@ -93,4 +111,14 @@ public class DestinationService {
         dto.setState(destination.getState());
         return dto;
     }
+    
+    private DestinationDTO convertToDTO(DestinationEntry destination) {
+        DestinationDTO dto = new DestinationDTO();
+        dto.setId(destination.id());
+        dto.setName(destination.name());
+        dto.setAddress(destination.address());
+        dto.setPhoneNumber(destination.phoneNumber());
+        dto.setState(destination.state());
+        return dto;
+    }
 } 
\ No newline at end of file
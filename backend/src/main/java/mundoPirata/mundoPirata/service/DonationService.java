@@ -1,15 +1,16 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.dto.CursorPage;
 import mundoPirata.mundoPirata.dto.DonationDTO;
 import mundoPirata.mundoPirata.dto.DonationCreateDTO;
 import mundoPirata.mundoPirata.dto.DonationStatsDTO;
 import mundoPirata.mundoPirata.entity.Donation;
-import mundoPirata.mundoPirata.entity.Destination;
 import mundoPirata.mundoPirata.entity.User;
 import mundoPirata.mundoPirata.repository.DonationRepository;
 import mundoPirata.mundoPirata.repository.DestinationRepository;
 import mundoPirata.mundoPirata.repository.UserRepository;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry.DestinationEntry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,10 +18,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -31,17 +32,19 @@ public class DonationService {
     private final UserRepository userRepository;
     private final DestinationRepository destinationRepository;
     private final EmailService emailService;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final TimeSeriesService timeSeriesService;
     
     public DonationDTO createDonation(DonationCreateDTO donationCreateDTO) {
         User user = userRepository.findById(donationCreateDTO.getUserId())
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         
-        Destination destination = destinationRepository.findById(donationCreateDTO.getDestinationId())
+        referenceDataRegistry.findDestination(donationCreateDTO.getDestinationId())
                 .orElseThrow(() -> new RuntimeException("Destino no encontrado"));
         
         Donation donation = new Donation();
         donation.setUser(user);
-        donation.setDestination(destination);
+        donation.setDestination(destinationRepository.getReferenceById(donationCreateDTO.getDestinationId()));
         donation.setAmount(donationCreateDTO.getAmount());
         donation.setPaymentMethod(donationCreateDTO.getPaymentMethod());
         donation.setPurchaseState(Donation.PurchaseState.pending);
@@ -50,48 +53,55 @@ public class DonationService {
         return convertToDTO(savedDonation);
     }
     
+    @Transactional(readOnly = true)
     public Optional<DonationDTO> getDonationById(Long donationId) {
-        return donationRepository.findById(donationId).map(this::convertToDTO);
+        return donationRepository.findDTOById(donationId);
     }
     
+    // Sin readOnly: los pagos modifican la entidad devuelta y tiene que leerse del primario. Con
+    // open-in-view, una entidad cargada en una transacción readOnly queda de solo lectura en la
+    // sesión y Hibernate no detectaría esos cambios
     public Optional<Donation> getDonationEntityById(Long donationId) {
         return donationRepository.findById(donationId);
     }
     
-    public List<DonationDTO> getAllDonations() {
-        return donationRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Paginado por keyset (ver KeysetCursor): el costo por página no depende del tamaño de la tabla
+    @Transactional(readOnly = true)
+    public CursorPage<DonationDTO> getAllDonations(String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        List<DonationDTO> rows = after == null
+                ? donationRepository.findFirstPage(KeysetCursor.limit(pageSize))
+                : donationRepository.findPageAfter(after.getKeyAsDateTime(), after.getId(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.page(rows, pageSize, donation -> KeysetCursor.of(donation.getDonationDate(), donation.getId()),
+                Function.identity());
     }
     
+    @Transactional(readOnly = true)
     public List<DonationDTO> getDonationsByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
         
-        return donationRepository.findByUser(user).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return donationRepository.findDTOsByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
     public List<DonationDTO> getDonationsByDestination(Long destinationId) {
-        Destination destination = destinationRepository.findById(destinationId)
+        referenceDataRegistry.findDestination(destinationId)
                 .orElseThrow(() -> new RuntimeException("Destino no encontrado"));
         
-        return donationRepository.findByDestination(destination).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return donationRepository.findDTOsByDestinationId(destinationId);
     }
     
+    @Transactional(readOnly = true)
     public List<DonationDTO> getDonationsByState(Donation.PurchaseState state) {
-        return donationRepository.findByPurchaseState(state).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return donationRepository.findDTOsByPurchaseState(state);
     }
     
+    @Transactional(readOnly = true)
     public List<DonationDTO> getDonationsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return donationRepository.findByDonationDateBetween(startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return donationRepository.findDTOsByDonationDateBetween(startDate, endDate);
     }
     
     public void updateDonationState(Long donationId, Donation.PurchaseState newState) {
@@ -101,6 +111,7 @@ public class DonationService {
         Donation.PurchaseState oldState = donation.getPurchaseState();
         donation.setPurchaseState(newState);
         donationRepository.save(donation);
+        timeSeriesService.donationStateChanged(donation, oldState, newState);
         
         // Enviar email de confirmación cuando se aprueba la donación
         if (newState == Donation.PurchaseState.approved && oldState != Donation.PurchaseState.approved) {
@@ -108,7 +119,7 @@ public class DonationService {
                 emailService.sendDonationConfirmationEmail(
                     donation.getUser().getEmail(),
                     donation.getUser().getName() + " " + donation.getUser().getLastName(),
-                    donation.getDestination().getName(),
+                    referenceDataRegistry.destinationOf(donation.getDestination()).name(),
                     donation.getAmount(),
                     donation.getPaymentId() != null ? donation.getPaymentId() : "N/A"
                 );
@@ -127,10 +138,17 @@ public class DonationService {
         donationRepository.save(donation);
     }
     
+    @Transactional(readOnly = true)
     public BigDecimal getTotalDonations() {
         return donationRepository.getTotalDonationsByState(Donation.PurchaseState.approved);
     }
     
+    @Transactional(readOnly = true)
+    public long getDonationsCountByState(Donation.PurchaseState state) {
+        return donationRepository.countByPurchaseState(state);
+    }
+    
+    @Transactional(readOnly = true)
     public Long getApprovedDonationsCountBetween(LocalDateTime startDate, LocalDateTime endDate) {
         return donationRepository.countDonationsByStateBetween(Donation.PurchaseState.approved, startDate, endDate);
     }
@@ -139,65 +157,58 @@ public class DonationService {
         Donation donation = donationRepository.findById(donationId)
                 .orElseThrow(() -> new RuntimeException("Donación no encontrada"));
         
+        Donation.PurchaseState oldState = donation.getPurchaseState();
         donation.setPurchaseState(Donation.PurchaseState.cancelled);
         donationRepository.save(donation);
+        timeSeriesService.donationStateChanged(donation, oldState, Donation.PurchaseState.cancelled);
     }
     
     /**
-     * Obtener estadísticas de donaciones con datos reales de la base de datos
+     * Obtener estadísticas de donaciones aprobadas. Se agregan en la base con una sola consulta
+     * agrupada por destino: el costo no crece con el historial de donaciones
      */
+    @Transactional(readOnly = true)
     public DonationStatsDTO getDonationStatistics() {
-        // Obtener todas las donaciones aprobadas
-        List<Donation> approvedDonations = donationRepository.findByPurchaseState(Donation.PurchaseState.approved);
-        
-        // Calcular estadísticas básicas
-        Long totalDonations = (long) approvedDonations.size();
-        BigDecimal totalAmount = approvedDonations.stream()
-                .map(Donation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Calcular donaciones del mes actual
         YearMonth currentMonth = YearMonth.now();
         LocalDateTime startOfMonth = currentMonth.atDay(1).atStartOfDay();
         LocalDateTime endOfMonth = currentMonth.atEndOfMonth().atTime(23, 59, 59);
         
-        BigDecimal monthlyAmount = donationRepository.getTotalDonationsByStateBetween(
-                Donation.PurchaseState.approved, startOfMonth, endOfMonth);
+        long totalDonations = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal monthlyAmount = BigDecimal.ZERO;
+        List<DonationStatsDTO.DestinationStatsDTO> destinationStats = new ArrayList<>();
+        // Ya vienen ordenadas por monto descendente
+        for (Object[] row : donationRepository.sumByDestination(Donation.PurchaseState.approved, startOfMonth, endOfMonth)) {
+            Long destinationCount = (Long) row[1];
+            BigDecimal destinationAmount = toBigDecimal(row[2]);
+            totalDonations += destinationCount;
+            totalAmount = totalAmount.add(destinationAmount);
+            monthlyAmount = monthlyAmount.add(toBigDecimal(row[3]));
+            destinationStats.add(new DonationStatsDTO.DestinationStatsDTO((String) row[0], destinationAmount, destinationCount));
+        }
         
-        // Calcular promedio
-        BigDecimal avgDonation = totalDonations > 0 ? 
-                totalAmount.divide(BigDecimal.valueOf(totalDonations), 2, RoundingMode.HALF_UP) : 
+        BigDecimal avgDonation = totalDonations > 0 ?
+                totalAmount.divide(BigDecimal.valueOf(totalDonations), 2, RoundingMode.HALF_UP) :
                 BigDecimal.ZERO;
         
-        // Agrupar por destinación
-        Map<String, List<Donation>> donationsByDestination = approvedDonations.stream()
-                .collect(Collectors.groupingBy(d -> d.getDestination().getName()));
-        
-        List<DonationStatsDTO.DestinationStatsDTO> destinationStats = donationsByDestination.entrySet().stream()
-                .map(entry -> {
-                    String destinationName = entry.getKey();
-                    List<Donation> donations = entry.getValue();
-                    BigDecimal destinationAmount = donations.stream()
-                            .map(Donation::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    Long destinationCount = (long) donations.size();
-                    
-                    return new DonationStatsDTO.DestinationStatsDTO(destinationName, destinationAmount, destinationCount);
-                })
-                .sorted((a, b) -> b.getAmount().compareTo(a.getAmount())) // Ordenar por monto descendente
-                .collect(Collectors.toList());
-        
         return new DonationStatsDTO(totalDonations, totalAmount, monthlyAmount, avgDonation, destinationStats);
     }
 
+    // El SUM del CASE puede llegar con otro tipo numérico según el dialecto
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal amount ? amount : new BigDecimal(value.toString());
+    }
+
+    // Solo para devolver la donación recién guardada; las lecturas usan las proyecciones de DonationRepository
     private DonationDTO convertToDTO(Donation donation) {
         DonationDTO dto = new DonationDTO();
         dto.setId(donation.getId());
         dto.setUserId(donation.getUser().getId());
         dto.setUserName(donation.getUser().getName() + " " + donation.getUser().getLastName());
-        dto.setDestinationId(donation.getDestination().getId());
-        dto.setDestinationName(donation.getDestination().getName());
-        dto.setDestinationAddress(donation.getDestination().getAddress());
+        DestinationEntry destination = referenceDataRegistry.destinationOf(donation.getDestination());
+        dto.setDestinationId(destination.id());
+        dto.setDestinationName(destination.name());
+        dto.setDestinationAddress(destination.address());
         dto.setAmount(donation.getAmount());
         dto.setDonationDate(donation.getDonationDate());
         dto.setPaymentMethod(donation.getPaymentMethod());
@@ -0,0 +1,142 @@
+package mundoPirata.mundoPirata.service;
+
+import mundoPirata.mundoPirata.repository.NewsRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre título y contenido de las noticias activas.
+ * Se usa cuando la base no tiene índice FULLTEXT (por ejemplo H2 en tests).
+ *
+ * El ranking es BM25 con el título ponderado: cada aparición en el título cuenta
+ * como {@link NewsRepository#TITLE_BOOST} apariciones en el contenido, igual que en la
+ * búsqueda FULLTEXT.
+ */
+public class InMemoryNewsIndex {
+
+    private static final int TITLE_BOOST = NewsRepository.TITLE_BOOST;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    /**
+     * Agrega o reemplaza una noticia en el índice.
+     */
+    public void index(Long id, String title, String content, LocalDate date) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String token : TextNormalizer.tokenize(title)) {
+            frequencies.merge(token, TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        for (String token : TextNormalizer.tokenize(content)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+            }
+            documents.put(id, new Document(frequencies.keySet(), length, date));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve los IDs que contienen al menos un término de la consulta, ordenados por
+     * relevancia y luego por fecha descendente.
+     */
+    public List<Long> search(String query) {
+        Set<String> terms = new LinkedHashSet<>(TextNormalizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents.size() - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<Long, Integer> posting : docs.entrySet()) {
+                    double tf = posting.getValue();
+                    double norm = 1 - B + B * documents.get(posting.getKey()).length() / averageLength;
+                    scores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + K1 * norm), Double::sum);
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                    .thenComparing(entry -> documents.get(entry.getKey()).date(), Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()))
+                    .thenComparing(Map.Entry.<Long, Double>comparingByKey(Comparator.reverseOrder())));
+            List<Long> ids = new ArrayList<>(ranked.size());
+            ranked.forEach(entry -> ids.add(entry.getKey()));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.terms()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private record Document(Set<String> terms, int length, LocalDate date) {
+    }
+}
@@ -1,10 +1,16 @@
 package mundoPirata.mundoPirata.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import mundoPirata.mundoPirata.entity.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -12,13 +18,27 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
     private static final String SECRET_KEY = "piratafestlaplatabelgrano2024jwtsecretkeyparaelproyecto";
-    private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24; // 24 hours
+    private static final long DEFAULT_EXPIRATION_TIME = 1000 * 60 * 15; // 15 minutes
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "uid";
+
+    // La clave y el parser son inmutables y thread-safe: se construyen una sola vez
+    private final Key signInKey = buildSignInKey();
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKey(signInKey)
+            .build();
+
+    // Los access tokens son de vida corta: la sesión se extiende con el refresh token
+    @Value("${jwt.access-expiration-ms:900000}")
+    private long accessTokenExpirationMillis = DEFAULT_EXPIRATION_TIME;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -30,42 +50,88 @@ public class JwtService {
     }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        // Rol e ID viajan en el token para autenticar sin consultar la base de datos
+        if (userDetails instanceof User user) {
+            claims.put(ROLE_CLAIM, user.getRole().name());
+            claims.put(USER_ID_CLAIM, user.getId());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpirationMillis))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    /**
+     * Verifica firma y expiración del token una única vez y devuelve sus claims validados.
+     * Retorna vacío si el token es inválido, está mal formado o expiró.
+     */
+    public Optional<TokenClaims> parseToken(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            return Optional.of(new TokenClaims(
+                    claims.getId(),
+                    claims.getSubject(),
+                    claims.getIssuedAt(),
+                    claims.getExpiration(),
+                    claims.get(ROLE_CLAIM, String.class),
+                    claims.get(USER_ID_CLAIM, Long.class)
+            ));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public long getAccessTokenExpirationMillis() {
+        return accessTokenExpirationMillis;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return parseToken(token)
+                .map(claims -> isTokenValid(claims, userDetails))
+                .orElse(false);
+    }
+
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !claims.isExpired();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Key getSignInKey() {
+    private static Key buildSignInKey() {
         byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
         return Keys.hmacShaKeyFor(keyBytes);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Claims de un token cuya firma ya fue verificada.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class TokenClaims {
+        private final String id;
+        private final String subject;
+        private final Date issuedAt;
+        private final Date expiration;
+        private final String role;
+        private final Long userId;
+
+        public boolean isExpired() {
+            return expiration != null && expiration.before(new Date());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package mundoPirata.mundoPirata.service;
+
+import mundoPirata.mundoPirata.dto.CursorPage;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cursor opaco para paginar listados por keyset: guarda la clave de orden y el ID de la
+ * última fila entregada, y la página siguiente se pide con "WHERE (clave, id) pasa a esa
+ * fila" sobre un índice (clave, id). A diferencia de OFFSET, el costo no crece con el número
+ * de página y una inserción entre páginas no repite ni saltea filas.
+ *
+ * El token es Base64 URL-safe de "v1|clave|id"; el cliente no debe interpretarlo.
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String VERSION = "v1";
+
+    private final String key;
+    private final long id;
+
+    private KeysetCursor(String key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(Object key, Long id) {
+        return new KeysetCursor(String.valueOf(key), id);
+    }
+
+    /**
+     * Decodifica el cursor recibido; null si no vino (primera página).
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = decoded.indexOf('|');
+            int last = decoded.lastIndexOf('|');
+            if (first < 0 || first == last || !VERSION.equals(decoded.substring(0, first))) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new KeysetCursor(decoded.substring(first + 1, last), Long.parseLong(decoded.substring(last + 1)));
+        } catch (IllegalArgumentException e) {
+            // Incluye Base64 mal formado y NumberFormatException
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Tamaño de página pedido, acotado a [1, MAX_PAGE_SIZE].
+     */
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(Math.max(requested, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Límite para la consulta: una fila más que la página, para saber si hay página siguiente
+     * sin un COUNT.
+     */
+    public static Pageable limit(int pageSize) {
+        return Pageable.ofSize(pageSize + 1);
+    }
+
+    /**
+     * Arma la página a partir de las filas leídas con {@link #limit(int)}.
+     */
+    public static <E, T> CursorPage<T> page(List<E> rows, int pageSize,
+                                            Function<E, KeysetCursor> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String next = hasNext ? cursorOf.apply(pageRows.get(pageSize - 1)).encode() : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).collect(Collectors.toList()), next);
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public LocalDate getKeyAsDate() {
+        return parse(LocalDate::parse);
+    }
+
+    public LocalDateTime getKeyAsDateTime() {
+        return parse(LocalDateTime::parse);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    private <T> T parse(Function<String, T> parser) {
+        try {
+            return parser.apply(key);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package mundoPirata.mundoPirata.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de trigramas en memoria sobre nombre, dirección y descripción de las ubicaciones
+ * activas del mapa, para la búsqueda mientras se escribe.
+ *
+ * El texto se normaliza con {@link TextNormalizer} (sin tildes ni mayúsculas) y cada
+ * trigrama se codifica como un entero, de modo que las listas de ocurrencias son arreglos
+ * indexados directamente. La búsqueda cuenta cuántos trigramas de la consulta tiene cada
+ * ubicación: así tolera errores de tipeo, y las coincidencias exactas como substring
+ * (sobre todo en el nombre) quedan primero.
+ */
+public class MapLocationSearchIndex {
+
+    private static final int ALPHABET = 37; // a-z, 0-9 y espacio
+    private static final int TRIGRAMS = ALPHABET * ALPHABET * ALPHABET;
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final double NAME_MATCH_BONUS = 1.0;
+    private static final double SUBSTRING_MATCH_BONUS = 0.5;
+    // Contadores por ubicación reutilizados entre las búsquedas de cada hilo
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final IntList[] postings = new IntList[TRIGRAMS];
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Agrega o reemplaza una ubicación.
+     */
+    public void index(Long id, String name, String address, String description) {
+        Entry entry = new Entry(id,
+                TextNormalizer.normalizeForSubstring(name),
+                TextNormalizer.normalizeForSubstring(address),
+                TextNormalizer.normalizeForSubstring(description));
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            addUnlocked(entry);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve hasta {@code limit} IDs ordenados de la coincidencia más a la menos parecida.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = TextNormalizer.normalizeForSubstring(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Sin relleno: la consulta puede aparecer en medio de una palabra
+        int[] queryTrigrams = distinctTrigrams(normalized, false);
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Match> top = new PriorityQueue<>(Comparator.comparingDouble(Match::score)
+                    .thenComparing(Match::slot, Comparator.reverseOrder()));
+            if (normalized.length() < 3) {
+                // Una o dos letras: no alcanzan para trigramas, se busca como substring
+                for (int slot = 0; slot < entries.size(); slot++) {
+                    if (!removed.get(slot)) {
+                        offer(top, limit, slot, bonus(entries.get(slot), normalized), normalized);
+                    }
+                }
+            } else {
+                Scratch scratch = SCRATCH.get();
+                int[] counts = scratch.counts(entries.size());
+                int touchedCount = 0;
+                try {
+                    for (int trigram : queryTrigrams) {
+                        IntList posting = postings[trigram];
+                        if (posting == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < posting.size; i++) {
+                            int slot = posting.values[i];
+                            if (counts[slot]++ == 0) {
+                                scratch.touch(touchedCount++, slot);
+                            }
+                        }
+                    }
+                    int minMatches = (int) Math.ceil(queryTrigrams.length * MIN_SIMILARITY);
+                    for (int i = 0; i < touchedCount; i++) {
+                        int slot = scratch.touched[i];
+                        if (counts[slot] >= minMatches && !removed.get(slot)) {
+                            double similarity = (double) counts[slot] / queryTrigrams.length;
+                            offer(top, limit, slot, similarity + bonus(entries.get(slot), normalized), normalized);
+                        }
+                    }
+                } finally {
+                    // Solo se vuelven a cero los contadores usados, no todo el arreglo
+                    for (int i = 0; i < touchedCount; i++) {
+                        counts[scratch.touched[i]] = 0;
+                    }
+                }
+            }
+
+            List<Match> ranked = new ArrayList<>(top);
+            ranked.sort(top.comparator().reversed());
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Match match : ranked) {
+                ids.add(entries.get(match.slot()).id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void offer(PriorityQueue<Match> top, int limit, int slot, double score, String query) {
+        if (score <= 0 && query.length() < 3) {
+            return;
+        }
+        if (top.size() < limit) {
+            top.add(new Match(slot, score));
+        } else if (top.comparator().compare(new Match(slot, score), top.peek()) > 0) {
+            top.poll();
+            top.add(new Match(slot, score));
+        }
+    }
+
+    private static double bonus(Entry entry, String query) {
+        if (entry.name().contains(query)) {
+            return NAME_MATCH_BONUS;
+        }
+        if (entry.address().contains(query) || entry.description().contains(query)) {
+            return SUBSTRING_MATCH_BONUS;
+        }
+        return 0;
+    }
+
+    private void addUnlocked(Entry entry) {
+        int slot = entries.size();
+        entries.add(entry);
+        slotById.put(entry.id(), slot);
+        for (String field : new String[]{entry.name(), entry.address(), entry.description()}) {
+            if (field.isEmpty()) {
+                continue;
+            }
+            for (int trigram : distinctTrigrams(field, true)) {
+                IntList posting = postings[trigram];
+                if (posting == null) {
+                    posting = new IntList();
+                    postings[trigram] = posting;
+                }
+                // Un mismo trigrama puede aparecer en varios campos: se registra una vez por ubicación
+                if (posting.size == 0 || posting.values[posting.size - 1] != slot) {
+                    posting.add(slot);
+                }
+            }
+        }
+    }
+
+    private void removeUnlocked(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            removed.set(slot);
+        }
+    }
+
+    // Las ocurrencias de las versiones reemplazadas o quitadas se descartan al superar un cuarto del índice
+    private void compactIfNeeded() {
+        int stale = removed.cardinality();
+        if (stale > 1_000 && stale > entries.size() / 4) {
+            compactUnlocked();
+        }
+    }
+
+    private void compactUnlocked() {
+        List<Entry> live = new ArrayList<>(slotById.size());
+        for (int slot = 0; slot < entries.size(); slot++) {
+            if (!removed.get(slot)) {
+                live.add(entries.get(slot));
+            }
+        }
+        Arrays.fill(postings, null);
+        entries.clear();
+        slotById.clear();
+        removed.clear();
+        live.forEach(this::addUnlocked);
+    }
+
+    // Trigramas del texto, opcionalmente con un espacio de relleno al inicio y al final
+    private static int[] distinctTrigrams(String text, boolean pad) {
+        String padded = pad ? " " + text + " " : text;
+        int[] trigrams = new int[Math.max(0, padded.length() - 2)];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = (code(padded.charAt(i)) * ALPHABET + code(padded.charAt(i + 1))) * ALPHABET
+                    + code(padded.charAt(i + 2));
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+
+    private record Entry(Long id, String name, String address, String description) {
+    }
+
+    private record Match(int slot, double score) {
+    }
+
+    // Contadores en cero entre búsquedas; touched guarda las ubicaciones con contador distinto de cero
+    private static final class Scratch {
+        private int[] counts = new int[0];
+        private int[] touched = new int[64];
+
+        private int[] counts(int slots) {
+            if (counts.length < slots) {
+                counts = new int[Math.max(slots, counts.length * 2)];
+            }
+            return counts;
+        }
+
+        private void touch(int index, int slot) {
+            if (index == touched.length) {
+                touched = Arrays.copyOf(touched, touched.length * 2);
+            }
+            touched[index] = slot;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
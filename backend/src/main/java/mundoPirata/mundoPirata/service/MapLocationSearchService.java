@@ -0,0 +1,81 @@
+package mundoPirata.mundoPirata.service;
+
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.config.PrimaryReads;
+import mundoPirata.mundoPirata.config.TransactionHooks;
+import mundoPirata.mundoPirata.entity.MapLocation;
+import mundoPirata.mundoPirata.repository.MapLocationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Mantiene el MapLocationSearchIndex de las ubicaciones activas: lo carga en la primera
+ * búsqueda y aplica las escrituras de MapLocationService después de cada commit.
+ */
+@Service
+@Slf4j
+public class MapLocationSearchService {
+
+    public static final int MAX_RESULTS = 100;
+
+    private final MapLocationRepository mapLocationRepository;
+    private final TransactionTemplate readTransaction;
+    private final MapLocationSearchIndex index = new MapLocationSearchIndex();
+
+    private volatile boolean loaded;
+
+    public MapLocationSearchService(MapLocationRepository mapLocationRepository, PlatformTransactionManager transactionManager) {
+        this.mapLocationRepository = mapLocationRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * IDs de las ubicaciones activas más parecidas al texto, como mucho {@code limit}.
+     */
+    public List<Long> search(String query, int limit) {
+        if (!loaded) {
+            load();
+        }
+        return index.search(query, Math.min(Math.max(limit, 1), MAX_RESULTS));
+    }
+
+    /**
+     * Refleja la ubicación en el índice cuando se confirma la transacción en curso.
+     */
+    public void updateAfterCommit(MapLocation location) {
+        Long id = location.getId();
+        String name = location.getName();
+        String address = location.getAddress();
+        String description = location.getDescription();
+        boolean active = Boolean.TRUE.equals(location.getState());
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                // Si el índice todavía no se cargó, la carga inicial leerá este cambio de la base
+                if (!loaded) {
+                    return;
+                }
+                if (active) {
+                    index.index(id, name, address, description);
+                } else {
+                    index.remove(id);
+                }
+            }
+        });
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        PrimaryReads.run(() -> readTransaction.executeWithoutResult(status -> mapLocationRepository.findActiveSearchFields()
+                .forEach(row -> index.index((Long) row[0], (String) row[1], (String) row[2], (String) row[3]))));
+        loaded = true;
+        log.info("Map location search index loaded with {} locations", index.size());
+    }
+}
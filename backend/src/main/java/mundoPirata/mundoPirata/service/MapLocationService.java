@@ -1,6 +1,8 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
 import mundoPirata.mundoPirata.dto.MapLocationCreateDTO;
 import mundoPirata.mundoPirata.dto.MapLocationDTO;
 import mundoPirata.mundoPirata.dto.MapLocationUpdateDTO;
@@ -12,7 +14,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,23 +26,22 @@ public class MapLocationService {
     
     private final MapLocationRepository mapLocationRepository;
     private final UserRepository userRepository;
+    private final AuthorNameResolver authorNameResolver;
+    private final MapLocationSearchService mapLocationSearchService;
+    private final AggregateVersions aggregateVersions;
     
     // Obtener todas las ubicaciones activas (público)
     @Transactional(readOnly = true)
     public List<MapLocationDTO> getAllActiveLocations() {
         List<MapLocation> locations = mapLocationRepository.findByStateTrueOrderByCreatedAtDesc();
-        return locations.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(locations);
     }
     
     // Obtener todas las ubicaciones (admin)
     @Transactional(readOnly = true)
     public List<MapLocationDTO> getAllLocations() {
         List<MapLocation> locations = mapLocationRepository.findAllByOrderByCreatedAtDesc();
-        return locations.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(locations);
     }
     
     // Obtener ubicación por ID
@@ -63,6 +66,8 @@ public class MapLocationService {
         location.setState(true);
         
         MapLocation savedLocation = mapLocationRepository.save(location);
+        mapLocationSearchService.updateAfterCommit(savedLocation);
+        aggregateVersions.bumpAfterCommit(Aggregate.MAP_LOCATIONS);
         return convertToDTO(savedLocation);
     }
     
@@ -89,6 +94,8 @@ public class MapLocationService {
         }
         
         MapLocation savedLocation = mapLocationRepository.save(location);
+        mapLocationSearchService.updateAfterCommit(savedLocation);
+        aggregateVersions.bumpAfterCommit(Aggregate.MAP_LOCATIONS);
         return convertToDTO(savedLocation);
     }
     
@@ -99,6 +106,8 @@ public class MapLocationService {
         
         location.setState(!location.getState());
         mapLocationRepository.save(location);
+        mapLocationSearchService.updateAfterCommit(location);
+        aggregateVersions.bumpAfterCommit(Aggregate.MAP_LOCATIONS);
     }
     
     // Eliminar ubicación (eliminación lógica)
@@ -108,24 +117,32 @@ public class MapLocationService {
         
         location.setState(false);
         mapLocationRepository.save(location);
+        mapLocationSearchService.updateAfterCommit(location);
+        aggregateVersions.bumpAfterCommit(Aggregate.MAP_LOCATIONS);
     }
     
-    // Buscar ubicaciones activas por texto
+    // Buscar ubicaciones activas por texto (índice de trigramas, tolera tildes y errores de tipeo)
     @Transactional(readOnly = true)
-    public List<MapLocationDTO> searchActiveLocations(String searchText) {
-        List<MapLocation> locations = mapLocationRepository.findActiveLocationsBySearchText(searchText);
-        return locations.stream()
-                .map(this::convertToDTO)
+    public List<MapLocationDTO> searchActiveLocations(String searchText, int limit) {
+        List<Long> ids = mapLocationSearchService.search(searchText, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, MapLocation> byId = mapLocationRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(MapLocation::getId, Function.identity()));
+        // Se respeta el orden de relevancia del índice
+        List<MapLocation> locations = ids.stream()
+                .map(byId::get)
+                .filter(location -> location != null && Boolean.TRUE.equals(location.getState()))
                 .collect(Collectors.toList());
+        return convertToDTOs(locations);
     }
     
     // Obtener ubicaciones por autor
     @Transactional(readOnly = true)
     public List<MapLocationDTO> getLocationsByAuthor(Long authorId) {
         List<MapLocation> locations = mapLocationRepository.findByAuthorId(authorId);
-        return locations.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(locations);
     }
     
     // Obtener estadísticas
@@ -134,13 +151,23 @@ public class MapLocationService {
         return mapLocationRepository.countByStateTrue();
     }
     
+    // Convertir lista de entidades a DTOs resolviendo todos los autores en una sola consulta
+    private List<MapLocationDTO> convertToDTOs(List<MapLocation> locations) {
+        Map<Long, String> authorNames = authorNameResolver.resolveAll(locations.stream()
+                .map(MapLocation::getAuthorId)
+                .collect(Collectors.toSet()));
+        return locations.stream()
+                .map(location -> convertToDTO(location,
+                        authorNames.getOrDefault(location.getAuthorId(), AuthorNameResolver.UNKNOWN_AUTHOR)))
+                .collect(Collectors.toList());
+    }
+    
     // Convertir entidad a DTO
     private MapLocationDTO convertToDTO(MapLocation location) {
-        // Obtener el nombre del autor
-        String authorName = userRepository.findById(location.getAuthorId())
-                .map(user -> user.getName() + " " + user.getLastName())
-                .orElse("Usuario no encontrado");
-        
+        return convertToDTO(location, authorNameResolver.resolve(location.getAuthorId()));
+    }
+    
+    private MapLocationDTO convertToDTO(MapLocation location, String authorName) {
         return new MapLocationDTO(
                 location.getId(),
                 location.getName(),
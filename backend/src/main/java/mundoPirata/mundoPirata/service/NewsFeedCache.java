@@ -0,0 +1,92 @@
+package mundoPirata.mundoPirata.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import mundoPirata.mundoPirata.config.TransactionHooks;
+import mundoPirata.mundoPirata.dto.NewsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria del feed público de noticias. Se arma una vez y se reutiliza hasta que
+ * una escritura de noticias (o del nombre de un autor) la invalida tras el commit.
+ *
+ * Cada invalidación incrementa la generación: un armado que empezó antes de la
+ * invalidación no publica su resultado, para no dejar en caché datos previos a la escritura.
+ */
+@Component
+public class NewsFeedCache {
+
+    private final AtomicReference<Feed> current = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public NewsFeedCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("news.feed.cache")
+                .tag("result", "hit")
+                .description("Requests del feed público servidos desde la caché")
+                .register(meterRegistry);
+        this.misses = Counter.builder("news.feed.cache")
+                .tag("result", "miss")
+                .description("Requests del feed público que consultaron la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("news.feed.cache.hit.ratio", this, NewsFeedCache::hitRatio)
+                .description("Proporción de aciertos de la caché del feed público")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el feed en caché o lo arma con el loader si no hay uno vigente.
+     */
+    public Feed get(Supplier<List<NewsDTO>> loader) {
+        Feed feed = current.get();
+        if (feed != null) {
+            hits.increment();
+            return feed;
+        }
+        misses.increment();
+        long startGeneration = generation.get();
+        Feed loaded = new Feed(loader.get());
+        if (generation.get() == startGeneration) {
+            current.compareAndSet(null, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Descarta el feed ahora y nuevamente tras el commit de la transacción en curso.
+     */
+    public void invalidate() {
+        evict();
+        TransactionHooks.afterCommit(this::evict);
+    }
+
+    private void evict() {
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Feed inmutable de noticias activas.
+     */
+    @Getter
+    public static class Feed {
+        private final List<NewsDTO> news;
+
+        Feed(List<NewsDTO> news) {
+            this.news = List.copyOf(news);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package mundoPirata.mundoPirata.service;
+
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.config.PrimaryReads;
+import mundoPirata.mundoPirata.config.TransactionHooks;
+import mundoPirata.mundoPirata.repository.NewsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Búsqueda de noticias activas por título y contenido, ordenada por relevancia.
+ *
+ * En MySQL usa los índices FULLTEXT que crea V3__performance_indexes.sql (la collation
+ * de la tabla ya ignora tildes). Si la base no es MySQL o los índices no existen, usa un
+ * índice invertido en memoria que se carga en la primera búsqueda y que NewsService
+ * mantiene actualizado después de cada commit.
+ */
+@Service
+@Slf4j
+public class NewsSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final int REQUIRED_FULLTEXT_INDEXES = 2;
+
+    private final NewsRepository newsRepository;
+    private final DataSource dataSource;
+    private final TransactionTemplate readTransaction;
+    private final String engine;
+    private final InMemoryNewsIndex memoryIndex = new InMemoryNewsIndex();
+
+    private volatile Boolean fullTextEnabled;
+    private volatile boolean memoryIndexLoaded;
+
+    public NewsSearchService(NewsRepository newsRepository,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${search.news.engine:auto}") String engine) {
+        this.newsRepository = newsRepository;
+        this.dataSource = dataSource;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.engine = engine.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * IDs de las noticias activas que coinciden con la consulta, de la más a la menos relevante.
+     */
+    public Page<Long> search(String query, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageRequest);
+        }
+
+        if (isFullTextEnabled()) {
+            String trimmed = query.trim();
+            List<Long> ids = newsRepository.searchActiveFullText(trimmed, pageRequest.getPageSize(), pageRequest.getOffset())
+                    .stream()
+                    .map(Number::longValue)
+                    .toList();
+            return new PageImpl<>(ids, pageRequest, newsRepository.countActiveFullText(trimmed));
+        }
+
+        if (!memoryIndexLoaded) {
+            loadMemoryIndex();
+        }
+        List<Long> ranked = memoryIndex.search(query);
+        int from = (int) Math.min(pageRequest.getOffset(), ranked.size());
+        int to = Math.min(from + pageRequest.getPageSize(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), pageRequest, ranked.size());
+    }
+
+    /**
+     * Refleja en el índice en memoria el estado de la noticia cuando se confirma la transacción.
+     * Con FULLTEXT no hace nada: MySQL mantiene su propio índice.
+     */
+    public void updateAfterCommit(Long id, String title, String content, LocalDate date, boolean active) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                // Si el índice todavía no se cargó, la carga inicial leerá este cambio de la base
+                if (!memoryIndexLoaded) {
+                    return;
+                }
+                if (active) {
+                    memoryIndex.index(id, title, content, date);
+                } else {
+                    memoryIndex.remove(id);
+                }
+            }
+        });
+    }
+
+    private boolean isFullTextEnabled() {
+        Boolean enabled = fullTextEnabled;
+        if (enabled == null) {
+            enabled = switch (engine) {
+                case "fulltext" -> true;
+                case "memory" -> false;
+                default -> detectFullText();
+            };
+            fullTextEnabled = enabled;
+            log.info("News search engine: {}", enabled ? "MySQL FULLTEXT" : "in-memory index");
+        }
+        return enabled;
+    }
+
+    private boolean detectFullText() {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (product == null || !product.toLowerCase(Locale.ROOT).contains("mysql")) {
+                return false;
+            }
+        } catch (SQLException e) {
+            log.warn("Could not detect database product for news search: {}", e.getMessage());
+            return false;
+        }
+        boolean indexed = newsRepository.countFullTextIndexes() >= REQUIRED_FULLTEXT_INDEXES;
+        if (!indexed) {
+            log.warn("FULLTEXT indexes on news are missing, check the Flyway migrations (V3__performance_indexes.sql)");
+        }
+        return indexed;
+    }
+
+    // La carga y las actualizaciones comparten el monitor: una escritura confirmada durante
+    // la carga se aplica después de ella, nunca se pierde
+    private synchronized void loadMemoryIndex() {
+        if (memoryIndexLoaded) {
+            return;
+        }
+        PrimaryReads.run(() -> readTransaction.executeWithoutResult(status -> newsRepository.findActiveSearchFields()
+                .forEach(row -> memoryIndex.index((Long) row[0], (String) row[1], (String) row[2], (LocalDate) row[3]))));
+        memoryIndexLoaded = true;
+        log.info("News search index loaded with {} news", memoryIndex.size());
+    }
+}
@@ -1,21 +1,29 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
+import mundoPirata.mundoPirata.config.PrimaryReads;
+import mundoPirata.mundoPirata.dto.CursorPage;
 import mundoPirata.mundoPirata.dto.NewsDTO;
 import mundoPirata.mundoPirata.dto.NewsCreateDTO;
 import mundoPirata.mundoPirata.dto.NewsUpdateDTO;
 import mundoPirata.mundoPirata.entity.News;
-import mundoPirata.mundoPirata.entity.NewsType;
 import mundoPirata.mundoPirata.entity.User;
 import mundoPirata.mundoPirata.repository.NewsRepository;
 import mundoPirata.mundoPirata.repository.NewsTypeRepository;
 import mundoPirata.mundoPirata.repository.UserRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,16 +34,20 @@ public class NewsService {
     private final NewsRepository newsRepository;
     private final NewsTypeRepository newsTypeRepository;
     private final UserRepository userRepository;
+    private final NewsFeedCache newsFeedCache;
+    private final NewsSearchService newsSearchService;
+    private final AggregateVersions aggregateVersions;
+    private final ReferenceDataRegistry referenceDataRegistry;
     
     public NewsDTO createNews(NewsCreateDTO newsCreateDTO) {
-        NewsType newsType = newsTypeRepository.findById(newsCreateDTO.getTypeId())
+        referenceDataRegistry.findNewsType(newsCreateDTO.getTypeId())
                 .orElseThrow(() -> new RuntimeException("Tipo de noticia no encontrado"));
         
         User author = userRepository.findById(newsCreateDTO.getAuthorId())
                 .orElseThrow(() -> new RuntimeException("Autor no encontrado"));
         
         News news = new News();
-        news.setType(newsType);
+        news.setType(newsTypeRepository.getReferenceById(newsCreateDTO.getTypeId()));
         news.setTitle(newsCreateDTO.getTitle());
         news.setContent(newsCreateDTO.getContent());
         news.setAuthor(author);
@@ -43,6 +55,9 @@ public class NewsService {
         news.setState(true);
         
         News savedNews = newsRepository.save(news);
+        newsFeedCache.invalidate();
+        updateSearchIndex(savedNews);
+        aggregateVersions.bumpAfterCommit(Aggregate.NEWS);
         return convertToDTO(savedNews);
     }
     
@@ -51,9 +66,9 @@ public class NewsService {
                 .orElseThrow(() -> new RuntimeException("Noticia no encontrada"));
         
         if (newsUpdateDTO.getTypeId() != null) {
-            NewsType newsType = newsTypeRepository.findById(newsUpdateDTO.getTypeId())
+            referenceDataRegistry.findNewsType(newsUpdateDTO.getTypeId())
                     .orElseThrow(() -> new RuntimeException("Tipo de noticia no encontrado"));
-            news.setType(newsType);
+            news.setType(newsTypeRepository.getReferenceById(newsUpdateDTO.getTypeId()));
         }
         
         if (newsUpdateDTO.getTitle() != null && !newsUpdateDTO.getTitle().trim().isEmpty()) {
@@ -69,39 +84,64 @@ public class NewsService {
         }
         
         News updatedNews = newsRepository.save(news);
+        newsFeedCache.invalidate();
+        updateSearchIndex(updatedNews);
+        aggregateVersions.bumpAfterCommit(Aggregate.NEWS);
         return convertToDTO(updatedNews);
     }
     
+    @Transactional(readOnly = true)
     public Optional<NewsDTO> getNewsById(Long newsId) {
-        return newsRepository.findById(newsId)
-                .map(this::convertToDTO);
+        return newsRepository.findDTOById(newsId);
     }
     
+    // Servido desde NewsFeedCache; el ETag lo arma ConditionalGetFilter. El feed que se guarda
+    // en caché se lee del primario (PrimaryReads): la réplica puede no tener la última escritura
+    @Transactional(readOnly = true)
     public List<NewsDTO> getAllActiveNews() {
-        return newsRepository.findByStateTrueOrderByDateDesc().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return newsFeedCache.get(() -> PrimaryReads.execute(newsRepository::findActiveDTOs)).getNews();
     }
     
-    public List<NewsDTO> getAllNews() {
-        return newsRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Paginado por keyset (ver KeysetCursor): el costo por página no depende del tamaño de la tabla
+    @Transactional(readOnly = true)
+    public CursorPage<NewsDTO> getAllNews(String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        List<NewsDTO> rows = after == null
+                ? newsRepository.findFirstPage(KeysetCursor.limit(pageSize))
+                : newsRepository.findPageAfter(after.getKeyAsDate(), after.getId(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.page(rows, pageSize, news -> KeysetCursor.of(news.getDate(), news.getId()),
+                Function.identity());
+    }
+    
+    @Transactional(readOnly = true)
+    public long getNewsCount() {
+        return newsRepository.count();
     }
     
+    @Transactional(readOnly = true)
     public List<NewsDTO> getNewsByType(Long typeId) {
-        NewsType newsType = newsTypeRepository.findById(typeId)
+        referenceDataRegistry.findNewsType(typeId)
                 .orElseThrow(() -> new RuntimeException("Tipo de noticia no encontrado"));
         
-        return newsRepository.findByType(newsType).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return newsRepository.findDTOsByTypeId(typeId);
     }
     
-    public List<NewsDTO> searchNewsByTitle(String title) {
-        return newsRepository.findByTitleContainingIgnoreCase(title).stream()
-                .map(this::convertToDTO)
+    /**
+     * Busca en título y contenido de las noticias activas, ordenando por relevancia.
+     * Las noticias se toman del feed en caché, sin consultarlas una por una.
+     */
+    @Transactional(readOnly = true)
+    public Page<NewsDTO> searchNews(String query, int page, int size) {
+        // Primero el feed: si hay que recargarlo, la conexión de la transacción se pide al primario
+        Map<Long, NewsDTO> activeNews = getAllActiveNews().stream()
+                .collect(Collectors.toMap(NewsDTO::getId, Function.identity()));
+        Page<Long> ids = newsSearchService.search(query, page, size);
+        List<NewsDTO> content = ids.getContent().stream()
+                .map(activeNews::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new PageImpl<>(content, ids.getPageable(), ids.getTotalElements());
     }
     
     public void toggleNewsState(Long newsId) {
@@ -110,6 +150,9 @@ public class NewsService {
         
         news.setState(!news.getState());
         newsRepository.save(news);
+        newsFeedCache.invalidate();
+        updateSearchIndex(news);
+        aggregateVersions.bumpAfterCommit(Aggregate.NEWS);
     }
     
     public void deleteNews(Long newsId) {
@@ -118,13 +161,22 @@ public class NewsService {
         
         news.setState(false);
         newsRepository.save(news);
+        newsFeedCache.invalidate();
+        updateSearchIndex(news);
+        aggregateVersions.bumpAfterCommit(Aggregate.NEWS);
+    }
+    
+    private void updateSearchIndex(News news) {
+        newsSearchService.updateAfterCommit(news.getId(), news.getTitle(), news.getContent(),
+                news.getDate(), Boolean.TRUE.equals(news.getState()));
     }
     
+    // Solo para devolver la noticia recién guardada; las lecturas usan las proyecciones de NewsRepository
     private NewsDTO convertToDTO(News news) {
         NewsDTO dto = new NewsDTO();
         dto.setId(news.getId());
         dto.setTypeId(news.getType().getId());
-        dto.setTypeDescription(news.getType().getType());
+        dto.setTypeDescription(referenceDataRegistry.newsTypeOf(news.getType()).type());
         dto.setTitle(news.getTitle());
         dto.setContent(news.getContent());
         dto.setAuthorId(news.getAuthor().getId());
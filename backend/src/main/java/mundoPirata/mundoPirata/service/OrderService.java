@@ -1,6 +1,9 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
+import mundoPirata.mundoPirata.dto.CursorPage;
 import mundoPirata.mundoPirata.dto.OrderDTO;
 import mundoPirata.mundoPirata.dto.OrderCreateDTO;
 import mundoPirata.mundoPirata.dto.OrderItemDTO;
@@ -13,9 +16,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +32,9 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final TicketRepository ticketRepository;
+    private final AggregateVersions aggregateVersions;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final TimeSeriesService timeSeriesService;
     
     public OrderDTO createOrder(OrderCreateDTO orderCreateDTO) {
         User user = userRepository.findById(orderCreateDTO.getUserId())
@@ -72,50 +81,64 @@ public class OrderService {
         order.setOrderItems(orderItems);
         
         Order savedOrder = orderRepository.save(order);
+        aggregateVersions.bumpAfterCommit(Aggregate.TICKETS);
         return convertToDTO(savedOrder);
     }
     
+    @Transactional(readOnly = true)
     public Optional<OrderDTO> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId).map(this::convertToDTO);
+        return orderRepository.findDTOById(orderId)
+                .map(order -> withItems(List.of(order)).get(0));
     }
     
+    // Sin readOnly: los pagos modifican la entidad devuelta y tiene que leerse del primario. Con
+    // open-in-view, una entidad cargada en una transacción readOnly queda de solo lectura en la
+    // sesión y Hibernate no detectaría esos cambios
     public Optional<Order> getOrderEntityById(Long orderId) {
         return orderRepository.findById(orderId);
     }
     
-    public List<OrderDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Paginado por keyset (ver KeysetCursor): el costo por página no depende del tamaño de la tabla
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> getAllOrders(String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        List<OrderDTO> rows = after == null
+                ? orderRepository.findFirstPage(KeysetCursor.limit(pageSize))
+                : orderRepository.findPageAfter(after.getKeyAsDateTime(), after.getId(), KeysetCursor.limit(pageSize));
+        CursorPage<OrderDTO> page = KeysetCursor.page(rows, pageSize,
+                order -> KeysetCursor.of(order.getPurchaseDate(), order.getId()), Function.identity());
+        withItems(page.getItems());
+        return page;
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
         
-        return orderRepository.findByUser(user).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return withItems(orderRepository.findDTOsByUserId(userId));
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByState(Order.PurchaseState state) {
-        return orderRepository.findByPurchaseState(state).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return withItems(orderRepository.findDTOsByPurchaseState(state));
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByPurchaseDateBetween(startDate, endDate).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return withItems(orderRepository.findDTOsByPurchaseDateBetween(startDate, endDate));
     }
     
     public void updateOrderState(Long orderId, Order.PurchaseState newState) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
         
+        Order.PurchaseState oldState = order.getPurchaseState();
         order.setPurchaseState(newState);
         orderRepository.save(order);
+        timeSeriesService.orderStateChanged(order, oldState, newState);
     }
     
     public void updatePaymentId(Long orderId, String paymentId) {
@@ -126,10 +149,12 @@ public class OrderService {
         orderRepository.save(order);
     }
     
+    @Transactional(readOnly = true)
     public BigDecimal getTotalSales() {
         return orderRepository.getTotalSales();
     }
     
+    @Transactional(readOnly = true)
     public Long getApprovedOrdersCountBetween(LocalDateTime startDate, LocalDateTime endDate) {
         return orderRepository.countApprovedOrdersBetween(startDate, endDate);
     }
@@ -139,7 +164,9 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
         
         // Cambiar estado a cancelado
+        Order.PurchaseState oldState = order.getPurchaseState();
         order.setPurchaseState(Order.PurchaseState.cancelled);
+        timeSeriesService.orderStateChanged(order, oldState, Order.PurchaseState.cancelled);
         
         // Liberar los tickets
         for (OrderItem item : order.getOrderItems()) {
@@ -149,8 +176,22 @@ public class OrderService {
         }
         
         orderRepository.save(order);
+        aggregateVersions.bumpAfterCommit(Aggregate.TICKETS);
+    }
+    
+    // Completa los ítems de todas las órdenes con una sola consulta (no una por orden)
+    private List<OrderDTO> withItems(List<OrderDTO> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, List<OrderItemDTO>> itemsByOrder = orderRepository.findItemDTOsByOrderIdIn(
+                        orders.stream().map(OrderDTO::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(OrderItemDTO::getOrderId));
+        orders.forEach(order -> order.setOrderItems(itemsByOrder.getOrDefault(order.getId(), new ArrayList<>())));
+        return orders;
     }
     
+    // Solo para devolver la orden recién guardada; las lecturas usan las proyecciones de OrderRepository
     private OrderDTO convertToDTO(Order order) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
@@ -179,7 +220,7 @@ public class OrderService {
         dto.setOrderId(orderItem.getOrder().getId());
         dto.setTicketId(orderItem.getTicket().getId());
         dto.setTicketCode(orderItem.getTicket().getCode());
-        dto.setLocationName(orderItem.getTicket().getLocation().getName());
+        dto.setLocationName(referenceDataRegistry.locationOf(orderItem.getTicket().getLocation()).name());
         dto.setQuantity(orderItem.getQuantity());
         dto.setUnitPrice(orderItem.getUnitPrice());
         dto.setSubtotal(orderItem.getSubtotal());
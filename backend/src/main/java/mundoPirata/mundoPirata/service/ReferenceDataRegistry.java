@@ -0,0 +1,212 @@
+package mundoPirata.mundoPirata.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
+import mundoPirata.mundoPirata.config.PrimaryReads;
+import mundoPirata.mundoPirata.config.TransactionHooks;
+import mundoPirata.mundoPirata.entity.Destination;
+import mundoPirata.mundoPirata.entity.EventType;
+import mundoPirata.mundoPirata.entity.Location;
+import mundoPirata.mundoPirata.entity.NewsType;
+import mundoPirata.mundoPirata.repository.DestinationRepository;
+import mundoPirata.mundoPirata.repository.EventTypeRepository;
+import mundoPirata.mundoPirata.repository.LocationRepository;
+import mundoPirata.mundoPirata.repository.NewsTypeRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Datos de referencia (tipos de evento, tipos de noticia, ubicaciones del estadio y
+ * destinos de donación) en mapas inmutables, para no consultarlos en cada alta ni en cada
+ * conversión a DTO.
+ *
+ * Se cargan al iniciar y se recargan completos después del commit de cada escritura de
+ * destinos; el resto no tiene endpoints de escritura y se carga con data.sql, por eso también
+ * hay una recarga periódica. La recarga arma un snapshot nuevo y lo publica de una vez, así
+ * que un lector nunca ve una mezcla de versiones. Si la recarga periódica encuentra cambios,
+ * incrementa la versión de los agregados que los muestran para que ConditionalGetFilter no
+ * siga respondiendo 304 con datos viejos.
+ */
+@Service
+@Slf4j
+public class ReferenceDataRegistry {
+
+    private final EventTypeRepository eventTypeRepository;
+    private final NewsTypeRepository newsTypeRepository;
+    private final LocationRepository locationRepository;
+    private final DestinationRepository destinationRepository;
+    private final AggregateVersions aggregateVersions;
+    private final TransactionTemplate readTransaction;
+
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataRegistry(EventTypeRepository eventTypeRepository,
+                                 NewsTypeRepository newsTypeRepository,
+                                 LocationRepository locationRepository,
+                                 DestinationRepository destinationRepository,
+                                 AggregateVersions aggregateVersions,
+                                 PlatformTransactionManager transactionManager) {
+        this.eventTypeRepository = eventTypeRepository;
+        this.newsTypeRepository = newsTypeRepository;
+        this.locationRepository = locationRepository;
+        this.destinationRepository = destinationRepository;
+        this.aggregateVersions = aggregateVersions;
+        // Propia transacción de solo lectura: la recarga corre después del commit de la escritura
+        // y lee del primario (PrimaryReads) para no guardar datos anteriores a ella
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Recarga el registro cuando se confirma la transacción en curso.
+     */
+    public void reloadAfterCommit() {
+        TransactionHooks.afterCommit(this::reload);
+    }
+
+    /**
+     * Toma los cambios hechos directamente en la base (data.sql o scripts manuales).
+     */
+    @Scheduled(fixedDelayString = "${reference-data.refresh-ms:300000}", initialDelayString = "${reference-data.refresh-ms:300000}")
+    public void refresh() {
+        Snapshot previous = snapshot;
+        Snapshot current = reload();
+        // Las escrituras de destinos ya incrementan su versión; acá solo cambios hechos por fuera
+        if (!previous.eventTypes().equals(current.eventTypes())) {
+            aggregateVersions.bump(Aggregate.CALENDAR);
+            aggregateVersions.bump(Aggregate.TICKETS);
+        }
+        if (!previous.newsTypes().equals(current.newsTypes())) {
+            aggregateVersions.bump(Aggregate.NEWS);
+        }
+        if (!previous.locations().equals(current.locations())) {
+            aggregateVersions.bump(Aggregate.TICKETS);
+        }
+        if (!previous.destinations().equals(current.destinations())) {
+            aggregateVersions.bump(Aggregate.DESTINATIONS);
+        }
+    }
+
+    public Optional<EventTypeEntry> findEventType(Long id) {
+        return Optional.ofNullable(snapshot.eventTypes().get(id));
+    }
+
+    public Collection<EventTypeEntry> getEventTypes() {
+        return snapshot.eventTypes().values();
+    }
+
+    public Optional<NewsTypeEntry> findNewsType(Long id) {
+        return Optional.ofNullable(snapshot.newsTypes().get(id));
+    }
+
+    public Collection<NewsTypeEntry> getNewsTypes() {
+        return snapshot.newsTypes().values();
+    }
+
+    public Optional<LocationEntry> findLocation(Long id) {
+        return Optional.ofNullable(snapshot.locations().get(id));
+    }
+
+    public Optional<DestinationEntry> findDestination(Long id) {
+        return Optional.ofNullable(snapshot.destinations().get(id));
+    }
+
+    public Collection<DestinationEntry> getDestinations() {
+        return snapshot.destinations().values();
+    }
+
+    // Los métodos *Of resuelven la asociación de una entidad sin inicializar el proxy LAZY
+    // (getId no lo inicializa). Si el registro todavía no tiene la fila, se lee la entidad.
+
+    public EventTypeEntry eventTypeOf(EventType eventType) {
+        return findEventType(eventType.getId())
+                .orElseGet(() -> new EventTypeEntry(eventType.getId(), eventType.getType()));
+    }
+
+    public NewsTypeEntry newsTypeOf(NewsType newsType) {
+        return findNewsType(newsType.getId())
+                .orElseGet(() -> new NewsTypeEntry(newsType.getId(), newsType.getType()));
+    }
+
+    public LocationEntry locationOf(Location location) {
+        return findLocation(location.getId()).orElseGet(() -> toEntry(location));
+    }
+
+    public DestinationEntry destinationOf(Destination destination) {
+        return findDestination(destination.getId()).orElseGet(() -> toEntry(destination));
+    }
+
+    // Sincronizado: dos recargas seguidas no pueden publicar en desorden
+    private synchronized Snapshot reload() {
+        snapshot = PrimaryReads.execute(() -> readTransaction.execute(status -> new Snapshot(
+                index(eventTypeRepository.findAll(), type -> new EventTypeEntry(type.getId(), type.getType()), EventTypeEntry::id),
+                index(newsTypeRepository.findAll(), type -> new NewsTypeEntry(type.getId(), type.getType()), NewsTypeEntry::id),
+                index(locationRepository.findAll(), ReferenceDataRegistry::toEntry, LocationEntry::id),
+                index(destinationRepository.findAll(), ReferenceDataRegistry::toEntry, DestinationEntry::id))));
+        log.info("Reference data loaded: {} event types, {} news types, {} locations, {} destinations",
+                snapshot.eventTypes().size(), snapshot.newsTypes().size(), snapshot.locations().size(), snapshot.destinations().size());
+        return snapshot;
+    }
+
+    // Mapa inmutable ordenado por ID, como lo devolvía findAll
+    private static <E, T> Map<Long, T> index(List<E> entities, Function<E, T> mapper, Function<T, Long> id) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        entities.stream()
+                .map(mapper)
+                .sorted(Comparator.comparing(id))
+                .forEach(entry -> byId.put(id.apply(entry), entry));
+        return Collections.unmodifiableMap(byId);
+    }
+
+    private static LocationEntry toEntry(Location location) {
+        return new LocationEntry(location.getId(), location.getName(), location.getCapacity(), location.getPrice());
+    }
+
+    private static DestinationEntry toEntry(Destination destination) {
+        return new DestinationEntry(destination.getId(), destination.getName(), destination.getAddress(),
+                destination.getPhoneNumber(), destination.getState());
+    }
+
+    public record EventTypeEntry(Long id, String type) {
+    }
+
+    public record NewsTypeEntry(Long id, String type) {
+    }
+
+    public record LocationEntry(Long id, String name, Long capacity, BigDecimal price) {
+    }
+
+    public record DestinationEntry(Long id, String name, String address, String phoneNumber, Boolean state) {
+
+        public boolean isActive() {
+            return Boolean.TRUE.equals(state);
+        }
+    }
+
+    private record Snapshot(Map<Long, EventTypeEntry> eventTypes,
+                            Map<Long, NewsTypeEntry> newsTypes,
+                            Map<Long, LocationEntry> locations,
+                            Map<Long, DestinationEntry> destinations) {
+    }
+}
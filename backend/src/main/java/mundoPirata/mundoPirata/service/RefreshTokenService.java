@@ -0,0 +1,121 @@
+package mundoPirata.mundoPirata.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.entity.RefreshToken;
+import mundoPirata.mundoPirata.entity.User;
+import mundoPirata.mundoPirata.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Refresh tokens opacos: se entregan una sola vez al cliente y en la base solo se guarda
+ * su SHA-256. Cada uso rota el token; presentar uno ya rotado se considera robo y revoca
+ * todos los refresh tokens del usuario.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration-ms:2592000000}")
+    private long refreshExpirationMillis;
+
+    /**
+     * Emite un nuevo refresh token para el usuario y devuelve su valor en claro.
+     */
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(user);
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMillis)));
+        refreshToken.setRevoked(false);
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+
+    /**
+     * Consume el refresh token y emite uno nuevo para el mismo usuario.
+     *
+     * @throws BadCredentialsException si el token no existe, expiró o ya fue usado
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh token inválido"));
+
+        User user = refreshToken.getUser();
+        if (Boolean.TRUE.equals(refreshToken.getRevoked())) {
+            throw reuseDetected(user);
+        }
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Refresh token expirado");
+        }
+
+        // La lectura no bloquea: si otra rotación con el mismo token revocó la fila antes, esta
+        // no cambia nada y se trata como reutilización
+        if (refreshTokenRepository.revokeIfActive(refreshToken.getId()) != 1) {
+            throw reuseDetected(user);
+        }
+        return new Rotation(user, issue(user));
+    }
+
+    // Reutilización de un token rotado: se invalida toda la familia del usuario
+    private BadCredentialsException reuseDetected(User user) {
+        int revoked = refreshTokenRepository.revokeAllByUser(user);
+        log.warn("Refresh token reuse detected for user {}, revoked {} tokens", user.getEmail(), revoked);
+        return new BadCredentialsException("Refresh token inválido");
+    }
+
+    /**
+     * Revoca el refresh token (logout). Un token desconocido se ignora.
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken)).ifPresent(refreshToken -> {
+            refreshToken.setRevoked(true);
+            refreshTokenRepository.save(refreshToken);
+        });
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,59 @@
+package mundoPirata.mundoPirata.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto en español para los índices de búsqueda en memoria:
+ * minúsculas, sin tildes ni diéresis ("Belgrano", "BELGRANO" y "belgranó" son iguales)
+ * y tokens sin palabras vacías.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "al", "ante", "como", "con", "de", "del", "desde", "donde", "el", "en", "entre",
+            "es", "esta", "este", "fue", "ha", "hay", "la", "las", "le", "les", "lo", "los", "mas",
+            "muy", "ni", "no", "o", "para", "pero", "por", "que", "se", "sin", "sobre", "son", "su",
+            "sus", "tambien", "un", "una", "unas", "unos", "y", "ya");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Pasa el texto a minúsculas y quita tildes y diéresis. Retorna "" para null.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normaliza el texto y lo separa en palabras, descartando las palabras vacías del español.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalize(text))) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Normaliza el texto conservando un único espacio entre palabras (incluye palabras vacías).
+     */
+    public static String normalizeForSubstring(String text) {
+        return NON_ALPHANUMERIC.matcher(normalize(text)).replaceAll(" ").trim();
+    }
+}
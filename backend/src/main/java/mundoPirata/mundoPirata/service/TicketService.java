@@ -1,13 +1,15 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
 import mundoPirata.mundoPirata.dto.*;
-import mundoPirata.mundoPirata.entity.Location;
 import mundoPirata.mundoPirata.entity.Ticket;
 import mundoPirata.mundoPirata.entity.Calendar;
 import mundoPirata.mundoPirata.repository.LocationRepository;
 import mundoPirata.mundoPirata.repository.TicketRepository;
 import mundoPirata.mundoPirata.repository.CalendarRepository;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry.LocationEntry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +26,11 @@ public class TicketService {
     private final TicketRepository ticketRepository;
     private final LocationRepository locationRepository;
     private final CalendarRepository calendarRepository;
+    private final AggregateVersions aggregateVersions;
+    private final ReferenceDataRegistry referenceDataRegistry;
     
     public TicketDTO createTicket(TicketCreateDTO ticketCreateDTO) {
-        Location location = locationRepository.findById(ticketCreateDTO.getLocationId())
+        referenceDataRegistry.findLocation(ticketCreateDTO.getLocationId())
                 .orElseThrow(() -> new RuntimeException("Ubicación no encontrada"));
         
         // Generar código único si no se proporciona
@@ -37,72 +41,87 @@ public class TicketService {
         
         Ticket ticket = new Ticket();
         ticket.setCode(code);
-        ticket.setLocation(location);
+        ticket.setLocation(locationRepository.getReferenceById(ticketCreateDTO.getLocationId()));
         ticket.setPrice(ticketCreateDTO.getPrice());
         ticket.setDateTime(ticketCreateDTO.getDateTime());
         ticket.setAvailable(true);
         
         Ticket savedTicket = ticketRepository.save(ticket);
+        aggregateVersions.bumpAfterCommit(Aggregate.TICKETS);
         return convertToDTO(savedTicket);
     }
     
+    @Transactional(readOnly = true)
     public Optional<TicketDTO> getTicketById(Long ticketId) {
-        return ticketRepository.findById(ticketId)
-                .map(this::convertToDTO);
+        return ticketRepository.findDTOById(ticketId)
+                .map(this::withEventTitle);
     }
     
+    @Transactional(readOnly = true)
     public Optional<TicketDTO> getTicketByCode(String code) {
-        return ticketRepository.findByCode(code)
-                .map(this::convertToDTO);
+        return ticketRepository.findDTOByCode(code)
+                .map(this::withEventTitle);
     }
     
+    @Transactional(readOnly = true)
     public List<TicketDTO> getAllAvailableTickets() {
-        return ticketRepository.findByAvailableTrue().stream()
-                .map(this::convertToDTO)
+        return ticketRepository.findAvailableDTOs().stream()
+                .map(this::withEventTitle)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<TicketDTO> getAllTickets() {
-        return ticketRepository.findAll().stream()
-                .map(this::convertToDTO)
+        return ticketRepository.findAllDTOs().stream()
+                .map(this::withEventTitle)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<TicketDTO> getTicketsByLocation(Long locationId) {
-        Location location = locationRepository.findById(locationId)
+        referenceDataRegistry.findLocation(locationId)
                 .orElseThrow(() -> new RuntimeException("Ubicación no encontrada"));
         
-        return ticketRepository.findByLocation(location).stream()
-                .map(this::convertToDTO)
+        return ticketRepository.findDTOsByLocationId(locationId).stream()
+                .map(this::withEventTitle)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<TicketDTO> getAvailableTicketsByLocation(Long locationId) {
-        Location location = locationRepository.findById(locationId)
+        referenceDataRegistry.findLocation(locationId)
                 .orElseThrow(() -> new RuntimeException("Ubicación no encontrada"));
         
-        return ticketRepository.findByLocationAndAvailableTrue(location).stream()
-                .map(this::convertToDTO)
+        return ticketRepository.findAvailableDTOsByLocationId(locationId).stream()
+                .map(this::withEventTitle)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<TicketDTO> getTicketsByDateTimeRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return ticketRepository.findByDateTimeBetween(startDate, endDate).stream()
-                .map(this::convertToDTO)
+        return ticketRepository.findDTOsByDateTimeBetween(startDate, endDate).stream()
+                .map(this::withEventTitle)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public Long getAvailableTicketsCountByLocation(Long locationId) {
-        Location location = locationRepository.findById(locationId)
+        referenceDataRegistry.findLocation(locationId)
                 .orElseThrow(() -> new RuntimeException("Ubicación no encontrada"));
         
-        return ticketRepository.countAvailableByLocation(location);
+        return ticketRepository.countAvailableByLocation(locationRepository.getReferenceById(locationId));
     }
     
+    @Transactional(readOnly = true)
     public Long getSoldTicketsCount() {
         return ticketRepository.countSoldTickets();
     }
     
+    @Transactional(readOnly = true)
+    public Long getAvailableTicketsCount() {
+        return ticketRepository.countAvailableTickets();
+    }
+    
     public void markTicketAsSold(Long ticketId) {
         Ticket ticket = ticketRepository.findById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado"));
@@ -113,6 +132,7 @@ public class TicketService {
         
         ticket.setAvailable(false);
         ticketRepository.save(ticket);
+        aggregateVersions.bumpAfterCommit(Aggregate.TICKETS);
     }
     
     public void markTicketAsAvailable(Long ticketId) {
@@ -121,6 +141,7 @@ public class TicketService {
         
         ticket.setAvailable(true);
         ticketRepository.save(ticket);
+        aggregateVersions.bumpAfterCommit(Aggregate.TICKETS);
     }
     
     public void deleteTicket(Long ticketId) {
@@ -128,8 +149,12 @@ public class TicketService {
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado"));
         
         ticketRepository.delete(ticket);
+        aggregateVersions.bumpAfterCommit(Aggregate.TICKETS);
     }
     
+    // Sin readOnly: los pagos modifican la entidad devuelta y tiene que leerse del primario. Con
+    // open-in-view, una entidad cargada en una transacción readOnly queda de solo lectura en la
+    // sesión y Hibernate no detectaría esos cambios
     public List<Ticket> getTicketsByIds(List<Long> ticketIds) {
         return ticketRepository.findAllById(ticketIds);
     }
@@ -138,6 +163,7 @@ public class TicketService {
      * Obtener eventos con entradas agrupados por evento del calendario
      * Mejorado para manejar múltiples eventos con el mismo rival en diferentes fechas
      */
+    @Transactional(readOnly = true)
     public List<EventWithTicketsDTO> getEventsWithTickets() {
         // Obtener TODOS los tickets (disponibles y vendidos)
         List<Ticket> allTickets = ticketRepository.findAll();
@@ -208,7 +234,7 @@ public class TicketService {
                     calendarEvent.getId(),
                     calendarEvent.getTitle(),
                     calendarEvent.getDetail() != null ? calendarEvent.getDetail() : "Partido de Liga Profesional",
-                    calendarEvent.getEventType() != null ? calendarEvent.getEventType().getType() : "Partido",
+                    calendarEvent.getEventType() != null ? referenceDataRegistry.eventTypeOf(calendarEvent.getEventType()).type() : "Partido",
                     ticketDateTime,
                     hourTickets
                 );
@@ -273,7 +299,7 @@ public class TicketService {
             List<Ticket> locationTickets = locationEntry.getValue();
             if (locationTickets.isEmpty()) continue;
             
-            Location location = locationTickets.get(0).getLocation();
+            LocationEntry location = referenceDataRegistry.locationOf(locationTickets.get(0).getLocation());
             
             // Separar tickets disponibles y vendidos REALMENTE
             List<Ticket> availableTickets = locationTickets.stream()
@@ -291,10 +317,10 @@ public class TicketService {
             
             // Crear LocationDTO
             LocationDTO locationDTO = new LocationDTO();
-            locationDTO.setId(location.getId());
-            locationDTO.setName(location.getName());
-            locationDTO.setCapacity(location.getCapacity());
-            locationDTO.setPrice(location.getPrice());
+            locationDTO.setId(location.id());
+            locationDTO.setName(location.name());
+            locationDTO.setCapacity(location.capacity());
+            locationDTO.setPrice(location.price());
             
             // Crear TicketsByLocationDTO con datos REALES
             TicketsByLocationDTO ticketsByLocationDTO = new TicketsByLocationDTO();
@@ -344,12 +370,18 @@ public class TicketService {
         return "TKT-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
     
+    // El título del evento no está en la base: se completa sobre el DTO proyectado
+    private TicketDTO withEventTitle(TicketDTO dto) {
+        dto.setEventTitle(generateEventTitle(dto.getDateTime()));
+        return dto;
+    }
+    
     private TicketDTO convertToDTO(Ticket ticket) {
         TicketDTO dto = new TicketDTO();
         dto.setId(ticket.getId());
         dto.setCode(ticket.getCode());
         dto.setLocationId(ticket.getLocation().getId());
-        dto.setLocationName(ticket.getLocation().getName());
+        dto.setLocationName(referenceDataRegistry.locationOf(ticket.getLocation()).name());
         dto.setPrice(ticket.getPrice());
         dto.setDateTime(ticket.getDateTime());
         dto.setEventTitle(generateEventTitle(ticket.getDateTime()));
@@ -0,0 +1,302 @@
+package mundoPirata.mundoPirata.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.dto.TimeSeriesDTO;
+import mundoPirata.mundoPirata.entity.BucketGranularity;
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.Order;
+import mundoPirata.mundoPirata.repository.DonationBucketRepository;
+import mundoPirata.mundoPirata.repository.DonationRepository;
+import mundoPirata.mundoPirata.repository.OrderRepository;
+import mundoPirata.mundoPirata.repository.TicketRepository;
+import mundoPirata.mundoPirata.repository.TicketSalesBucketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Series de tiempo de entradas vendidas (por partido y ubicación) y de donaciones (por destino).
+ *
+ * Al aprobarse una orden o una donación se suma en los intervalos de un minuto, una hora y un día
+ * que contienen su fecha, en la misma transacción que cambia el estado; si deja de estar aprobada
+ * se resta, salvo que el intervalo quedara negativo (la serie no contaba esa venta): entonces no se
+ * toca y se registra una advertencia para reconstruir. Las consultas leen esos intervalos en lugar de recorrer órdenes y donaciones, y pueden
+ * agruparlos en pasos más largos. Los intervalos de un minuto se guardan timeseries.retention.minute,
+ * los de una hora timeseries.retention.hour y los de un día siempre.
+ *
+ * rebuild reconstruye los intervalos desde el historial: para corregir una diferencia. Lo dispara
+ * el endpoint de administración y, si se configura, timeseries.rebuild-cron. Al iniciar, una serie
+ * sin intervalos pero con historial aprobado (la primera vez después de la migración) se carga sola.
+ */
+@Service
+@Slf4j
+@Transactional
+public class TimeSeriesService {
+
+    private static final int MAX_POINTS = 5_000;
+    // Fecha mínima de un DATETIME de MySQL: los intervalos de un día no vencen
+    private static final LocalDateTime KEEP_FOREVER = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    private final TicketSalesBucketRepository ticketSalesBucketRepository;
+    private final DonationBucketRepository donationBucketRepository;
+    private final TicketRepository ticketRepository;
+    private final OrderRepository orderRepository;
+    private final DonationRepository donationRepository;
+    private final TransactionTemplate rebuildTransaction;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    public TimeSeriesService(TicketSalesBucketRepository ticketSalesBucketRepository,
+                             DonationBucketRepository donationBucketRepository,
+                             TicketRepository ticketRepository,
+                             OrderRepository orderRepository,
+                             DonationRepository donationRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${timeseries.retention.minute:14d}") Duration minuteRetention,
+                             @Value("${timeseries.retention.hour:400d}") Duration hourRetention) {
+        this.ticketSalesBucketRepository = ticketSalesBucketRepository;
+        this.donationBucketRepository = donationBucketRepository;
+        this.ticketRepository = ticketRepository;
+        this.orderRepository = orderRepository;
+        this.donationRepository = donationRepository;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+    }
+
+    /**
+     * Suma o resta la orden en las series si entra o sale del estado aprobado.
+     */
+    public void orderStateChanged(Order order, Order.PurchaseState oldState, Order.PurchaseState newState) {
+        int sign = Boolean.compare(newState == Order.PurchaseState.approved, oldState == Order.PurchaseState.approved);
+        if (sign == 0 || order.getPurchaseDate() == null) {
+            return;
+        }
+        List<BucketGranularity> granularities = retainedGranularities(order.getPurchaseDate());
+        if (sign > 0) {
+            for (BucketGranularity granularity : granularities) {
+                ticketSalesBucketRepository.addOrder(granularity.name(), granularity.truncate(order.getPurchaseDate()),
+                        order.getId());
+            }
+            return;
+        }
+        int buckets = ticketSalesBucketRepository.countOrderBuckets(order.getId());
+        for (BucketGranularity granularity : granularities) {
+            int subtracted = ticketSalesBucketRepository.subtractOrder(granularity.name(),
+                    granularity.truncate(order.getPurchaseDate()), order.getId());
+            if (subtracted < buckets) {
+                log.warn("Order {} was not counted in {} of its {} {} ticket sales buckets; left them unchanged, rebuild the time series",
+                        order.getId(), buckets - subtracted, buckets, granularity);
+            }
+        }
+    }
+
+    /**
+     * Suma o resta la donación en las series si entra o sale del estado aprobado.
+     */
+    public void donationStateChanged(Donation donation, Donation.PurchaseState oldState, Donation.PurchaseState newState) {
+        int sign = Boolean.compare(newState == Donation.PurchaseState.approved, oldState == Donation.PurchaseState.approved);
+        if (sign == 0 || donation.getDonationDate() == null) {
+            return;
+        }
+        for (BucketGranularity granularity : retainedGranularities(donation.getDonationDate())) {
+            LocalDateTime bucketStart = granularity.truncate(donation.getDonationDate());
+            if (sign > 0) {
+                donationBucketRepository.addDonation(granularity.name(), bucketStart, donation.getId());
+            } else if (donationBucketRepository.subtractDonation(granularity.name(), bucketStart, donation.getId()) == 0) {
+                log.warn("Donation {} was not counted in its {} donation bucket; left it unchanged, rebuild the time series",
+                        donation.getId(), granularity);
+            }
+        }
+    }
+
+    /**
+     * Entradas vendidas de un partido (en una ubicación o en todas). Sin from arranca en la
+     * apertura de la venta y sin to termina en el partido.
+     */
+    @Transactional(readOnly = true)
+    public TimeSeriesDTO getTicketSales(LocalDateTime matchDateTime, Long locationId, BucketGranularity granularity,
+                                        String step, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime salesOpenedAt = ticketRepository.findSalesOpening(matchDateTime, locationId);
+        LocalDateTime start = from != null ? from : salesOpenedAt != null ? salesOpenedAt : matchDateTime.minusDays(30);
+        Window window = window(granularity, step, start, to != null ? to : matchDateTime);
+        TimeSeriesDTO series = series(granularity, window, ticketSalesBucketRepository.findSeries(
+                granularity, matchDateTime, locationId, window.start(), window.end()));
+        series.setSalesOpenedAt(salesOpenedAt);
+        return series;
+    }
+
+    /**
+     * Donaciones de un destino (o de todos). Sin rango, los últimos 30 días.
+     */
+    @Transactional(readOnly = true)
+    public TimeSeriesDTO getDonations(Long destinationId, BucketGranularity granularity,
+                                      String step, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        Window window = window(granularity, step, from != null ? from : end.minusDays(30), end);
+        return series(granularity, window, donationBucketRepository.findSeries(
+                granularity, destinationId, window.start(), window.end()));
+    }
+
+    /**
+     * Reconstruye todos los intervalos desde las órdenes y donaciones aprobadas y devuelve las
+     * filas generadas por serie y granularidad.
+     *
+     * Cada serie se reconstruye en su transacción y empieza bloqueando sus filas aprobadas (FOR
+     * SHARE): una aprobación en curso termina antes, con su suma incluida, y las que llegan después
+     * esperan a que la serie esté reconstruida. Así ninguna venta se pierde ni se cuenta dos veces.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Integer> rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> rows = new LinkedHashMap<>();
+        rebuildTicketSales(now, rows);
+        rebuildDonations(now, rows);
+        log.info("Time series rebuilt from history: {}", rows);
+        return rows;
+    }
+
+    /**
+     * Carga desde el historial las series que todavía no tienen intervalos pero sí órdenes o
+     * donaciones aprobadas: la primera vez que arranca con V5__time_series_buckets.sql aplicada.
+     * Si falla, la aplicación arranca igual y la serie se carga con rebuild.
+     */
+    @PostConstruct
+    public void backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> rows = new LinkedHashMap<>();
+        try {
+            if (!ticketSalesBucketRepository.existsByGranularity(BucketGranularity.day)
+                    && orderRepository.existsByPurchaseState(Order.PurchaseState.approved)) {
+                rebuildTicketSales(now, rows);
+            }
+            if (!donationBucketRepository.existsByGranularity(BucketGranularity.day)
+                    && donationRepository.existsByPurchaseState(Donation.PurchaseState.approved)) {
+                rebuildDonations(now, rows);
+            }
+        } catch (RuntimeException e) {
+            log.error("Time series backfill failed, run a rebuild: {}", e.getMessage());
+            return;
+        }
+        if (!rows.isEmpty()) {
+            log.info("Time series backfilled from history: {}", rows);
+        }
+    }
+
+    // Deshabilitado por defecto ("-"); con un cron, reconstruye periódicamente
+    @Scheduled(cron = "${timeseries.rebuild-cron:-}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildOnSchedule() {
+        rebuild();
+    }
+
+    // Borra los intervalos de un minuto y de una hora que superaron su retención
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeExpiredBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        for (BucketGranularity granularity : List.of(BucketGranularity.minute, BucketGranularity.hour)) {
+            LocalDateTime before = retentionStart(granularity, now);
+            int deleted = ticketSalesBucketRepository.deleteOlderThan(granularity, before)
+                    + donationBucketRepository.deleteOlderThan(granularity, before);
+            log.info("Purged {} {} time series buckets before {}", deleted, granularity, before);
+        }
+    }
+
+    private void rebuildTicketSales(LocalDateTime now, Map<String, Integer> rows) {
+        rebuildTransaction.executeWithoutResult(status -> {
+            ticketSalesBucketRepository.lockApprovedOrders();
+            for (BucketGranularity granularity : BucketGranularity.values()) {
+                ticketSalesBucketRepository.deleteGranularity(granularity.name());
+                rows.put("ticketSales." + granularity, ticketSalesBucketRepository.rebuild(
+                        granularity.name(), granularity.getSqlFormat(), retentionStart(granularity, now)));
+            }
+        });
+    }
+
+    private void rebuildDonations(LocalDateTime now, Map<String, Integer> rows) {
+        rebuildTransaction.executeWithoutResult(status -> {
+            donationBucketRepository.lockApprovedDonations();
+            for (BucketGranularity granularity : BucketGranularity.values()) {
+                donationBucketRepository.deleteGranularity(granularity.name());
+                rows.put("donations." + granularity, donationBucketRepository.rebuild(
+                        granularity.name(), granularity.getSqlFormat(), retentionStart(granularity, now)));
+            }
+        });
+    }
+
+    // Granularidades que todavía guardan el intervalo de la fecha
+    private List<BucketGranularity> retainedGranularities(LocalDateTime dateTime) {
+        LocalDateTime now = LocalDateTime.now();
+        return Arrays.stream(BucketGranularity.values())
+                .filter(granularity -> !dateTime.isBefore(retentionStart(granularity, now)))
+                .toList();
+    }
+
+    private LocalDateTime retentionStart(BucketGranularity granularity, LocalDateTime now) {
+        return switch (granularity) {
+            case minute -> granularity.truncate(now.minus(minuteRetention));
+            case hour -> granularity.truncate(now.minus(hourRetention));
+            case day -> KEEP_FOREVER;
+        };
+    }
+
+    // Pasos de step (por defecto la granularidad) desde el inicio del intervalo de from hasta cubrir to
+    private static Window window(BucketGranularity granularity, String step, LocalDateTime from, LocalDateTime to) {
+        Duration stepDuration = step == null || step.isBlank() ? granularity.getStep() : DurationStyle.detectAndParse(step);
+        long granularitySeconds = granularity.getStep().toSeconds();
+        if (stepDuration.toSeconds() < granularitySeconds || stepDuration.toSeconds() % granularitySeconds != 0) {
+            throw new RuntimeException("El paso debe ser un múltiplo de la granularidad");
+        }
+        LocalDateTime start = granularity.truncate(from);
+        if (!to.isAfter(start)) {
+            throw new RuntimeException("El rango de fechas no es válido");
+        }
+        long points = (Duration.between(start, to).toSeconds() + stepDuration.toSeconds() - 1) / stepDuration.toSeconds();
+        if (points > MAX_POINTS) {
+            throw new RuntimeException("El rango tiene demasiados puntos: usar un paso mayor");
+        }
+        return new Window(start, stepDuration, (int) points);
+    }
+
+    // Filas (inicio del intervalo, cantidad, monto) agrupadas en los pasos de la ventana
+    private static TimeSeriesDTO series(BucketGranularity granularity, Window window, List<Object[]> rows) {
+        long stepSeconds = window.step().toSeconds();
+        long[] counts = new long[window.points()];
+        BigDecimal[] amounts = new BigDecimal[window.points()];
+        Arrays.fill(amounts, BigDecimal.ZERO);
+        for (Object[] row : rows) {
+            int index = (int) (Duration.between(window.start(), (LocalDateTime) row[0]).toSeconds() / stepSeconds);
+            counts[index] += ((Number) row[1]).longValue();
+            amounts[index] = amounts[index].add((BigDecimal) row[2]);
+        }
+
+        List<TimeSeriesDTO.PointDTO> points = new ArrayList<>(window.points());
+        for (int i = 0; i < window.points(); i++) {
+            points.add(new TimeSeriesDTO.PointDTO(window.start().plus(window.step().multipliedBy(i)), counts[i], amounts[i]));
+        }
+        return new TimeSeriesDTO(granularity, window.step().toString(), window.start(), window.end(), null, points);
+    }
+
+    private record Window(LocalDateTime start, Duration step, int points) {
+        LocalDateTime end() {
+            return start.plus(step.multipliedBy(points));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package mundoPirata.mundoPirata.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.entity.RevokedToken;
+import mundoPirata.mundoPirata.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Conjunto de access tokens revocados (logout) mantenido en memoria como filtros de Bloom
+ * agrupados por ventana de expiración. La tabla revoked_tokens es la fuente de verdad:
+ * el filtro responde "no revocado" en O(1) sin consultar la base, y solo los aciertos
+ * (tokens realmente revocados o falsos positivos) se confirman contra la tabla.
+ * Cuando una ventana expira, su filtro completo se descarta.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long bucketWidthMillis;
+    private final int expectedPerBucket;
+
+    // Índice de ventana (expiración / ancho de ventana) -> filtro de Bloom
+    private final ConcurrentSkipListMap<Long, BloomFilter> buckets = new ConcurrentSkipListMap<>();
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${jwt.access-expiration-ms:900000}") long bucketWidthMillis,
+            @Value("${security.revocation.expected-per-bucket:10000}") int expectedPerBucket) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.bucketWidthMillis = bucketWidthMillis;
+        this.expectedPerBucket = expectedPerBucket;
+    }
+
+    @PostConstruct
+    void loadActiveRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+        active.forEach(token -> addToFilter(token.getJti(), toDate(token.getExpiresAt())));
+        lastSync = now;
+        log.info("Loaded {} revoked tokens into memory", active.size());
+    }
+
+    /**
+     * Revoca un access token hasta su expiración natural.
+     */
+    @Transactional
+    public void revoke(String jti, Date expiration) {
+        if (jti == null || expiration == null || expiration.before(new Date())) {
+            return;
+        }
+        // Se agrega al filtro antes del commit: ante un rollback solo se paga una consulta extra
+        addToFilter(jti, expiration);
+        revokedTokenRepository.save(new RevokedToken(jti, toLocalDateTime(expiration), LocalDateTime.now()));
+    }
+
+    /**
+     * Indica si el token fue revocado. Los tokens no revocados se resuelven en memoria.
+     */
+    public boolean isRevoked(JwtService.TokenClaims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return false;
+        }
+        BloomFilter filter = buckets.get(bucketOf(claims.getExpiration()));
+        if (filter == null || !filter.mightContain(claims.getId())) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(claims.getId());
+    }
+
+    /**
+     * Incorpora revocaciones hechas por otras instancias de la aplicación.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-ms:30000}")
+    public void syncFromDatabase() {
+        LocalDateTime since = lastSync;
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.findByRevokedAtAfter(since.minusSeconds(5))
+                .forEach(token -> addToFilter(token.getJti(), toDate(token.getExpiresAt())));
+        lastSync = now;
+    }
+
+    /**
+     * Descarta las ventanas ya expiradas y limpia la tabla.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.purge-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        long currentBucket = bucketOf(new Date());
+        Map<Long, BloomFilter> expired = buckets.headMap(currentBucket);
+        expired.clear();
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired revoked tokens", deleted);
+        }
+    }
+
+    private void addToFilter(String jti, Date expiration) {
+        buckets.computeIfAbsent(bucketOf(expiration), bucket -> new BloomFilter(expectedPerBucket))
+                .add(jti);
+    }
+
+    private long bucketOf(Date expiration) {
+        return expiration.getTime() / bucketWidthMillis;
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Filtro de Bloom thread-safe dimensionado para ~1% de falsos positivos.
+     */
+    static final class BloomFilter {
+        private static final int HASH_FUNCTIONS = 7;
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+
+        BloomFilter(int expectedInsertions) {
+            // ~9.6 bits por elemento para p = 0.01
+            long bits = Math.max(1024, (long) Math.ceil(expectedInsertions * 9.6));
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.bitCount = words.length() * 64L;
+        }
+
+        void add(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(index);
+                } while ((current & mask) == 0 && !words.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a de 64 bits con mezcla final
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
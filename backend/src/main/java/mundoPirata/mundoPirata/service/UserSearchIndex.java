@@ -0,0 +1,314 @@
+package mundoPirata.mundoPirata.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de prefijos en memoria sobre nombre, apellido, email y DNI de los usuarios,
+ * para la búsqueda del panel de administración.
+ *
+ * Cada palabra normalizada (sin tildes ni mayúsculas) es una clave de un TreeMap, así que
+ * buscar por prefijo es recorrer un rango del árbol. Con varias palabras en la consulta
+ * se devuelven los usuarios que tienen todas.
+ *
+ * Los resultados se ordenan por apellido, nombre e ID. Cada usuario guarda su posición en
+ * ese orden, de modo que las coincidencias se marcan en un BitSet y la página sale de
+ * recorrerlo, sin ordenar. Las posiciones se recalculan en la primera búsqueda después
+ * de agregar o quitar un usuario o de cambiarle el nombre.
+ */
+public class UserSearchIndex {
+
+    private static final Comparator<Document> ORDER = Comparator.comparing((Document document) -> document.sortKey)
+            .thenComparing(document -> document.id);
+
+    private final TreeMap<String, Set<Document>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Document[] byRank = new Document[0];
+    private boolean ranksDirty;
+
+    /**
+     * Agrega o reemplaza un usuario en el índice.
+     */
+    public void index(Long id, String name, String lastName, String email, Long dni) {
+        Set<String> keys = new LinkedHashSet<>();
+        addWords(keys, name);
+        addWords(keys, lastName);
+        // Del email se indexan sus partes: "juan.perez@gmail.com" se encuentra con "perez"
+        // y con "juan.perez@", que se busca como "juan" y "perez"
+        addWords(keys, email);
+        if (dni != null) {
+            keys.add(dni.toString());
+        }
+        Document document = new Document(id,
+                TextNormalizer.normalizeForSubstring(lastName) + " " + TextNormalizer.normalizeForSubstring(name),
+                keys.toArray(new String[0]));
+
+        lock.writeLock().lock();
+        try {
+            Document previous = removeUnlocked(id);
+            for (String key : document.keys) {
+                postings.computeIfAbsent(key, k -> new HashSet<>()).add(document);
+            }
+            documents.put(id, document);
+            if (previous != null && !ranksDirty && previous.sortKey.equals(document.sortKey)) {
+                // Mismo nombre: conserva su posición en el orden
+                document.rank = previous.rank;
+                byRank[document.rank] = document;
+            } else {
+                ranksDirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (removeUnlocked(id) != null) {
+                ranksDirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Una página de los usuarios que tienen, para cada palabra de la consulta, alguna clave
+     * que empieza con ella, ordenados por apellido, nombre e ID, junto con el total.
+     */
+    public Result search(String query, int offset, int limit) {
+        List<Term> terms = new ArrayList<>();
+        for (String part : TextNormalizer.normalize(query).trim().split("\\s+")) {
+            if (!part.isEmpty()) {
+                terms.add(Term.of(part));
+            }
+        }
+        if (terms.isEmpty() || limit <= 0) {
+            return new Result(List.of(), 0);
+        }
+
+        lockForSearch();
+        try {
+            // Los candidatos salen de la palabra más selectiva; el resto se verifica contra
+            // las claves de cada candidato, sin armar ni intersectar conjuntos
+            Term driver = terms.get(0);
+            long driverEstimate = Long.MAX_VALUE;
+            for (Term term : terms) {
+                long estimate = estimate(term);
+                if (estimate < driverEstimate) {
+                    driver = term;
+                    driverEstimate = estimate;
+                }
+            }
+            if (driverEstimate == 0) {
+                return new Result(List.of(), 0);
+            }
+
+            BitSet hits = new BitSet(byRank.length);
+            collect(prefixRange(driver.text()), terms, driver, hits);
+            if (driver.hasWords()) {
+                // "o'higgins" se indexó como "o" y "higgins": se busca por la parte más rara y se verifica el resto
+                collect(prefixRange(rarestWord(driver)), terms, driver, hits);
+            }
+
+            int total = hits.cardinality();
+            List<Long> ids = new ArrayList<>(Math.min(limit, total));
+            int skipped = 0;
+            for (int rank = hits.nextSetBit(0); rank >= 0 && ids.size() < limit; rank = hits.nextSetBit(rank + 1)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    ids.add(byRank[rank].id);
+                }
+            }
+            return new Result(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Toma el lock de lectura con las posiciones al día; si hay que recalcularlas lo hace
+    // con el de escritura y lo degrada a lectura sin soltarlo
+    private void lockForSearch() {
+        lock.readLock().lock();
+        if (!ranksDirty) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            if (ranksDirty) {
+                Document[] sorted = documents.values().toArray(new Document[0]);
+                Arrays.sort(sorted, ORDER);
+                for (int rank = 0; rank < sorted.length; rank++) {
+                    sorted[rank].rank = rank;
+                }
+                byRank = sorted;
+                ranksDirty = false;
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void collect(NavigableMap<String, Set<Document>> range, List<Term> terms, Term driver, BitSet hits) {
+        for (Set<Document> keyDocuments : range.values()) {
+            for (Document document : keyDocuments) {
+                if (!hits.get(document.rank) && matchesAll(document, terms, driver)) {
+                    hits.set(document.rank);
+                }
+            }
+        }
+    }
+
+    // Cantidad de ocurrencias en el rango de prefijos: cota superior de los usuarios que coinciden
+    private long estimate(Term term) {
+        long estimate = rangeSize(term.text());
+        if (term.hasWords()) {
+            estimate += rangeSize(rarestWord(term));
+        }
+        return estimate;
+    }
+
+    private String rarestWord(Term term) {
+        String rarest = term.words()[0];
+        long rarestSize = Long.MAX_VALUE;
+        for (String word : term.words()) {
+            long size = rangeSize(word);
+            if (size < rarestSize) {
+                rarest = word;
+                rarestSize = size;
+            }
+        }
+        return rarest;
+    }
+
+    private long rangeSize(String prefix) {
+        long size = 0;
+        for (Set<Document> keyDocuments : prefixRange(prefix).values()) {
+            size += keyDocuments.size();
+        }
+        return size;
+    }
+
+    private static boolean matchesAll(Document document, List<Term> terms, Term driver) {
+        for (Term term : terms) {
+            if (term != driver && !matches(document, term)) {
+                return false;
+            }
+        }
+        // El candidato pudo entrar por una sola de las partes de la palabra
+        return !driver.hasWords() || matches(document, driver);
+    }
+
+    private static boolean matches(Document document, Term term) {
+        if (hasKeyStartingWith(document, term.text())) {
+            return true;
+        }
+        if (!term.hasWords()) {
+            return false;
+        }
+        for (String word : term.words()) {
+            if (!hasKeyStartingWith(document, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasKeyStartingWith(Document document, String prefix) {
+        for (String key : document.keys) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private NavigableMap<String, Set<Document>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private Document removeUnlocked(Long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return null;
+        }
+        for (String key : previous.keys) {
+            Set<Document> keyDocuments = postings.get(key);
+            if (keyDocuments != null) {
+                keyDocuments.remove(previous);
+                if (keyDocuments.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+        return previous;
+    }
+
+    private static void addWords(Set<String> keys, String text) {
+        String words = TextNormalizer.normalizeForSubstring(text);
+        if (words.isEmpty()) {
+            return;
+        }
+        for (String word : words.split(" ")) {
+            keys.add(word);
+        }
+    }
+
+    /**
+     * Página de IDs de una búsqueda y total de usuarios que coinciden.
+     */
+    public record Result(List<Long> ids, int total) {
+    }
+
+    // Palabra de la consulta y, si tiene signos ("o'higgins"), sus partes
+    private record Term(String text, String[] words) {
+
+        static Term of(String text) {
+            String words = TextNormalizer.normalizeForSubstring(text);
+            return new Term(text, words.isEmpty() || words.equals(text) ? new String[0] : words.split(" "));
+        }
+
+        boolean hasWords() {
+            return words.length > 0;
+        }
+    }
+
+    // Igualdad por identidad: los conjuntos de ocurrencias guardan la versión indexada
+    private static final class Document {
+        private final Long id;
+        private final String sortKey;
+        private final String[] keys;
+        private int rank;
+
+        private Document(Long id, String sortKey, String[] keys) {
+            this.id = id;
+            this.sortKey = sortKey;
+            this.keys = keys;
+        }
+    }
+}
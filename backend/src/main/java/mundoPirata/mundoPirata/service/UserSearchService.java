@@ -0,0 +1,96 @@
+package mundoPirata.mundoPirata.service;
+
+import lombok.extern.slf4j.Slf4j;
+import mundoPirata.mundoPirata.config.PrimaryReads;
+import mundoPirata.mundoPirata.config.TransactionHooks;
+import mundoPirata.mundoPirata.entity.User;
+import mundoPirata.mundoPirata.repository.UserRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Búsqueda de usuarios por nombre, apellido, email o DNI sobre un UserSearchIndex que se
+ * carga en la primera búsqueda y que UserService mantiene actualizado después de cada commit.
+ */
+@Service
+@Slf4j
+public class UserSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readTransaction;
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    private volatile boolean loaded;
+
+    public UserSearchService(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * IDs de los usuarios que coinciden con la consulta, ordenados por apellido y nombre.
+     */
+    public Page<Long> search(String query, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageRequest);
+        }
+        if (!loaded) {
+            load();
+        }
+        UserSearchIndex.Result result = index.search(query, (int) Math.min(pageRequest.getOffset(), Integer.MAX_VALUE),
+                pageRequest.getPageSize());
+        return new PageImpl<>(result.ids(), pageRequest, result.total());
+    }
+
+    /**
+     * Refleja el usuario en el índice cuando se confirma la transacción en curso.
+     */
+    public void updateAfterCommit(User user) {
+        Long id = user.getId();
+        String name = user.getName();
+        String lastName = user.getLastName();
+        String email = user.getEmail();
+        Long dni = user.getDni();
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                // Si el índice todavía no se cargó, la carga inicial leerá este cambio de la base
+                if (loaded) {
+                    index.index(id, name, lastName, email, dni);
+                }
+            }
+        });
+    }
+
+    /**
+     * Quita el usuario del índice cuando se confirma la transacción en curso.
+     */
+    public void removeAfterCommit(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                if (loaded) {
+                    index.remove(id);
+                }
+            }
+        });
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        PrimaryReads.run(() -> readTransaction.executeWithoutResult(status -> userRepository.findSearchFields()
+                .forEach(row -> index.index((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (Long) row[4]))));
+        loaded = true;
+        log.info("User search index loaded with {} users", index.size());
+    }
+}
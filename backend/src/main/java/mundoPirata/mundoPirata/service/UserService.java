@@ -1,20 +1,31 @@
 package mundoPirata.mundoPirata.service;
 
 import lombok.RequiredArgsConstructor;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
+import mundoPirata.mundoPirata.config.UserDetailsCache;
+import mundoPirata.mundoPirata.dto.CursorPage;
 import mundoPirata.mundoPirata.dto.UserDTO;
 import mundoPirata.mundoPirata.dto.UserRegistrationDTO;
 import mundoPirata.mundoPirata.dto.UserUpdateDTO;
 import mundoPirata.mundoPirata.dto.UserAdminCreateDTO;
 import mundoPirata.mundoPirata.dto.UserAdminUpdateDTO;
 import mundoPirata.mundoPirata.entity.User;
+import mundoPirata.mundoPirata.repository.RefreshTokenRepository;
 import mundoPirata.mundoPirata.repository.UserRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +36,13 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final NewsFeedCache newsFeedCache;
+    private final CalendarSnapshotService calendarSnapshotService;
+    private final AuthorNameResolver authorNameResolver;
+    private final UserSearchService userSearchService;
+    private final AggregateVersions aggregateVersions;
     
     public UserDTO registerUser(UserRegistrationDTO registrationDTO) {
         // Verificar si el email ya existe
@@ -42,6 +60,7 @@ public class UserService {
         user.setEnabled(true); // Usuario activado por defecto
         
         User savedUser = userRepository.save(user);
+        userSearchService.updateAfterCommit(savedUser);
         
         // Enviar email de bienvenida
         emailService.sendWelcomeEmail(savedUser.getEmail(), savedUser.getName());
@@ -58,6 +77,12 @@ public class UserService {
         user.setDni(userUpdateDTO.getDni());
         
         User updatedUser = userRepository.save(user);
+        userSearchService.updateAfterCommit(updatedUser);
+        // El feed de noticias y el calendario muestran el nombre del autor
+        newsFeedCache.invalidate();
+        calendarSnapshotService.refreshAfterCommit();
+        authorNameResolver.invalidate(userId);
+        aggregateVersions.bumpAfterCommit(Aggregate.USERS);
         return convertToDTO(updatedUser);
     }
     
@@ -67,8 +92,11 @@ public class UserService {
         
         User.Role oldRole = user.getRole();
         user.setRole(newRole);
+        // Los access tokens ya emitidos llevan el rol anterior en sus claims
+        user.setTokensValidAfter(LocalDateTime.now());
         
         User updatedUser = userRepository.save(user);
+        userDetailsCache.invalidate(user.getEmail());
         
         // Enviar email de notificación de cambio de rol
         emailService.sendRoleChangeEmail(user.getEmail(), user.getName(), oldRole, newRole);
@@ -76,36 +104,60 @@ public class UserService {
         return convertToDTO(updatedUser);
     }
     
+    @Transactional(readOnly = true)
     public Optional<UserDTO> getUserById(Long userId) {
         return userRepository.findById(userId)
                 .map(this::convertToDTO);
     }
     
+    @Transactional(readOnly = true)
     public Optional<UserDTO> getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .map(this::convertToDTO);
     }
     
+    // Sin readOnly: devuelve la entidad, que quien llama puede modificar (ver OrderService.getOrderEntityById)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
     
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-    
+    @Transactional(readOnly = true)
     public List<UserDTO> getUsersByRole(User.Role role) {
         return userRepository.findByRole(role).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
-    public List<UserDTO> searchUsersByName(String name) {
-        return userRepository.findByNameContaining(name).stream()
+    @Transactional(readOnly = true)
+    public long countUsersByRole(User.Role role) {
+        return userRepository.countByRole(role);
+    }
+    
+    // Paginado por keyset (ver KeysetCursor), por apellido e ID
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> getAllUsers(String cursor, Integer size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        List<User> rows = after == null
+                ? userRepository.findFirstPage(KeysetCursor.limit(pageSize))
+                : userRepository.findPageAfter(after.getKey(), after.getId(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.page(rows, pageSize, user -> KeysetCursor.of(user.getLastName(), user.getId()),
+                this::convertToDTO);
+    }
+    
+    // Busca por prefijo en nombre, apellido, email o DNI usando el índice en memoria
+    @Transactional(readOnly = true)
+    public Page<UserDTO> searchUsers(String query, int page, int size) {
+        Page<Long> ids = userSearchService.search(query, page, size);
+        Map<Long, User> byId = userRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // Se respeta el orden del índice
+        List<UserDTO> users = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return new PageImpl<>(users, ids.getPageable(), ids.getTotalElements());
     }
     
     public void deleteUser(Long userId) {
@@ -120,9 +172,15 @@ public class UserService {
             }
         }
         
+        refreshTokenRepository.deleteByUser(user);
         userRepository.delete(user);
+        userDetailsCache.invalidate(user.getEmail());
+        authorNameResolver.invalidate(userId);
+        userSearchService.removeAfterCommit(userId);
+        aggregateVersions.bumpAfterCommit(Aggregate.USERS);
     }
     
+    @Transactional(readOnly = true)
     public UserDTO getUserFromUserDetails(UserDetails userDetails) {
         if (userDetails == null) {
             return null;
@@ -162,6 +220,7 @@ public class UserService {
         user.setEnabled(true); // Usuario activado por defecto
         
         User savedUser = userRepository.save(user);
+        userSearchService.updateAfterCommit(savedUser);
         
         // Enviar email de bienvenida
         emailService.sendWelcomeEmail(savedUser.getEmail(), savedUser.getName());
@@ -179,8 +238,15 @@ public class UserService {
         user.setLastName(updateDTO.getLastName());
         user.setRole(updateDTO.getRole());
         user.setDni(updateDTO.getDni());
+        user.setTokensValidAfter(LocalDateTime.now());
         
         User updatedUser = userRepository.save(user);
+        userSearchService.updateAfterCommit(updatedUser);
+        userDetailsCache.invalidate(user.getEmail());
+        newsFeedCache.invalidate();
+        calendarSnapshotService.refreshAfterCommit();
+        authorNameResolver.invalidate(userId);
+        aggregateVersions.bumpAfterCommit(Aggregate.USERS);
         
         // Si cambió el rol, enviar email de notificación
         if (oldRole != updateDTO.getRole()) {
@@ -0,0 +1,164 @@
+-- Esquema base: el mismo que database/db-backup.sql (sin datos).
+-- En una base que ya tiene las tablas, Flyway toma esta versión como línea base
+-- (spring.flyway.baseline-on-migrate) y no la ejecuta.
+
+CREATE TABLE users (
+  id bigint NOT NULL AUTO_INCREMENT,
+  name varchar(100) NOT NULL,
+  last_name varchar(100) NOT NULL,
+  email varchar(150) NOT NULL,
+  password varchar(255) NOT NULL,
+  role enum('admin','user') DEFAULT 'user',
+  dni bigint DEFAULT NULL,
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  enabled bit(1) NOT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY email (email),
+  UNIQUE KEY dni (dni),
+  KEY idx_users_email (email)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE event_types (
+  id bigint NOT NULL AUTO_INCREMENT,
+  type varchar(50) NOT NULL,
+  PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE news_types (
+  id bigint NOT NULL AUTO_INCREMENT,
+  type varchar(50) NOT NULL,
+  PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE locations (
+  id bigint NOT NULL AUTO_INCREMENT,
+  name varchar(100) NOT NULL,
+  capacity bigint NOT NULL,
+  price decimal(10,2) NOT NULL,
+  PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE destinations (
+  id bigint NOT NULL AUTO_INCREMENT,
+  name varchar(100) NOT NULL,
+  address text,
+  phone_number varchar(20) DEFAULT NULL,
+  state tinyint(1) DEFAULT '1',
+  PRIMARY KEY (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE calendar (
+  id bigint NOT NULL AUTO_INCREMENT,
+  title varchar(200) NOT NULL,
+  detail text,
+  author_id bigint NOT NULL,
+  date date NOT NULL,
+  event_type_id bigint NOT NULL,
+  state tinyint(1) DEFAULT '1',
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  KEY author_id (author_id),
+  KEY event_type_id (event_type_id),
+  KEY idx_calendar_date (date),
+  CONSTRAINT calendar_ibfk_1 FOREIGN KEY (author_id) REFERENCES users (id),
+  CONSTRAINT calendar_ibfk_2 FOREIGN KEY (event_type_id) REFERENCES event_types (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE news (
+  id bigint NOT NULL AUTO_INCREMENT,
+  type_id bigint NOT NULL,
+  title varchar(200) NOT NULL,
+  content text NOT NULL,
+  author_id bigint NOT NULL,
+  date date NOT NULL,
+  state tinyint(1) DEFAULT '1',
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  KEY type_id (type_id),
+  KEY author_id (author_id),
+  KEY idx_news_date (date),
+  CONSTRAINT news_ibfk_1 FOREIGN KEY (type_id) REFERENCES news_types (id),
+  CONSTRAINT news_ibfk_2 FOREIGN KEY (author_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE map_locations (
+  id bigint NOT NULL AUTO_INCREMENT,
+  name varchar(200) NOT NULL COMMENT 'Nombre del lugar',
+  address varchar(500) NOT NULL COMMENT 'Dirección del lugar',
+  description text COMMENT 'Descripción del lugar',
+  google_maps_url text NOT NULL COMMENT 'Enlace de Google Maps',
+  author_id bigint NOT NULL COMMENT 'ID del usuario que creó la ubicación',
+  state tinyint(1) NOT NULL DEFAULT '1' COMMENT 'Estado de la ubicación (activa/inactiva)',
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de creación',
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Fecha de última actualización',
+  PRIMARY KEY (id),
+  KEY idx_map_locations_state (state),
+  KEY idx_map_locations_author (author_id),
+  KEY idx_map_locations_created_at (created_at),
+  CONSTRAINT map_locations_ibfk_1 FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE tickets (
+  id bigint NOT NULL AUTO_INCREMENT,
+  code varchar(50) NOT NULL,
+  location_id bigint NOT NULL,
+  price decimal(10,2) NOT NULL,
+  date_time datetime NOT NULL,
+  available tinyint(1) DEFAULT '1',
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  UNIQUE KEY code (code),
+  KEY location_id (location_id),
+  CONSTRAINT tickets_ibfk_1 FOREIGN KEY (location_id) REFERENCES locations (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE orders (
+  id bigint NOT NULL AUTO_INCREMENT,
+  user_id bigint NOT NULL,
+  total_amount decimal(10,2) NOT NULL,
+  purchase_date datetime DEFAULT CURRENT_TIMESTAMP,
+  payment_method varchar(50) DEFAULT 'Mercado Pago',
+  payment_id varchar(100) DEFAULT NULL,
+  purchase_state enum('pending','approved','rejected','cancelled') DEFAULT 'pending',
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  KEY idx_orders_user (user_id),
+  KEY idx_orders_state (purchase_state),
+  CONSTRAINT orders_ibfk_1 FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE order_items (
+  id bigint NOT NULL AUTO_INCREMENT,
+  order_id bigint NOT NULL,
+  ticket_id bigint NOT NULL,
+  quantity int NOT NULL DEFAULT '1',
+  unit_price decimal(10,2) NOT NULL,
+  subtotal decimal(10,2) NOT NULL,
+  PRIMARY KEY (id),
+  KEY order_id (order_id),
+  KEY ticket_id (ticket_id),
+  CONSTRAINT order_items_ibfk_1 FOREIGN KEY (order_id) REFERENCES orders (id) ON DELETE CASCADE,
+  CONSTRAINT order_items_ibfk_2 FOREIGN KEY (ticket_id) REFERENCES tickets (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE donations (
+  id bigint NOT NULL AUTO_INCREMENT,
+  user_id bigint NOT NULL,
+  destination_id bigint NOT NULL,
+  amount decimal(10,2) NOT NULL,
+  donation_date datetime DEFAULT CURRENT_TIMESTAMP,
+  payment_method varchar(50) DEFAULT 'Mercado Pago',
+  payment_id varchar(100) DEFAULT NULL,
+  purchase_state enum('pending','approved','rejected','cancelled') DEFAULT 'pending',
+  created_at timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (id),
+  KEY destination_id (destination_id),
+  KEY idx_donations_user (user_id),
+  CONSTRAINT donations_ibfk_1 FOREIGN KEY (user_id) REFERENCES users (id),
+  CONSTRAINT donations_ibfk_2 FOREIGN KEY (destination_id) REFERENCES destinations (id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
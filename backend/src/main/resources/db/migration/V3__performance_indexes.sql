@@ -0,0 +1,78 @@
+-- Índices de los filtros y listados más usados. Los índices de keyset y FULLTEXT ya existían como
+-- scripts sueltos (migration_add_keyset_indexes.sql, migration_add_news_fulltext_index.sql): cada
+-- índice se crea solo si falta, así la migración sirve para bases donde se corrieron a mano.
+
+DELIMITER $$
+
+CREATE PROCEDURE create_index_if_missing(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_ddl TEXT)
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = p_ddl;
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+CREATE PROCEDURE drop_index_if_exists(IN p_table VARCHAR(64), IN p_index VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('DROP INDEX ', p_index, ' ON ', p_table);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+-- Entradas: disponibles por ubicación (listado, conteos de disponibles y vendidas) y por fecha del partido
+CALL create_index_if_missing('tickets', 'idx_tickets_available_location',
+    'CREATE INDEX idx_tickets_available_location ON tickets (available, location_id)');
+CALL create_index_if_missing('tickets', 'idx_tickets_date_time',
+    'CREATE INDEX idx_tickets_date_time ON tickets (date_time)');
+
+-- Órdenes: por estado y período (estadísticas de ventas) y por usuario
+CALL create_index_if_missing('orders', 'idx_orders_state_purchase_date',
+    'CREATE INDEX idx_orders_state_purchase_date ON orders (purchase_state, purchase_date)');
+CALL create_index_if_missing('orders', 'idx_orders_user',
+    'CREATE INDEX idx_orders_user ON orders (user_id)');
+
+-- Donaciones: por estado y período (estadísticas) y por usuario
+CALL create_index_if_missing('donations', 'idx_donations_state_date',
+    'CREATE INDEX idx_donations_state_date ON donations (purchase_state, donation_date)');
+CALL create_index_if_missing('donations', 'idx_donations_user',
+    'CREATE INDEX idx_donations_user ON donations (user_id)');
+
+-- Usuarios ordenados por apellido y nombre
+CALL create_index_if_missing('users', 'idx_users_last_name_name',
+    'CREATE INDEX idx_users_last_name_name ON users (last_name, name)');
+
+-- Paginación por keyset de los listados de administración: cada índice cubre el orden (clave, id)
+CALL create_index_if_missing('orders', 'idx_orders_purchase_date_id',
+    'CREATE INDEX idx_orders_purchase_date_id ON orders (purchase_date, id)');
+CALL create_index_if_missing('donations', 'idx_donations_donation_date_id',
+    'CREATE INDEX idx_donations_donation_date_id ON donations (donation_date, id)');
+CALL create_index_if_missing('news', 'idx_news_date_id',
+    'CREATE INDEX idx_news_date_id ON news (date, id)');
+CALL create_index_if_missing('calendar', 'idx_calendar_date_id',
+    'CREATE INDEX idx_calendar_date_id ON calendar (date, id)');
+CALL create_index_if_missing('users', 'idx_users_last_name_id',
+    'CREATE INDEX idx_users_last_name_id ON users (last_name, id)');
+
+-- Búsqueda de noticias (NewsSearchService): título y contenido para buscar, título solo para el ranking
+CALL create_index_if_missing('news', 'ft_news_title_content',
+    'ALTER TABLE news ADD FULLTEXT INDEX ft_news_title_content (title, content)');
+CALL create_index_if_missing('news', 'ft_news_title',
+    'ALTER TABLE news ADD FULLTEXT INDEX ft_news_title (title)');
+
+-- Índices que quedan cubiertos por un compuesto con la misma primera columna (o por la clave única)
+CALL drop_index_if_exists('orders', 'idx_orders_state');
+CALL drop_index_if_exists('news', 'idx_news_date');
+CALL drop_index_if_exists('calendar', 'idx_calendar_date');
+CALL drop_index_if_exists('users', 'idx_users_email');
+
+DROP PROCEDURE create_index_if_missing;
+DROP PROCEDURE drop_index_if_exists;
@@ -0,0 +1,3 @@
+-- Estadísticas de donaciones (DonationRepository.sumByDestination): agrupa las aprobadas por destino
+-- y suma los montos leyendo solo el índice, sin tocar las filas de la tabla
+CREATE INDEX idx_donations_state_destination ON donations (purchase_state, destination_id, donation_date, amount);
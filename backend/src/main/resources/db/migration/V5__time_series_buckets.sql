@@ -0,0 +1,26 @@
+-- Series de tiempo de ventas y donaciones (TimeSeriesService). Cada fila es un intervalo de un
+-- minuto, una hora o un día con la cantidad y el monto aprobados en él. Se suman al aprobar cada
+-- orden o donación y se pueden reconstruir desde el historial (TimeSeriesService.rebuild).
+
+-- Entradas vendidas por partido (fecha y hora del ticket) y ubicación
+CREATE TABLE ticket_sales_buckets (
+  granularity varchar(10) NOT NULL,
+  match_date_time datetime NOT NULL,
+  location_id bigint NOT NULL,
+  bucket_start datetime NOT NULL,
+  tickets bigint NOT NULL,
+  amount decimal(14,2) NOT NULL,
+  PRIMARY KEY (granularity, match_date_time, location_id, bucket_start),
+  KEY idx_ticket_sales_buckets_start (granularity, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Donaciones por destino
+CREATE TABLE donation_buckets (
+  granularity varchar(10) NOT NULL,
+  destination_id bigint NOT NULL,
+  bucket_start datetime NOT NULL,
+  donations bigint NOT NULL,
+  amount decimal(14,2) NOT NULL,
+  PRIMARY KEY (granularity, destination_id, bucket_start),
+  KEY idx_donation_buckets_start (granularity, bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,6 @@
+-- Instante de la última invalidación de los access tokens de un usuario (cambio de rol o de
+-- datos por un administrador). Los tokens con iat anterior no se confían por sus claims; se
+-- guarda en la base para que un reinicio no vuelva a aceptarlos.
+ALTER TABLE users ADD COLUMN tokens_valid_after DATETIME(3) NULL;
+
+CREATE INDEX idx_users_tokens_valid_after ON users (tokens_valid_after);
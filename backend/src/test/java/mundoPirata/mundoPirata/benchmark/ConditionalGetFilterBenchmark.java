@@ -0,0 +1,108 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.config.AggregateVersions.Aggregate;
+import mundoPirata.mundoPirata.config.ConditionalGetFilter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Costo de un GET al feed público de noticias (200 noticias) a través de ConditionalGetFilter:
+ * respuesta completa, con el JSON serializado por la cadena, frente a un 304 por ETag.
+ * El test además compara los bytes de cuerpo de cada caso.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConditionalGetFilterBenchmark {
+
+    private static final String PATH = "/api/news/public";
+    private static final int NEWS = 200;
+
+    private ConditionalGetFilter filter;
+    private FilterChain chain;
+    private String etag;
+
+    @Setup
+    public void setUp() throws Exception {
+        filter = new ConditionalGetFilter(new AggregateVersions(), 0, new SimpleMeterRegistry())
+                .route(PATH, Aggregate.NEWS, Aggregate.USERS);
+        List<Map<String, Object>> news = new ArrayList<>();
+        for (int i = 0; i < NEWS; i++) {
+            Map<String, Object> dto = new LinkedHashMap<>();
+            dto.put("id", (long) i);
+            dto.put("title", "Belgrano confirmó la pretemporada número " + i);
+            dto.put("content", "El plantel del Pirata viaja a las sierras para la pretemporada. ".repeat(8));
+            dto.put("date", "2025-03-01");
+            dto.put("typeDescription", "Institucional");
+            dto.put("authorName", "Prensa Belgrano");
+            news.add(dto);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        // Simula el controlador: lee el feed (ya en caché) y lo serializa
+        chain = (request, response) -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), news);
+        };
+        etag = fullResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse fullResponse() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", PATH), response, chain);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse notModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        setUp();
+        int fullBytes = fullResponse().getContentAsByteArray().length;
+        MockHttpServletResponse notModified = notModified();
+        assertThat(notModified.getStatus()).isEqualTo(304);
+        System.out.printf("Bytes de cuerpo por request: completo=%d, 304=%d%n",
+                fullBytes, notModified.getContentAsByteArray().length);
+
+        Collection<RunResult> results = JmhRunner.run(ConditionalGetFilterBenchmark.class);
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            scores.put(benchmark.substring(benchmark.lastIndexOf('.') + 1), result.getPrimaryResult().getScore());
+        }
+        assertThat(scores.get("notModified")).isLessThan(scores.get("fullResponse"));
+    }
+}
@@ -0,0 +1,224 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import mundoPirata.mundoPirata.dto.DonationDTO;
+import mundoPirata.mundoPirata.dto.NewsDTO;
+import mundoPirata.mundoPirata.entity.Destination;
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.News;
+import mundoPirata.mundoPirata.entity.NewsType;
+import mundoPirata.mundoPirata.entity.User;
+import mundoPirata.mundoPirata.repository.DonationRepository;
+import mundoPirata.mundoPirata.repository.NewsRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lectura de 500 noticias activas y 500 donaciones (Hibernate sobre H2 en memoria): entidades
+ * administradas más convertToDTO, como hacían los servicios, frente a las proyecciones a DTO de
+ * NewsRepository y DonationRepository. El test compara los bytes asignados por operación
+ * (gc.alloc.rate.norm de GCProfiler).
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoProjectionBenchmark {
+
+    private static final int AUTHORS = 50;
+    private static final int NEWS = 500;
+    private static final int DONATIONS = 500;
+
+    private SessionFactory sessionFactory;
+    // Hace las veces de ReferenceDataRegistry: los tipos y destinos no se consultan
+    private final Map<Long, String> newsTypes = new HashMap<>();
+    private final Map<Long, Destination> destinations = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:dto-projection-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .applySetting(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, NewsType.class, News.class, Destination.class, Donation.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            NewsType[] types = new NewsType[3];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = new NewsType();
+                types[i].setType("Tipo " + i);
+                session.persist(types[i]);
+                newsTypes.put(types[i].getId(), types[i].getType());
+            }
+            Destination[] destinationRows = new Destination[4];
+            for (int i = 0; i < destinationRows.length; i++) {
+                destinationRows[i] = new Destination();
+                destinationRows[i].setName("Destino " + i);
+                destinationRows[i].setAddress("Arturo Orgaz " + (510 + i));
+                destinationRows[i].setPhoneNumber("351400000" + i);
+                session.persist(destinationRows[i]);
+                destinations.put(destinationRows[i].getId(), destinationRows[i]);
+            }
+            User[] authors = new User[AUTHORS];
+            for (int i = 0; i < AUTHORS; i++) {
+                authors[i] = new User();
+                authors[i].setName("Socio" + i);
+                authors[i].setLastName("Pirata" + i);
+                authors[i].setEmail("socio" + i + "@belgrano.com");
+                authors[i].setPassword("x");
+                authors[i].setDni(30_000_000L + i);
+                session.persist(authors[i]);
+            }
+            for (int i = 0; i < NEWS; i++) {
+                News news = new News();
+                news.setType(types[i % types.length]);
+                news.setTitle("Belgrano confirmó la pretemporada número " + i);
+                news.setContent("El plantel del Pirata viaja a las sierras para la pretemporada. ".repeat(8));
+                news.setAuthor(authors[i % AUTHORS]);
+                news.setDate(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+                session.persist(news);
+            }
+            for (int i = 0; i < DONATIONS; i++) {
+                Donation donation = new Donation();
+                donation.setUser(authors[i % AUTHORS]);
+                donation.setDestination(destinationRows[i % destinationRows.length]);
+                donation.setAmount(BigDecimal.valueOf(1_000L + i));
+                donation.setDonationDate(LocalDateTime.of(2025, 1, 1, 10, 0).plusHours(i));
+                donation.setPurchaseState(Donation.PurchaseState.approved);
+                session.persist(donation);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<NewsDTO> newsEntities() {
+        return sessionFactory.fromTransaction(session -> session
+                .createQuery("FROM News n WHERE n.state = true ORDER BY n.date DESC", News.class)
+                .getResultList().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<NewsDTO> newsProjection() {
+        return sessionFactory.fromTransaction(session -> session
+                .createQuery(NewsRepository.DTO_SELECT + "WHERE n.state = true ORDER BY n.date DESC, n.id DESC", NewsDTO.class)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<DonationDTO> donationEntities() {
+        return sessionFactory.fromTransaction(session -> session
+                .createQuery("FROM Donation d ORDER BY d.donationDate DESC, d.id DESC", Donation.class)
+                .getResultList().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<DonationDTO> donationProjection() {
+        return sessionFactory.fromTransaction(session -> session
+                .createQuery(DonationRepository.DTO_SELECT + "ORDER BY d.donationDate DESC, d.id DESC", DonationDTO.class)
+                .getResultList());
+    }
+
+    // Copia de NewsService.convertToDTO antes de las proyecciones: el autor se carga de forma LAZY
+    private NewsDTO convertToDTO(News news) {
+        NewsDTO dto = new NewsDTO();
+        dto.setId(news.getId());
+        dto.setTypeId(news.getType().getId());
+        dto.setTypeDescription(newsTypes.get(news.getType().getId()));
+        dto.setTitle(news.getTitle());
+        dto.setContent(news.getContent());
+        dto.setAuthorId(news.getAuthor().getId());
+        dto.setAuthorName(news.getAuthor().getName() + " " + news.getAuthor().getLastName());
+        dto.setDate(news.getDate());
+        dto.setState(news.getState());
+        dto.setCreatedAt(news.getCreatedAt());
+        dto.setUpdatedAt(news.getUpdatedAt());
+        return dto;
+    }
+
+    // Copia de DonationService.convertToDTO antes de las proyecciones
+    private DonationDTO convertToDTO(Donation donation) {
+        DonationDTO dto = new DonationDTO();
+        dto.setId(donation.getId());
+        dto.setUserId(donation.getUser().getId());
+        dto.setUserName(donation.getUser().getName() + " " + donation.getUser().getLastName());
+        Destination destination = destinations.get(donation.getDestination().getId());
+        dto.setDestinationId(destination.getId());
+        dto.setDestinationName(destination.getName());
+        dto.setDestinationAddress(destination.getAddress());
+        dto.setAmount(donation.getAmount());
+        dto.setDonationDate(donation.getDonationDate());
+        dto.setPaymentMethod(donation.getPaymentMethod());
+        dto.setPaymentId(donation.getPaymentId());
+        dto.setPurchaseState(donation.getPurchaseState());
+        dto.setCreatedAt(donation.getCreatedAt());
+        dto.setUpdatedAt(donation.getUpdatedAt());
+        return dto;
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        setUp();
+        try {
+            assertThat(newsProjection()).hasSize(NEWS);
+            assertThat(newsEntities()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrderElementsOf(newsProjection());
+            assertThat(donationEntities()).usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(donationProjection());
+        } finally {
+            tearDown();
+        }
+
+        Collection<RunResult> results = JmhRunner.run(DtoProjectionBenchmark.class, GCProfiler.class);
+        Map<String, Double> bytesPerOp = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            bytesPerOp.put(benchmark.substring(benchmark.lastIndexOf('.') + 1),
+                    result.getSecondaryResults().get("gc.alloc.rate.norm").getScore());
+        }
+        System.out.printf("Bytes asignados por lectura: %s%n", bytesPerOp);
+        assertThat(bytesPerOp.get("newsProjection")).isLessThan(bytesPerOp.get("newsEntities"));
+        assertThat(bytesPerOp.get("donationProjection")).isLessThan(bytesPerOp.get("donationEntities"));
+    }
+}
@@ -0,0 +1,150 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import mundoPirata.mundoPirata.entity.Location;
+import mundoPirata.mundoPirata.entity.Ticket;
+import mundoPirata.mundoPirata.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de throughput de EmailService contra un servidor SMTP en memoria (GreenMail).
+ * Para cada tipo de email y nivel de concurrencia reporta mensajes/seg, latencia p50/p99
+ * y bytes asignados por mensaje. Ejecutar con: mvn -Pbenchmark test
+ */
+@Tag("benchmark")
+class EmailServiceThroughputBenchmark {
+
+    private static final int[] CONCURRENCY_LEVELS = {1, 2, 4, 8, 16};
+    private static final int WARMUP_MESSAGES = 50;
+    private static final int MESSAGES_PER_RUN = 400;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication())
+            .withPerMethodLifecycle(false);
+
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        emailService = new EmailService(mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@mundopirata.com");
+    }
+
+    @Test
+    void welcomeEmail() throws Exception {
+        run("welcome", i -> emailService.sendWelcomeEmail("socio" + i + "@test.com", "Socio " + i));
+    }
+
+    @Test
+    void donationConfirmationEmail() throws Exception {
+        run("donation", i -> emailService.sendDonationConfirmationEmail(
+                "socio" + i + "@test.com", "Socio " + i, "Fútbol Infantil", new BigDecimal("15000"), "MP_" + i));
+    }
+
+    @Test
+    void detailedTicketPurchaseConfirmation() throws Exception {
+        for (int ticketCount : new int[]{1, 5, 10}) {
+            List<Ticket> tickets = buildTickets(ticketCount);
+            run("tickets x" + ticketCount, i -> emailService.sendDetailedTicketPurchaseConfirmation(
+                    "socio" + i + "@test.com", "Socio " + i, tickets));
+        }
+    }
+
+    private void run(String scenario, IntConsumer sendOne) throws Exception {
+        // Calentamiento: plantillas, MIME y conexiones SMTP
+        for (int i = 0; i < WARMUP_MESSAGES; i++) {
+            sendOne.accept(i);
+        }
+        greenMail.purgeEmailFromAllMailboxes();
+
+        System.out.printf("%n%-14s %6s %10s %10s %10s %14s%n",
+                scenario, "conc", "msg/s", "p50 ms", "p99 ms", "bytes/msg");
+
+        for (int concurrency : CONCURRENCY_LEVELS) {
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                long[] latencies = new long[MESSAGES_PER_RUN];
+                long[] allocated = new long[MESSAGES_PER_RUN];
+                List<Future<?>> futures = new ArrayList<>(MESSAGES_PER_RUN);
+
+                long start = System.nanoTime();
+                for (int i = 0; i < MESSAGES_PER_RUN; i++) {
+                    final int index = i;
+                    futures.add(executor.submit(() -> {
+                        long bytesBefore = currentThreadAllocatedBytes();
+                        long t0 = System.nanoTime();
+                        sendOne.accept(index);
+                        latencies[index] = System.nanoTime() - t0;
+                        allocated[index] = currentThreadAllocatedBytes() - bytesBefore;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                long elapsed = System.nanoTime() - start;
+
+                // EmailService captura los errores de envío, así que verificamos la recepción real
+                assertThat(greenMail.waitForIncomingEmail(10_000, MESSAGES_PER_RUN)).isTrue();
+                greenMail.purgeEmailFromAllMailboxes();
+
+                Arrays.sort(latencies);
+                System.out.printf("%-14s %6d %10.1f %10.2f %10.2f %14d%n",
+                        "", concurrency,
+                        MESSAGES_PER_RUN / (elapsed / 1_000_000_000.0),
+                        percentile(latencies, 0.50) / 1_000_000.0,
+                        percentile(latencies, 0.99) / 1_000_000.0,
+                        Arrays.stream(allocated).sum() / MESSAGES_PER_RUN);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    private static List<Ticket> buildTickets(int count) {
+        Location popular = new Location(1L, "Popular Pirata", 20000L, new BigDecimal("8000"));
+        Location platea = new Location(2L, "Platea Artime", 5000L, new BigDecimal("15000"));
+        LocalDateTime matchDate = LocalDateTime.of(2025, 8, 2, 17, 30);
+
+        List<Ticket> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Location location = i % 2 == 0 ? popular : platea;
+            tickets.add(new Ticket((long) i, "TKT-BENCH" + i, location, location.getPrice(), matchDate, false, matchDate));
+        }
+        return tickets;
+    }
+}
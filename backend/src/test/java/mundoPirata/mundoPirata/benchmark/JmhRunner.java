@@ -0,0 +1,42 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import org.openjdk.jmh.profile.Profiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+/**
+ * Lanza los benchmarks JMH desde JUnit para poder ejecutarlos con mvn -Pbenchmark test.
+ */
+final class JmhRunner {
+
+    private JmhRunner() {
+    }
+
+    static Collection<RunResult> run(Class<?> benchmarkClass) throws RunnerException {
+        return new Runner(options(benchmarkClass).build()).run();
+    }
+
+    /**
+     * Igual que run, con un profiler de JMH (por ejemplo GCProfiler para gc.alloc.rate.norm).
+     */
+    static Collection<RunResult> run(Class<?> benchmarkClass, Class<? extends Profiler> profiler) throws RunnerException {
+        return new Runner(options(benchmarkClass).addProfiler(profiler).build()).run();
+    }
+
+    private static ChainedOptionsBuilder options(Class<?> benchmarkClass) {
+        return new OptionsBuilder()
+                .include(benchmarkClass.getName() + "\\.")
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .shouldFailOnError(true);
+    }
+}
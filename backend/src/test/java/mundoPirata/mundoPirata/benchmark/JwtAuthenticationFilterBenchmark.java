@@ -0,0 +1,95 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import mundoPirata.mundoPirata.config.JwtAuthenticationFilter;
+import mundoPirata.mundoPirata.config.UserDetailsCache;
+import mundoPirata.mundoPirata.repository.RevokedTokenRepository;
+import mundoPirata.mundoPirata.repository.UserRepository;
+import mundoPirata.mundoPirata.service.JwtService;
+import mundoPirata.mundoPirata.service.TokenRevocationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del JwtAuthenticationFilter por request con un token válido, comparado con la
+ * validación anterior que parseaba y verificaba la firma tres veces reconstruyendo clave y parser.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String LEGACY_SECRET_KEY = "piratafestlaplatabelgrano2024jwtsecretkeyparaelproyecto";
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        userDetails = User.withUsername("socio@mundopirata.com")
+                .password("n/a")
+                .roles("USER")
+                .build();
+        jwtService = new JwtService();
+        TokenRevocationService revocations =
+                new TokenRevocationService(Mockito.mock(RevokedTokenRepository.class), 900_000, 10_000);
+        filter = new JwtAuthenticationFilter(jwtService, username -> userDetails, new UserDetailsCache(Mockito.mock(UserRepository.class), 10_000, 900_000), revocations);
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public Object filterPath() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims(token).getSubject();
+        boolean valid = legacyClaims(token).getSubject().equals(userDetails.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+        return username != null && valid;
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY_SECRET_KEY)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        JmhRunner.run(JwtAuthenticationFilterBenchmark.class);
+    }
+}
@@ -0,0 +1,138 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import mundoPirata.mundoPirata.service.MapLocationSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.RunResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Búsqueda de ubicaciones con 100.000 filas: la consulta LIKE anterior de
+ * MapLocationRepository (sobre H2 en memoria) frente a MapLocationSearchIndex.
+ * Las consultas combinan una palabra exacta, un substring y una con error de tipeo.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapLocationSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    // La búsqueda anterior al índice: LIKE sobre nombre, dirección y descripción de las activas
+    private static final String LIKE_QUERY = "SELECT id FROM map_locations WHERE state = TRUE AND "
+            + "(LOWER(name) LIKE LOWER(CONCAT('%', ?, '%')) OR "
+            + "LOWER(address) LIKE LOWER(CONCAT('%', ?, '%')) OR "
+            + "LOWER(description) LIKE LOWER(CONCAT('%', ?, '%')))";
+
+    private static final String[] NAMES = {"Bar", "Peña", "Filial", "Parrilla", "Café", "Club", "Pizzería", "Cervecería"};
+    private static final String[] STREETS = {"Av. Colón", "Arturo Orgaz", "Laprida", "Bv. San Juan", "Duarte Quirós",
+            "Av. Vélez Sarsfield", "Obispo Trejo", "Caseros", "Av. Julio A. Roca", "Deán Funes"};
+    private static final String[] BARRIOS = {"Alberdi", "Alta Córdoba", "General Paz", "Nueva Córdoba", "Güemes",
+            "Cofico", "San Vicente", "Jardín", "Villa Belgrano", "Observatorio"};
+
+    @Param({"100000"})
+    public int locations;
+
+    @Param({"alberdi", "orgaz", "cervec", "gueme"})
+    public String query;
+
+    private Connection connection;
+    private PreparedStatement likeStatement;
+    private MapLocationSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:map-search-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE map_locations (id BIGINT PRIMARY KEY, name VARCHAR(200) NOT NULL, "
+                    + "address VARCHAR(500) NOT NULL, description CLOB, state BOOLEAN NOT NULL)");
+        }
+        index = new MapLocationSearchIndex();
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO map_locations VALUES (?, ?, ?, ?, TRUE)")) {
+            for (long id = 1; id <= locations; id++) {
+                String name = NAMES[random.nextInt(NAMES.length)] + " " + BARRIOS[random.nextInt(BARRIOS.length)] + " " + id;
+                String address = STREETS[random.nextInt(STREETS.length)] + " " + (100 + random.nextInt(4900));
+                String description = "Punto de encuentro de hinchas en barrio " + BARRIOS[random.nextInt(BARRIOS.length)];
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, address);
+                insert.setString(4, description);
+                insert.addBatch();
+                index.index(id, name, address, description);
+                if (id % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        likeStatement = connection.prepareStatement(LIKE_QUERY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        likeStatement.setString(1, query);
+        likeStatement.setString(2, query);
+        likeStatement.setString(3, query);
+        // La consulta anterior traía todas las coincidencias, sin límite
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = likeStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return index.search(query, LIMIT);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Collection<RunResult> results = JmhRunner.run(MapLocationSearchBenchmark.class);
+        Map<String, Double> scores = results.stream().collect(Collectors.toMap(
+                result -> result.getParams().getParam("query") + ":" + result.getParams().getBenchmark(),
+                result -> result.getPrimaryResult().getScore()));
+        for (String query : new String[]{"alberdi", "orgaz", "cervec"}) {
+            assertThat(scores.get(query + ":" + MapLocationSearchBenchmark.class.getName() + ".trigramIndex"))
+                    .as(query)
+                    .isLessThan(scores.get(query + ":" + MapLocationSearchBenchmark.class.getName() + ".likeQuery"));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import mundoPirata.mundoPirata.config.TokenBucketRateLimiter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.results.RunResult;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Costo por request de TokenBucketRateLimiter con 10.000 IPs distintas, con un hilo y con
+ * ocho hilos compitiendo. El objetivo es mantenerse por debajo de un microsegundo.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    private TokenBucketRateLimiter limiter;
+    private String[] ips;
+
+    @Setup
+    public void setUp() {
+        // Capacidad alta para medir el camino que permite el request
+        limiter = new TokenBucketRateLimiter(1_000_000, Duration.ofSeconds(1), Duration.ofMinutes(10));
+        ips = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            ips[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long singleThread() {
+        return limiter.tryAcquire(ips[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long eightThreads() {
+        return limiter.tryAcquire(ips[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Collection<RunResult> results = JmhRunner.run(RateLimiterBenchmark.class);
+        for (RunResult result : results) {
+            assertThat(result.getPrimaryResult().getScore())
+                    .as(result.getParams().getBenchmark())
+                    .isLessThan(1_000.0);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package mundoPirata.mundoPirata.benchmark;
+
+import mundoPirata.mundoPirata.service.UserSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primera página (20 resultados) de la búsqueda de usuarios con 50.000 socios, para
+ * consultas por apellido, nombre y apellido, DNI y una sola letra. El objetivo es
+ * mantenerse por debajo de un milisegundo.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserSearchBenchmark {
+
+    private static final int USERS = 50_000;
+
+    private static final String[] NAMES = {"Juan", "María", "José", "Lucía", "Pedro", "Ana", "Carlos", "Sofía",
+            "Martín", "Valentina", "Facundo", "Camila"};
+    private static final String[] LAST_NAMES = {"González", "Rodríguez", "Gómez", "Fernández", "López", "Díaz",
+            "Martínez", "Pérez", "García", "Sánchez", "Romero", "Sosa", "Torres", "Álvarez", "Ruiz", "Menzi"};
+
+    @Param({"gonzalez", "juan gom", "30000123", "p"})
+    public String query;
+
+    private UserSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new UserSearchIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= USERS; id++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String email = name.toLowerCase() + "." + lastName.toLowerCase() + id + "@mail.com";
+            index.index(id, name, lastName, email, 30_000_000L + id);
+        }
+        // Calcula el orden antes de medir
+        index.search("a", 0, 1);
+    }
+
+    @Benchmark
+    public UserSearchIndex.Result firstPage() {
+        return index.search(query, 0, 20);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Collection<RunResult> results = JmhRunner.run(UserSearchBenchmark.class);
+        for (RunResult result : results) {
+            assertThat(result.getPrimaryResult().getScore())
+                    .as(result.getParams().getParam("query"))
+                    .isLessThan(1_000.0);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package mundoPirata.mundoPirata.config;
+
+import mundoPirata.mundoPirata.dto.DestinationCreateDTO;
+import mundoPirata.mundoPirata.entity.Destination;
+import mundoPirata.mundoPirata.repository.DestinationRepository;
+import mundoPirata.mundoPirata.service.DestinationService;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET condicional a través de la cadena de filtros completa: 200 con ETag, 304 mientras no
+ * haya escrituras y 200 con el contenido nuevo después de una.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class ConditionalGetFilterTest {
+
+    private static final String PATH = "/api/destinations/public";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DestinationService destinationService;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Test
+    void answersNotModifiedUntilAWriteChangesTheAggregate() throws Exception {
+        String etag = currentEtag();
+
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        destinationService.createDestination(new DestinationCreateDTO("Comedor Alberdi", "Arturo Orgaz 510", null));
+
+        String newEtag = mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Comedor Alberdi")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void scheduledReloadOfChangesMadeOutsideTheApplicationChangesTheEtag() throws Exception {
+        String etag = currentEtag();
+
+        // Alta directa en la base, como un script manual: no pasa por DestinationService
+        Destination destination = new Destination();
+        destination.setName("Hogar Barrio Güemes");
+        destination.setAddress("Belgrano 850");
+        destination.setState(true);
+        destinationRepository.save(destination);
+        referenceDataRegistry.refresh();
+
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Hogar Barrio Güemes")));
+
+        // Sin cambios, la recarga no invalida los ETag
+        String reloadedEtag = currentEtag();
+        referenceDataRegistry.refresh();
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, reloadedEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String currentEtag() throws Exception {
+        String etag = mockMvc.perform(get(PATH))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+        return etag;
+    }
+}
@@ -0,0 +1,96 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ruteo entre dos bases H2 locales que hacen de primario y réplica: cada una responde su nombre.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        lagMonitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), meterRegistry);
+        lagMonitor.update(OptionalLong.of(0));
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        String node = readWrite.execute(status -> node());
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        String node = readOnly.execute(status -> node());
+        assertThat(node).isEqualTo("replica");
+        assertThat(meterRegistry.get("db.connections.routed").tag("target", "replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        lagMonitor.update(OptionalLong.of(30));
+        String lagging = readOnly.execute(status -> node());
+        assertThat(lagging).isEqualTo("primary");
+        assertThat(meterRegistry.get("db.replica.fallbacks").counter().count()).isEqualTo(1);
+
+        lagMonitor.update(OptionalLong.of(2));
+        String caughtUp = readOnly.execute(status -> node());
+        assertThat(caughtUp).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        // H2 no entiende SHOW REPLICA STATUS: el chequeo falla como si la réplica no respondiera
+        lagMonitor.check();
+        assertThat(lagMonitor.isUsable()).isFalse();
+        String node = readOnly.execute(status -> node());
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void primaryReadsIgnoreTheReplica() {
+        String node = PrimaryReads.execute(() -> readOnly.execute(status -> node()));
+        assertThat(node).isEqualTo("primary");
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,56 @@
+package mundoPirata.mundoPirata.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import mundoPirata.mundoPirata.entity.Destination;
+import mundoPirata.mundoPirata.repository.DestinationRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arranca el contexto completo con la caché de segundo nivel de application.properties
+ * (Ehcache vía JCache, regiones de ehcache.xml) y verifica que una entidad cacheada se sirva
+ * desde su región.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void cachedEntitiesAreServedFromTheirRegion() {
+        Destination destination = new Destination();
+        destination.setName("Sede Alberdi");
+        destination.setAddress("Arturo Orgaz 510");
+        Long id = destinationRepository.save(destination).getId();
+        entityManagerFactory.getCache().evictAll();
+
+        CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getDomainDataRegionStatistics("reference.destinations");
+        long hits = region.getHitCount();
+        // Cada lectura en su transacción: la segunda no encuentra la entidad en el contexto de persistencia
+        transactionTemplate.executeWithoutResult(status -> destinationRepository.findById(id).orElseThrow());
+        transactionTemplate.executeWithoutResult(status -> destinationRepository.findById(id).orElseThrow());
+
+        assertThat(entityManagerFactory.getCache().contains(Destination.class, id)).isTrue();
+        assertThat(region.getHitCount()).isGreaterThan(hits);
+    }
+}
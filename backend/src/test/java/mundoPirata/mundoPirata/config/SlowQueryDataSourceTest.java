@@ -0,0 +1,96 @@
+package mundoPirata.mundoPirata.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Métricas por forma de consulta y log de lentas sobre una base H2.
+ */
+class SlowQueryDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ListAppender<ILoggingEvent> logged = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SlowQueryDataSource.class);
+    private final DriverManagerDataSource database =
+            new DriverManagerDataSource("jdbc:h2:mem:slow-query-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(database).execute("CREATE TABLE node (id BIGINT, name VARCHAR(20))");
+        logged.start();
+        logger.addAppender(logged);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(logged);
+        MDC.clear();
+    }
+
+    @Test
+    void fastStatementsAreMeasuredButNotLogged() {
+        JdbcTemplate jdbc = new JdbcTemplate(new SlowQueryDataSource(database, Duration.ofMinutes(1), () -> meterRegistry));
+
+        jdbc.update("INSERT INTO node (id, name) VALUES (?, ?)", 1L, "uno");
+        jdbc.queryForList("SELECT name FROM node WHERE id = ?", String.class, 1L);
+
+        assertThat(meterRegistry.get("db.query").tag("query", "insert node").tag("operation", "insert").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query").tag("query", "select node").tag("operation", "select").timer().count()).isEqualTo(1);
+        assertThat(logged.list).isEmpty();
+    }
+
+    @Test
+    void slowStatementsAreLoggedWithBindTypesRepositoryMethodAndRequestId() {
+        JdbcTemplate jdbc = new JdbcTemplate(new SlowQueryDataSource(database, Duration.ZERO, () -> meterRegistry));
+        NodeRepository repository = repository(jdbc);
+        MDC.put(RequestIdFilter.MDC_KEY, "req-42");
+
+        repository.findNames(1L, "uno");
+
+        assertThat(meterRegistry.get("db.query").tag("query", "NodeRepository.findNames").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.query.slow").tag("query", "NodeRepository.findNames").counter().count()).isEqualTo(1);
+        assertThat(logged.list).singleElement().satisfies(event -> assertThat(event.getFormattedMessage())
+                .contains("repository=NodeRepository.findNames")
+                .contains("requestId=req-42")
+                .contains("params=[Long, String, String]")
+                .contains("sql=\"SELECT name FROM node WHERE id = ? OR name IN (?...)\"")
+                .doesNotContain("uno"));
+    }
+
+    @Test
+    void innerDataSourcesAreReachableThroughUnwrap() throws Exception {
+        TransactionAwareDataSourceProxy inner = new TransactionAwareDataSourceProxy(database);
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(inner, Duration.ofMinutes(1), () -> meterRegistry);
+
+        assertThat(dataSource.isWrapperFor(TransactionAwareDataSourceProxy.class)).isTrue();
+        assertThat(dataSource.unwrap(TransactionAwareDataSourceProxy.class)).isSameAs(inner);
+        assertThat(dataSource.unwrap(SlowQueryDataSource.class)).isSameAs(dataSource);
+    }
+
+    private static NodeRepository repository(JdbcTemplate jdbc) {
+        ProxyFactory proxyFactory = new ProxyFactory((NodeRepository) (id, name) -> jdbc.queryForList(
+                "SELECT name FROM node\n WHERE id = ? OR name IN (?, ?)", String.class, id, name, name));
+        proxyFactory.addAdvice(new RepositoryMethodTracker(NodeRepository.class));
+        return (NodeRepository) proxyFactory.getProxy();
+    }
+
+    interface NodeRepository {
+        List<String> findNames(Long id, String name);
+    }
+}
@@ -0,0 +1,46 @@
+package mundoPirata.mundoPirata.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void recordsNewTransactionsByNameReadOnlyAndOutcome() {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:transaction-metrics;DB_CLOSE_DELAY=-1"));
+        transactionManager.addListener(new TransactionMetrics(meterRegistry));
+
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setName("NewsService.getAllNews");
+        read.setReadOnly(true);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.setName("NewsService.createNews");
+
+        read.executeWithoutResult(status -> {
+            // Se suma a la transacción de afuera: no se mide aparte
+            read.executeWithoutResult(inner -> { });
+        });
+        write.executeWithoutResult(status -> status.setRollbackOnly());
+
+        assertThat(timer("NewsService.getAllNews", "true", "commit").count()).isEqualTo(1);
+        assertThat(timer("NewsService.createNews", "false", "rollback").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("db.transaction").timers()).hasSize(2);
+    }
+
+    private Timer timer(String name, String readOnly, String outcome) {
+        return meterRegistry.get("db.transaction")
+                .tag("name", name)
+                .tag("read_only", readOnly)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,358 @@
+package mundoPirata.mundoPirata.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import mundoPirata.mundoPirata.entity.Calendar;
+import mundoPirata.mundoPirata.entity.Destination;
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.EventType;
+import mundoPirata.mundoPirata.entity.Location;
+import mundoPirata.mundoPirata.entity.MapLocation;
+import mundoPirata.mundoPirata.entity.News;
+import mundoPirata.mundoPirata.entity.NewsType;
+import mundoPirata.mundoPirata.entity.Order;
+import mundoPirata.mundoPirata.entity.OrderItem;
+import mundoPirata.mundoPirata.entity.Ticket;
+import mundoPirata.mundoPirata.entity.User;
+import mundoPirata.mundoPirata.service.CalendarSnapshotService;
+import mundoPirata.mundoPirata.service.NewsFeedCache;
+import mundoPirata.mundoPirata.service.ReferenceDataRegistry;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de consultas SQL por endpoint GET.
+ *
+ * Cada endpoint declara cuántas sentencias puede ejecutar como máximo. El test carga la base
+ * con distintas cantidades de filas, llama a cada endpoint con las cachés en memoria vacías y
+ * cuenta las sentencias con QueryCountingDataSource. Falla si un endpoint supera su presupuesto
+ * o si ejecuta más sentencias con más filas (una consulta por fila, N+1).
+ *
+ * Los endpoints de búsqueda (/search) quedan afuera: responden desde índices en memoria que
+ * se cargan una sola vez y no se reconstruyen al recargar los datos del test.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        // Sin caché del panel: cada medición lo arma de nuevo
+        "admin.dashboard.cache-ttl=0s"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@AutoConfigureTestDatabase
+class EndpointQueryBudgetTest {
+
+    private static final int[] ROWS = {5, 50, 200};
+
+    private static final List<Endpoint> ENDPOINTS = List.of(
+            // Noticias
+            new Endpoint("/api/news/public", 1),
+            new Endpoint("/api/news/public/{news}", 1),
+            new Endpoint("/api/news", 1),
+            new Endpoint("/api/news/type/{newsType}", 1),
+            new Endpoint("/api/news-types", 0),
+            new Endpoint("/api/news-types/{newsType}", 0),
+            // Calendario (snapshot en memoria; a lo sumo una consulta para reconstruirlo)
+            new Endpoint("/api/event-types", 0),
+            new Endpoint("/api/calendar/public", 1),
+            new Endpoint("/api/calendar/public/{event}", 1),
+            new Endpoint("/api/calendar/public/upcoming", 1),
+            new Endpoint("/api/calendar/public/date/{date}", 1),
+            new Endpoint("/api/calendar", 1),
+            new Endpoint("/api/calendar/type/{eventType}", 1),
+            // Entradas
+            new Endpoint("/api/tickets/public", 1),
+            new Endpoint("/api/tickets/public/{ticket}", 1),
+            new Endpoint("/api/tickets/public/code/{ticketCode}", 1),
+            new Endpoint("/api/tickets/public/location/{location}", 1),
+            new Endpoint("/api/tickets/public/events-with-tickets", 2),
+            new Endpoint("/api/tickets", 1),
+            new Endpoint("/api/tickets/location/{location}", 1),
+            new Endpoint("/api/tickets/stats/available/{location}", 1),
+            new Endpoint("/api/tickets/stats/sold", 1),
+            // Órdenes (cabeceras + una consulta para los ítems de todas)
+            new Endpoint("/api/orders/{order}", 2),
+            new Endpoint("/api/orders", 2),
+            new Endpoint("/api/orders/user/{user}", 3),
+            new Endpoint("/api/orders/state/approved", 2),
+            new Endpoint("/api/orders/stats/total-sales", 1),
+            // Donaciones y destinos
+            new Endpoint("/api/donations/public/{donation}", 1),
+            new Endpoint("/api/donations/{donation}", 1),
+            new Endpoint("/api/donations", 1),
+            new Endpoint("/api/donations/user/{user}", 2),
+            new Endpoint("/api/donations/destination/{destination}", 1),
+            new Endpoint("/api/donations/state/approved", 1),
+            new Endpoint("/api/donations/stats/total", 1),
+            new Endpoint("/api/destinations/public", 0),
+            new Endpoint("/api/destinations", 0),
+            new Endpoint("/api/destinations/{destination}", 0),
+            new Endpoint("/api/destinations/stats", 1),
+            // Mapa (ubicaciones + nombres de los autores en una consulta)
+            new Endpoint("/api/map-locations/public", 2),
+            new Endpoint("/api/map-locations/public/{mapLocation}", 2),
+            new Endpoint("/api/map-locations", 2),
+            new Endpoint("/api/map-locations/author/{user}", 2),
+            new Endpoint("/api/map-locations/stats/count", 1),
+            // Usuarios
+            new Endpoint("/api/users/{user}", 1),
+            new Endpoint("/api/users/email/{email}", 1),
+            new Endpoint("/api/users", 1),
+            new Endpoint("/api/users/role/user", 1),
+            // Administración: un conteo por componente del panel, en sus propios hilos
+            new Endpoint("/api/admin/dashboard", 11),
+            new Endpoint("/api/admin/time-series/ticket-sales?match=2030-03-01T21:00:00&granularity=day", 2),
+            new Endpoint("/api/admin/time-series/donations?destinationId={destination}&granularity=day", 1)
+    );
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // El bean dataSource puede estar envuelto por otros (SlowQueryDataSource): se busca el contador adentro
+    @Autowired
+    private DataSource dataSource;
+
+    private QueryCountingDataSource queryCounter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private NewsFeedCache newsFeedCache;
+
+    @Autowired
+    private CalendarSnapshotService calendarSnapshotService;
+
+    private final Map<String, Object> ids = new HashMap<>();
+
+    @Test
+    void queryCountStaysWithinBudgetAndDoesNotGrowWithRows() throws Exception {
+        queryCounter = dataSource.unwrap(QueryCountingDataSource.class);
+        seedReferenceData();
+        Map<String, List<Integer>> counts = new LinkedHashMap<>();
+        for (int rows : ROWS) {
+            seed(rows);
+            for (Endpoint endpoint : ENDPOINTS) {
+                counts.computeIfAbsent(endpoint.path(), path -> new ArrayList<>()).add(measure(endpoint));
+            }
+        }
+
+        SoftAssertions softly = new SoftAssertions();
+        for (Endpoint endpoint : ENDPOINTS) {
+            List<Integer> byRows = counts.get(endpoint.path());
+            for (int i = 0; i < ROWS.length; i++) {
+                softly.assertThat(byRows.get(i))
+                        .as("GET %s con %d filas (presupuesto %d)", endpoint.path(), ROWS[i], endpoint.budget())
+                        .isLessThanOrEqualTo(endpoint.budget());
+                softly.assertThat(byRows.get(i))
+                        .as("GET %s: consultas con %d filas frente a %d filas", endpoint.path(), ROWS[i], ROWS[0])
+                        .isLessThanOrEqualTo(byRows.get(0));
+            }
+        }
+        softly.assertAll();
+    }
+
+    private int measure(Endpoint endpoint) throws Exception {
+        String url = endpoint.path();
+        for (Map.Entry<String, Object> id : ids.entrySet()) {
+            url = url.replace("{" + id.getKey() + "}", String.valueOf(id.getValue()));
+        }
+        int count;
+        queryCounter.start();
+        try {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+        } finally {
+            count = queryCounter.stop();
+        }
+        return count;
+    }
+
+    // Tipos, ubicaciones del estadio y destinos: se cargan una sola vez, como con data.sql
+    private void seedReferenceData() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String type : List.of("Institucional", "Fútbol", "Socios")) {
+                NewsType newsType = new NewsType();
+                newsType.setType(type);
+                entityManager.persist(newsType);
+                ids.putIfAbsent("newsType", newsType.getId());
+            }
+            for (String type : List.of("Partido", "Evento")) {
+                EventType eventType = new EventType();
+                eventType.setType(type);
+                entityManager.persist(eventType);
+                ids.putIfAbsent("eventType", eventType.getId());
+            }
+            for (String name : List.of("Platea Norte", "Platea Sur", "Popular Artime", "Cabecera Willington")) {
+                Location location = new Location();
+                location.setName(name);
+                location.setCapacity(5_000L);
+                location.setPrice(BigDecimal.valueOf(15_000));
+                entityManager.persist(location);
+                ids.putIfAbsent("location", location.getId());
+            }
+            for (String name : List.of("Fútbol infantil", "Sede Alberdi", "Obras del Gigante")) {
+                Destination destination = new Destination();
+                destination.setName(name);
+                destination.setAddress("Arturo Orgaz 510, Córdoba");
+                destination.setPhoneNumber("3514000000");
+                entityManager.persist(destination);
+                ids.putIfAbsent("destination", destination.getId());
+            }
+        });
+    }
+
+    // Borra los datos del tamaño anterior, carga `rows` filas por tabla y vacía las cachés en memoria
+    private void seed(int rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("OrderItem", "Order", "Donation", "Ticket", "News", "Calendar",
+                    "MapLocation", "RefreshToken", "User")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+            NewsType newsType = entityManager.find(NewsType.class, ids.get("newsType"));
+            EventType eventType = entityManager.find(EventType.class, ids.get("eventType"));
+            Location location = entityManager.find(Location.class, ids.get("location"));
+            Destination destination = entityManager.find(Destination.class, ids.get("destination"));
+
+            // Las filas pares son del primer usuario (endpoints por usuario) y las impares de
+            // usuarios distintos (listados con muchos autores)
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                User user = new User();
+                user.setName("Socio" + i);
+                user.setLastName("Pirata");
+                user.setEmail("socio" + rows + "-" + i + "@mundopirata.com");
+                user.setPassword("{bcrypt}hash");
+                user.setDni(rows * 100_000L + i);
+                entityManager.persist(user);
+                users.add(user);
+            }
+            ids.put("user", users.get(0).getId());
+            ids.put("email", users.get(0).getEmail());
+            for (int i = 0; i < rows; i++) {
+                User owner = users.get(i % 2 == 0 ? 0 : i);
+                News news = new News();
+                news.setType(newsType);
+                news.setTitle("Noticia " + i);
+                news.setContent("Contenido de la noticia " + i);
+                news.setAuthor(owner);
+                news.setDate(LocalDate.now().minusDays(i));
+                entityManager.persist(news);
+                ids.put("news", news.getId());
+
+                Calendar event = new Calendar();
+                event.setTitle("Belgrano vs Rival " + i);
+                event.setAuthor(owner);
+                event.setDate(LocalDate.now().plusDays(i % 60));
+                event.setEventType(eventType);
+                entityManager.persist(event);
+                ids.put("event", event.getId());
+                ids.put("date", event.getDate());
+
+                MapLocation mapLocation = new MapLocation();
+                mapLocation.setName("Bar Pirata " + i);
+                mapLocation.setAddress("Av. Colón " + i + ", Córdoba");
+                mapLocation.setGoogleMapsUrl("https://maps.google.com/?q=" + i);
+                mapLocation.setAuthorId(owner.getId());
+                entityManager.persist(mapLocation);
+                ids.put("mapLocation", mapLocation.getId());
+
+                Ticket available = ticket(location, "L" + rows + "-" + i, i, true);
+                Ticket sold = ticket(location, "V" + rows + "-" + i, i, false);
+                ids.put("ticket", available.getId());
+                ids.put("ticketCode", available.getCode());
+
+                Order order = new Order();
+                order.setUser(owner);
+                order.setTotalAmount(sold.getPrice());
+                order.setPurchaseState(Order.PurchaseState.approved);
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setTicket(sold);
+                item.setUnitPrice(sold.getPrice());
+                item.setSubtotal(sold.getPrice());
+                order.setOrderItems(new ArrayList<>(List.of(item)));
+                entityManager.persist(order);
+                ids.put("order", order.getId());
+
+                Donation donation = new Donation();
+                donation.setUser(owner);
+                donation.setDestination(destination);
+                donation.setAmount(BigDecimal.valueOf(1_000L + i));
+                donation.setPurchaseState(Donation.PurchaseState.approved);
+                entityManager.persist(donation);
+                ids.put("donation", donation.getId());
+            }
+        });
+
+        entityManagerFactory.getCache().evictAll();
+        referenceDataRegistry.refresh();
+        newsFeedCache.invalidate();
+        // Sin transacción en curso, el snapshot se reconstruye en el momento
+        calendarSnapshotService.refreshAfterCommit();
+    }
+
+    private Ticket ticket(Location location, String code, int hour, boolean available) {
+        Ticket ticket = new Ticket();
+        ticket.setCode(code);
+        ticket.setLocation(location);
+        ticket.setPrice(location.getPrice());
+        ticket.setDateTime(LocalDateTime.now().plusDays(7).withHour(hour % 24));
+        ticket.setAvailable(available);
+        entityManager.persist(ticket);
+        return ticket;
+    }
+
+    private record Endpoint(String path, int budget) {
+    }
+
+    @TestConfiguration
+    static class QueryCountingConfig {
+
+        // Envuelve el DataSource de la aplicación para contar las sentencias de cada request
+        @Bean
+        static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+                        return new QueryCountingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package mundoPirata.mundoPirata.controller;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que cuenta las sentencias SQL ejecutadas (execute, executeQuery, executeUpdate y
+ * executeBatch) por el hilo que está midiendo y por los hilos del panel de administración
+ * (admin-dashboard-*), que consultan en paralelo para ese request. Las demás tareas en segundo
+ * plano que usan la misma base no afectan la cuenta.
+ */
+class QueryCountingDataSource extends DelegatingDataSource {
+
+    private static final String DASHBOARD_THREADS = "admin-dashboard-";
+
+    private final AtomicInteger count = new AtomicInteger();
+    private volatile Thread recordingThread;
+
+    QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Empieza a contar las sentencias del hilo actual.
+     */
+    void start() {
+        count.set(0);
+        recordingThread = Thread.currentThread();
+    }
+
+    /**
+     * Deja de contar y devuelve las sentencias ejecutadas desde start.
+     */
+    int stop() {
+        recordingThread = null;
+        return count.get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof CallableStatement statement) {
+                        return countingStatement(statement, CallableStatement.class);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return countingStatement(statement, PreparedStatement.class);
+                    }
+                    if (result instanceof Statement statement) {
+                        return countingStatement(statement, Statement.class);
+                    }
+                    return result;
+                });
+    }
+
+    private Object countingStatement(Statement statement, Class<? extends Statement> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute") && isRecording()) {
+                        count.incrementAndGet();
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private boolean isRecording() {
+        Thread current = Thread.currentThread();
+        return recordingThread != null
+                && (current == recordingThread || current.getName().startsWith(DASHBOARD_THREADS));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package mundoPirata.mundoPirata.repository;
+
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.Location;
+import mundoPirata.mundoPirata.entity.Order;
+import mundoPirata.mundoPirata.repository.StatementCapturingDataSource.CapturedStatement;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Verifica con EXPLAIN que las consultas de los repositorios sobre los filtros más usados tomen
+ * los índices de las migraciones de Flyway.
+ *
+ * Corre las migraciones sobre un MySQL 8 de Testcontainers (se saltea si no hay Docker), con lo
+ * que también valida que el esquema coincida con las entidades (ddl-auto=validate). Carga miles
+ * de filas con valores selectivos para los parámetros del test, ejecuta cada método del
+ * repositorio grabando el SQL que genera Hibernate con sus parámetros y repite cada sentencia
+ * con EXPLAIN: el índice esperado tiene que aparecer en la columna key del plan.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryIndexUsageTest {
+
+    private static final int USERS = 2_000;
+    private static final int LOCATIONS = 50;
+    private static final int TICKETS = 20_000;
+    private static final int ORDERS = 10_000;
+    private static final int DONATIONS = 10_000;
+    private static final int NEWS = 5_000;
+    private static final int EVENTS = 5_000;
+
+    private static final LocalDateTime DAY_START = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime DAY_END = LocalDateTime.of(2025, 3, 1, 23, 59, 59);
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+    }
+
+    @Autowired
+    private StatementCapturingDataSource dataSource;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DonationRepository donationRepository;
+
+    @Autowired
+    private NewsRepository newsRepository;
+
+    @Autowired
+    private CalendarRepository calendarRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Una sola conexión: cte_max_recursion_depth es de la sesión
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION cte_max_recursion_depth = 100000");
+                statement.execute("INSERT INTO event_types (type) VALUES ('Partido'), ('Evento social'), ('Asamblea')");
+                statement.execute("INSERT INTO news_types (type) VALUES ('Fútbol'), ('Institucional'), ('Básquet')");
+                statement.execute("INSERT INTO destinations (name, address, phone_number, state) VALUES "
+                        + "('Sede', 'Arturo Orgaz 510', '3514000000', 1), ('Gigante de Alberdi', 'Arturo Orgaz 510', '3514000001', 1)");
+                statement.execute(seq(LOCATIONS, "INSERT INTO locations (name, capacity, price)",
+                        "CONCAT('Tribuna ', n), 1000, 5000"));
+                statement.execute(seq(USERS, "INSERT INTO users (name, last_name, email, password, role, dni, enabled)",
+                        "CONCAT('Socio', n), CONCAT('Pirata', n % 400), CONCAT('socio', n, '@mundopirata.com'), 'x', 'user', 30000000 + n, 1"));
+                // Una de cada diez entradas vendida; las fechas cubren un año, hora por hora
+                statement.execute(seq(TICKETS, "INSERT INTO tickets (code, location_id, price, date_time, available)",
+                        "CONCAT('T', n), 1 + n % " + LOCATIONS + ", 5000, TIMESTAMP '2025-01-01 00:00:00' + INTERVAL (n % 8760) HOUR, n % 10 <> 0"));
+                // Una de cada cincuenta órdenes y donaciones rechazada; una cada 50 minutos
+                statement.execute(seq(ORDERS, "INSERT INTO orders (user_id, total_amount, purchase_date, purchase_state)",
+                        "1 + n % " + USERS + ", 5000, TIMESTAMP '2025-01-01 00:00:00' + INTERVAL (n * 50) MINUTE, "
+                                + "IF(n % 50 = 0, 'rejected', 'approved')"));
+                statement.execute(seq(DONATIONS, "INSERT INTO donations (user_id, destination_id, amount, donation_date, purchase_state)",
+                        "1 + n % " + USERS + ", 1 + n % 2, 1000, TIMESTAMP '2025-01-01 00:00:00' + INTERVAL (n * 50) MINUTE, "
+                                + "IF(n % 50 = 0, 'rejected', 'approved')"));
+                statement.execute(seq(NEWS, "INSERT INTO news (type_id, title, content, author_id, date, state)",
+                        "1 + n % 3, CONCAT('Noticia ', n), 'Belgrano', 1 + n % " + USERS + ", DATE '2020-01-01' + INTERVAL (n % 2000) DAY, 1"));
+                statement.execute(seq(EVENTS, "INSERT INTO calendar (title, detail, author_id, date, event_type_id, state)",
+                        "CONCAT('Evento ', n), 'Belgrano', 1 + n % " + USERS + ", DATE '2020-01-01' + INTERVAL (n % 2000) DAY, 1 + n % 3, 1"));
+                statement.execute("ANALYZE TABLE users, tickets, orders, donations, news, calendar");
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Location location = new Location();
+        location.setId(7L);
+        List<IndexCase> cases = List.of(
+                // Entradas
+                new IndexCase("TicketRepository.findAvailableDTOsByLocationId", "idx_tickets_available_location",
+                        () -> ticketRepository.findAvailableDTOsByLocationId(7L)),
+                new IndexCase("TicketRepository.countAvailableByLocation", "idx_tickets_available_location",
+                        () -> ticketRepository.countAvailableByLocation(location)),
+                new IndexCase("TicketRepository.countSoldTickets", "idx_tickets_available_location",
+                        () -> ticketRepository.countSoldTickets()),
+                new IndexCase("TicketRepository.findDTOsByDateTimeBetween", "idx_tickets_date_time",
+                        () -> ticketRepository.findDTOsByDateTimeBetween(DAY_START, DAY_END)),
+                new IndexCase("TicketRepository.findByDateTimeBetween", "idx_tickets_date_time",
+                        () -> ticketRepository.findByDateTimeBetween(DAY_START, DAY_END)),
+                // Órdenes
+                new IndexCase("OrderRepository.findDTOsByPurchaseState", "idx_orders_state_purchase_date",
+                        () -> orderRepository.findDTOsByPurchaseState(Order.PurchaseState.rejected)),
+                new IndexCase("OrderRepository.countApprovedOrdersBetween", "idx_orders_state_purchase_date",
+                        () -> orderRepository.countApprovedOrdersBetween(DAY_START, DAY_END)),
+                new IndexCase("OrderRepository.findDTOsByUserId", "idx_orders_user",
+                        () -> orderRepository.findDTOsByUserId(42L)),
+                new IndexCase("OrderRepository.findDTOsByPurchaseDateBetween", "idx_orders_purchase_date_id",
+                        () -> orderRepository.findDTOsByPurchaseDateBetween(DAY_START, DAY_END)),
+                new IndexCase("OrderRepository.findFirstPage", "idx_orders_purchase_date_id",
+                        () -> orderRepository.findFirstPage(PageRequest.of(0, 51))),
+                new IndexCase("OrderRepository.findPageAfter", "idx_orders_purchase_date_id",
+                        () -> orderRepository.findPageAfter(DAY_END, 1_000L, PageRequest.of(0, 51))),
+                // Donaciones
+                new IndexCase("DonationRepository.findDTOsByPurchaseState", "idx_donations_state_date",
+                        () -> donationRepository.findDTOsByPurchaseState(Donation.PurchaseState.rejected)),
+                new IndexCase("DonationRepository.findByPurchaseState", "idx_donations_state_date",
+                        () -> donationRepository.findByPurchaseState(Donation.PurchaseState.rejected)),
+                new IndexCase("DonationRepository.countDonationsByStateBetween", "idx_donations_state_date",
+                        () -> donationRepository.countDonationsByStateBetween(Donation.PurchaseState.approved, DAY_START, DAY_END)),
+                new IndexCase("DonationRepository.getTotalDonationsByStateBetween", "idx_donations_state_date",
+                        () -> donationRepository.getTotalDonationsByStateBetween(Donation.PurchaseState.approved, DAY_START, DAY_END)),
+                new IndexCase("DonationRepository.sumByDestination", "idx_donations_state_destination",
+                        () -> donationRepository.sumByDestination(Donation.PurchaseState.approved, DAY_START, DAY_END)),
+                new IndexCase("DonationRepository.findDTOsByUserId", "idx_donations_user",
+                        () -> donationRepository.findDTOsByUserId(42L)),
+                new IndexCase("DonationRepository.findDTOsByDonationDateBetween", "idx_donations_donation_date_id",
+                        () -> donationRepository.findDTOsByDonationDateBetween(DAY_START, DAY_END)),
+                new IndexCase("DonationRepository.findFirstPage", "idx_donations_donation_date_id",
+                        () -> donationRepository.findFirstPage(PageRequest.of(0, 51))),
+                new IndexCase("DonationRepository.findPageAfter", "idx_donations_donation_date_id",
+                        () -> donationRepository.findPageAfter(DAY_END, 1_000L, PageRequest.of(0, 51))),
+                // Listados por keyset de noticias, calendario y usuarios
+                new IndexCase("NewsRepository.findFirstPage", "idx_news_date_id",
+                        () -> newsRepository.findFirstPage(PageRequest.of(0, 51))),
+                new IndexCase("NewsRepository.findPageAfter", "idx_news_date_id",
+                        () -> newsRepository.findPageAfter(LocalDate.of(2022, 1, 1), 1_000L, PageRequest.of(0, 51))),
+                new IndexCase("CalendarRepository.findDTOsByDateBetween", "idx_calendar_date_id",
+                        () -> calendarRepository.findDTOsByDateBetween(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 7))),
+                new IndexCase("CalendarRepository.findFirstPage", "idx_calendar_date_id",
+                        () -> calendarRepository.findFirstPage(PageRequest.of(0, 51))),
+                new IndexCase("CalendarRepository.findPageAfter", "idx_calendar_date_id",
+                        () -> calendarRepository.findPageAfter(LocalDate.of(2022, 1, 1), 1_000L, PageRequest.of(0, 51))),
+                new IndexCase("UserRepository.findFirstPage", "idx_users_last_name_id",
+                        () -> userRepository.findFirstPage(PageRequest.of(0, 51))),
+                new IndexCase("UserRepository.findPageAfter", "idx_users_last_name_id",
+                        () -> userRepository.findPageAfter("Pirata200", 1_000L, PageRequest.of(0, 51)))
+        );
+
+        SoftAssertions softly = new SoftAssertions();
+        for (IndexCase indexCase : cases) {
+            dataSource.start();
+            indexCase.query().run();
+            List<CapturedStatement> statements = dataSource.stop();
+            softly.assertThat(statements).as(indexCase.name()).hasSize(1);
+            for (CapturedStatement statement : statements) {
+                List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + statement.sql(),
+                        statement.parameters().toArray());
+                List<Object> keys = plan.stream().map(row -> row.get("key")).filter(Objects::nonNull).toList();
+                softly.assertThat(keys)
+                        .as("%s debería usar %s%n%s%n%s", indexCase.name(), indexCase.index(), statement.sql(), plan)
+                        .contains(indexCase.index());
+            }
+        }
+        softly.assertAll();
+    }
+
+    // INSERT ... SELECT sobre una secuencia 1..rows; las columnas pueden usar n
+    private static String seq(int rows, String insert, String columns) {
+        return insert + " WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + rows + ") "
+                + "SELECT " + columns + " FROM seq";
+    }
+
+    private record IndexCase(String name, String index, Runnable query) {
+    }
+
+    @TestConfiguration
+    static class StatementCapturingConfig {
+
+        // Envuelve el DataSource de la aplicación para grabar el SQL que generan los repositorios
+        @Bean
+        static BeanPostProcessor statementCapturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof StatementCapturingDataSource)) {
+                        return new StatementCapturingDataSource(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package mundoPirata.mundoPirata.repository;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DataSource que guarda el SQL y los parámetros de cada PreparedStatement que ejecuta el hilo
+ * que está grabando, para poder repetir la misma consulta con EXPLAIN.
+ */
+class StatementCapturingDataSource extends DelegatingDataSource {
+
+    private final List<CapturedStatement> statements = new ArrayList<>();
+    private volatile Thread recordingThread;
+
+    StatementCapturingDataSource(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Empieza a guardar las sentencias del hilo actual.
+     */
+    void start() {
+        statements.clear();
+        recordingThread = Thread.currentThread();
+    }
+
+    /**
+     * Deja de grabar y devuelve las sentencias ejecutadas desde start.
+     */
+    List<CapturedStatement> stop() {
+        recordingThread = null;
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return capturingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return capturingConnection(super.getConnection(username, password));
+    }
+
+    private Connection capturingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                        return capturingStatement(statement, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    private PreparedStatement capturingStatement(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        parameters.put(index, name.equals("setNull") ? null : args[1]);
+                    } else if (name.equals("clearParameters")) {
+                        parameters.clear();
+                    } else if (name.startsWith("execute") && Thread.currentThread() == recordingThread) {
+                        statements.add(new CapturedStatement(sql, new ArrayList<>(parameters.values())));
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * SQL con los parámetros en el orden de los signos de pregunta.
+     */
+    record CapturedStatement(String sql, List<Object> parameters) {
+    }
+}
@@ -0,0 +1,138 @@
+package mundoPirata.mundoPirata.repository;
+
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.Order;
+import mundoPirata.mundoPirata.service.TimeSeriesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las sumas y restas incrementales de TimeSeriesService (SQL propio de MySQL) contra el historial:
+ * después de aprobar y cancelar órdenes y donaciones, los intervalos tienen que coincidir con las
+ * filas aprobadas y con lo que genera rebuild. Corre sobre un MySQL 8 de Testcontainers con las
+ * migraciones de Flyway (se saltea si no hay Docker).
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TimeSeriesService.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TimeSeriesBucketsTest {
+
+    private static final LocalDateTime MATCH = LocalDateTime.of(2030, 3, 1, 21, 0);
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+    }
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void incrementalBucketsMatchTheApprovedHistoryAndTheRebuild() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, last_name, email, password, role, enabled) "
+                + "VALUES (1, 'Socio', 'Pirata', 'series@mundopirata.com', 'x', 'user', 1)");
+        jdbcTemplate.update("INSERT INTO locations (id, name, capacity, price) VALUES (1, 'Platea', 1000, 5000), (2, 'Popular', 1000, 3000)");
+        jdbcTemplate.update("INSERT INTO tickets (id, code, location_id, price, date_time, available) "
+                + "VALUES (1, 'P1', 1, 5000, ?, 0), (2, 'G1', 2, 3000, ?, 0)", MATCH, MATCH);
+        jdbcTemplate.update("INSERT INTO destinations (id, name, address, state) VALUES (1, 'Sede', 'Arturo Orgaz 510', 1)");
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        // Aprobada, aprobada y cancelada, y cancelada sin haberse sumado nunca (su resta no se aplica)
+        Order kept = order(jdbcTemplate, 1L, now.minusHours(3), "approved");
+        Order cancelled = order(jdbcTemplate, 2L, now.minusHours(3).plusMinutes(1), "cancelled");
+        Order neverCounted = order(jdbcTemplate, 3L, now.minusHours(1), "cancelled");
+        timeSeriesService.orderStateChanged(kept, Order.PurchaseState.pending, Order.PurchaseState.approved);
+        timeSeriesService.orderStateChanged(cancelled, Order.PurchaseState.pending, Order.PurchaseState.approved);
+        timeSeriesService.orderStateChanged(cancelled, Order.PurchaseState.approved, Order.PurchaseState.cancelled);
+        timeSeriesService.orderStateChanged(neverCounted, Order.PurchaseState.approved, Order.PurchaseState.cancelled);
+
+        Donation donated = donation(jdbcTemplate, 1L, now.minusDays(2), "approved");
+        Donation refunded = donation(jdbcTemplate, 2L, now.minusDays(2), "cancelled");
+        timeSeriesService.donationStateChanged(donated, Donation.PurchaseState.pending, Donation.PurchaseState.approved);
+        timeSeriesService.donationStateChanged(refunded, Donation.PurchaseState.pending, Donation.PurchaseState.approved);
+        timeSeriesService.donationStateChanged(refunded, Donation.PurchaseState.approved, Donation.PurchaseState.cancelled);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ticket_sales_buckets WHERE tickets < 0 OR amount < 0", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM donation_buckets WHERE donations < 0 OR amount < 0", Long.class)).isZero();
+
+        // Cada granularidad suma lo mismo que las filas aprobadas
+        for (String granularity : List.of("minute", "hour", "day")) {
+            assertThat(jdbcTemplate.queryForMap("SELECT SUM(tickets) AS tickets, SUM(amount) AS amount "
+                    + "FROM ticket_sales_buckets WHERE granularity = ?", granularity))
+                    .isEqualTo(jdbcTemplate.queryForMap("SELECT SUM(oi.quantity) AS tickets, SUM(oi.subtotal) AS amount "
+                            + "FROM orders o JOIN order_items oi ON oi.order_id = o.id WHERE o.purchase_state = 'approved'"));
+            assertThat(jdbcTemplate.queryForMap("SELECT SUM(donations) AS donations, SUM(amount) AS amount "
+                    + "FROM donation_buckets WHERE granularity = ?", granularity))
+                    .isEqualTo(jdbcTemplate.queryForMap("SELECT SUM(1) AS donations, SUM(amount) AS amount "
+                            + "FROM donations WHERE purchase_state = 'approved'"));
+        }
+
+        // Las restas dejan intervalos en cero que rebuild no genera
+        List<Map<String, Object>> ticketSales = ticketSalesBuckets(jdbcTemplate);
+        List<Map<String, Object>> donations = donationBuckets(jdbcTemplate);
+        timeSeriesService.rebuild();
+        assertThat(ticketSalesBuckets(jdbcTemplate)).isEqualTo(ticketSales);
+        assertThat(donationBuckets(jdbcTemplate)).isEqualTo(donations);
+    }
+
+    // Orden con una entrada de cada ubicación
+    private static Order order(JdbcTemplate jdbcTemplate, Long id, LocalDateTime purchaseDate, String state) {
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, total_amount, purchase_date, purchase_state) VALUES (?, 1, 11000, ?, ?)",
+                id, purchaseDate, state);
+        jdbcTemplate.update("INSERT INTO order_items (order_id, ticket_id, quantity, unit_price, subtotal) "
+                + "VALUES (?, 1, 1, 5000, 5000), (?, 2, 2, 3000, 6000)", id, id);
+        Order order = new Order();
+        order.setId(id);
+        order.setPurchaseDate(purchaseDate);
+        return order;
+    }
+
+    private static Donation donation(JdbcTemplate jdbcTemplate, Long id, LocalDateTime donationDate, String state) {
+        jdbcTemplate.update("INSERT INTO donations (id, user_id, destination_id, amount, donation_date, purchase_state) VALUES (?, 1, 1, 2500, ?, ?)",
+                id, donationDate, state);
+        Donation donation = new Donation();
+        donation.setId(id);
+        donation.setDonationDate(donationDate);
+        return donation;
+    }
+
+    private static List<Map<String, Object>> ticketSalesBuckets(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT granularity, match_date_time, location_id, bucket_start, tickets, amount "
+                + "FROM ticket_sales_buckets WHERE tickets <> 0 ORDER BY granularity, match_date_time, location_id, bucket_start");
+    }
+
+    private static List<Map<String, Object>> donationBuckets(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT granularity, destination_id, bucket_start, donations, amount "
+                + "FROM donation_buckets WHERE donations <> 0 ORDER BY granularity, destination_id, bucket_start");
+    }
+}
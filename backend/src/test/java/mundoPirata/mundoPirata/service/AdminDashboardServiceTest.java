@@ -0,0 +1,157 @@
+package mundoPirata.mundoPirata.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mundoPirata.mundoPirata.dto.AdminDashboardDTO;
+import mundoPirata.mundoPirata.dto.DonationStatsDTO;
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminDashboardServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderService orderService = mock(OrderService.class);
+    private final TicketService ticketService = mock(TicketService.class);
+    private final DonationService donationService = mock(DonationService.class);
+    private final MapLocationService mapLocationService = mock(MapLocationService.class);
+    private final UserService userService = mock(UserService.class);
+    private final NewsService newsService = mock(NewsService.class);
+    private final CalendarService calendarService = mock(CalendarService.class);
+    private AdminDashboardService dashboardService;
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void collectsEveryTotalAndServesRepeatedRequestsFromTheCache() {
+        givenTotals();
+        dashboardService = service(Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        AdminDashboardDTO dashboard = dashboardService.getDashboard();
+
+        assertThat(dashboard.getTotalSales()).isEqualByComparingTo("1500.00");
+        assertThat(dashboard.getSoldTickets()).isEqualTo(42L);
+        assertThat(dashboard.getTotalDonations()).isEqualByComparingTo("300.00");
+        assertThat(dashboard.getDonationStats().getTotalDonations()).isEqualTo(3L);
+        assertThat(dashboard.getActiveMapLocations()).isEqualTo(7L);
+        assertThat(dashboard.getUsers()).isEqualTo(120L);
+        assertThat(dashboard.getAdmins()).isEqualTo(2L);
+        assertThat(dashboard.getAvailableTickets()).isEqualTo(58L);
+        assertThat(dashboard.getPendingDonations()).isEqualTo(4L);
+        assertThat(dashboard.getNews()).isEqualTo(35L);
+        assertThat(dashboard.getEventsThisMonth()).isEqualTo(6L);
+        assertThat(dashboard.getComponents()).hasSize(11)
+                .allSatisfy((name, component) -> assertThat(component.getStatus()).isEqualTo("ok"));
+
+        assertThat(dashboardService.getDashboard()).isSameAs(dashboard);
+        verify(orderService, times(1)).getTotalSales();
+        assertThat(meterRegistry.get("admin.dashboard.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowTotalTimesOutWithoutHoldingBackTheRest() {
+        givenTotals();
+        when(ticketService.getSoldTicketsCount()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return 42L;
+        });
+        when(mapLocationService.getActiveLocationsCount()).thenThrow(new RuntimeException("sin conexión"));
+        dashboardService = service(Duration.ofMillis(200), Duration.ZERO, Duration.ZERO);
+
+        long start = System.nanoTime();
+        AdminDashboardDTO dashboard = dashboardService.getDashboard();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(dashboard.getSoldTickets()).isNull();
+        assertThat(dashboard.getComponents().get("soldTickets").getStatus()).isEqualTo("timeout");
+        assertThat(dashboard.getActiveMapLocations()).isNull();
+        assertThat(dashboard.getComponents().get("activeMapLocations").getStatus()).isEqualTo("error");
+        assertThat(dashboard.getTotalSales()).isEqualByComparingTo("1500.00");
+        assertThat(dashboard.getComponents().get("totalSales").getStatus()).isEqualTo("ok");
+        assertThat(meterRegistry.get("admin.dashboard.component")
+                .tag("component", "soldTickets").tag("status", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void degradedDocumentIsOnlyCachedForTheShortTtl() {
+        givenTotals();
+        when(ticketService.getSoldTicketsCount()).thenThrow(new RuntimeException("sin conexión")).thenReturn(42L);
+        dashboardService = service(Duration.ofSeconds(5), Duration.ofMinutes(1), Duration.ZERO);
+
+        assertThat(dashboardService.getDashboard().getSoldTickets()).isNull();
+
+        // No quedó guardado por el TTL completo: el siguiente request vuelve a consultar
+        AdminDashboardDTO dashboard = dashboardService.getDashboard();
+        assertThat(dashboard.getSoldTickets()).isEqualTo(42L);
+        assertThat(dashboardService.getDashboard()).isSameAs(dashboard);
+        verify(ticketService, times(2)).getSoldTicketsCount();
+    }
+
+    @Test
+    void servesThePreviousDocumentWhileAnotherThreadRebuildsIt() throws Exception {
+        givenTotals();
+        CountDownLatch rebuilding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.getTotalSales()).thenReturn(new BigDecimal("1500.00")).thenAnswer(invocation -> {
+            rebuilding.countDown();
+            release.await();
+            return new BigDecimal("1600.00");
+        });
+        dashboardService = service(Duration.ofSeconds(5), Duration.ofMillis(50), Duration.ofMillis(50));
+        AdminDashboardDTO previous = dashboardService.getDashboard();
+        Thread.sleep(100);
+
+        CompletableFuture<AdminDashboardDTO> rebuild = CompletableFuture.supplyAsync(dashboardService::getDashboard);
+        assertThat(rebuilding.await(5, TimeUnit.SECONDS)).isTrue();
+
+        long start = System.nanoTime();
+        assertThat(dashboardService.getDashboard()).isSameAs(previous);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+        assertThat(meterRegistry.get("admin.dashboard.cache").tag("result", "stale").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(rebuild.get(5, TimeUnit.SECONDS).getTotalSales()).isEqualByComparingTo("1600.00");
+    }
+
+    private void givenTotals() {
+        when(orderService.getTotalSales()).thenReturn(new BigDecimal("1500.00"));
+        when(ticketService.getSoldTicketsCount()).thenReturn(42L);
+        when(donationService.getTotalDonations()).thenReturn(new BigDecimal("300.00"));
+        when(donationService.getDonationStatistics()).thenReturn(new DonationStatsDTO(3L, new BigDecimal("300.00"),
+                BigDecimal.ZERO, new BigDecimal("100.00"), List.of()));
+        when(mapLocationService.getActiveLocationsCount()).thenReturn(7L);
+        when(userService.countUsersByRole(User.Role.user)).thenReturn(120L);
+        when(userService.countUsersByRole(User.Role.admin)).thenReturn(2L);
+        when(ticketService.getAvailableTicketsCount()).thenReturn(58L);
+        when(donationService.getDonationsCountByState(Donation.PurchaseState.pending)).thenReturn(4L);
+        when(newsService.getNewsCount()).thenReturn(35L);
+        when(calendarService.getEventsCountBetween(any(), any())).thenReturn(6L);
+    }
+
+    private AdminDashboardService service(Duration queryTimeout, Duration cacheTtl, Duration degradedCacheTtl) {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(
+                new DriverManagerDataSource("jdbc:h2:mem:admin-dashboard;DB_CLOSE_DELAY=-1"));
+        return new AdminDashboardService(orderService, ticketService, donationService, mapLocationService, userService,
+                newsService, calendarService, transactionManager, meterRegistry, 8, 16, queryTimeout, cacheTtl,
+                degradedCacheTtl);
+    }
+}
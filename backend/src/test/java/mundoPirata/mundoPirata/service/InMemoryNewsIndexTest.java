@@ -0,0 +1,52 @@
+package mundoPirata.mundoPirata.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryNewsIndexTest {
+
+    private InMemoryNewsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryNewsIndex();
+        index.index(1L, "Belgrano ganó el clásico", "El Pirata venció a Talleres en el Gigante de Alberdi.",
+                LocalDate.of(2025, 3, 1));
+        index.index(2L, "Nueva camiseta", "La camiseta celeste se presenta en el estadio Julio César Villagra.",
+                LocalDate.of(2025, 3, 2));
+        index.index(3L, "Asamblea de socios", "Los socios de Belgrano votarán la memoria y balance.",
+                LocalDate.of(2025, 3, 3));
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() {
+        assertThat(index.search("GANO")).containsExactly(1L);
+        assertThat(index.search("cesar villagra")).containsExactly(2L);
+    }
+
+    @Test
+    void titleMatchesRankAboveContentMatches() {
+        index.index(4L, "Balance del torneo", "Repaso de la temporada.", LocalDate.of(2025, 1, 1));
+
+        assertThat(index.search("balance")).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void stopwordsAloneReturnNothing() {
+        assertThat(index.search("de la el")).isEmpty();
+    }
+
+    @Test
+    void reindexAndRemoveUpdateResults() {
+        index.index(2L, "Nueva indumentaria", "Se presentó la ropa de entrenamiento.", LocalDate.of(2025, 3, 2));
+        assertThat(index.search("camiseta")).isEmpty();
+
+        index.remove(1L);
+        assertThat(index.search("belgrano")).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,104 @@
+package mundoPirata.mundoPirata.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import mundoPirata.mundoPirata.config.AggregateVersions;
+import mundoPirata.mundoPirata.dto.MapLocationDTO;
+import mundoPirata.mundoPirata.entity.MapLocation;
+import mundoPirata.mundoPirata.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que listar 1.000 ubicaciones no dispare una consulta por autor.
+ */
+// Las migraciones de Flyway son de MySQL: sobre H2 el esquema lo crea Hibernate
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({MapLocationService.class, AuthorNameResolver.class, MapLocationSearchService.class, AggregateVersions.class})
+class MapLocationServiceQueryCountTest {
+
+    private static final int LOCATIONS = 1_000;
+    private static final int AUTHORS = 50;
+
+    @Autowired
+    private MapLocationService mapLocationService;
+
+    @Autowired
+    private AuthorNameResolver authorNameResolver;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<User> authors;
+
+    @BeforeEach
+    void setUp() {
+        authors = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            User user = new User();
+            user.setName("Autor" + i);
+            user.setLastName("Pirata");
+            user.setEmail("autor" + i + "@mundopirata.com");
+            user.setPassword("{bcrypt}hash");
+            authors.add(entityManager.persist(user));
+        }
+        for (int i = 0; i < LOCATIONS; i++) {
+            MapLocation location = new MapLocation();
+            location.setName("Bar Pirata " + i);
+            location.setAddress("Av. Colón " + i + ", Córdoba");
+            location.setGoogleMapsUrl("https://maps.google.com/?q=" + i);
+            location.setAuthorId(authors.get(i % AUTHORS).getId());
+            location.setState(true);
+            entityManager.persist(location);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingActiveLocationsResolvesAuthorsInOneQuery() {
+        List<MapLocationDTO> locations = mapLocationService.getAllActiveLocations();
+
+        assertThat(locations).hasSize(LOCATIONS);
+        assertThat(locations).allSatisfy(dto -> assertThat(dto.getAuthorName()).endsWith(" Pirata"));
+        // Una consulta para las ubicaciones y una para los nombres de los 50 autores
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cachedAuthorsAreNotQueriedAgainUntilInvalidated() {
+        mapLocationService.getAllActiveLocations();
+        statistics.clear();
+
+        mapLocationService.getAllActiveLocations();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        authorNameResolver.invalidate(authors.get(0).getId());
+        statistics.clear();
+
+        mapLocationService.getAllActiveLocations();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
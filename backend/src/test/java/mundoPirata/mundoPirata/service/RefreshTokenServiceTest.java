@@ -0,0 +1,101 @@
+package mundoPirata.mundoPirata.service;
+
+import mundoPirata.mundoPirata.entity.User;
+import mundoPirata.mundoPirata.repository.RefreshTokenRepository;
+import mundoPirata.mundoPirata.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos rotaciones simultáneas del mismo refresh token: solo una puede emitir un par nuevo.
+ */
+// Las migraciones de Flyway son de MySQL: sobre H2 el esquema lo crea Hibernate. Sin la
+// transacción del test, cada rotación corre en la suya como en producción
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(RefreshTokenService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Pirata");
+        user.setLastName("Refresh");
+        user.setEmail("refresh@mundopirata.com");
+        user.setPassword("{bcrypt}hash");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @RepeatedTest(5)
+    void concurrentRotationsOfTheSameTokenIssueASinglePair() throws Exception {
+        String rawToken = refreshTokenService.issue(user);
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<String> rotation = () -> {
+            start.await();
+            return refreshTokenService.rotate(rawToken).refreshToken();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<String>> futures = List.of(executor.submit(rotation), executor.submit(rotation));
+            start.countDown();
+
+            List<String> issued = new ArrayList<>();
+            int rejected = 0;
+            for (Future<String> future : futures) {
+                try {
+                    issued.add(future.get());
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(BadCredentialsException.class);
+                    rejected++;
+                }
+            }
+
+            assertThat(issued).hasSize(1);
+            assertThat(rejected).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        // La rotación perdedora es una reutilización: toda la familia queda revocada
+        assertThat(refreshTokenRepository.findAll()).allSatisfy(token -> assertThat(token.getRevoked()).isTrue());
+    }
+}
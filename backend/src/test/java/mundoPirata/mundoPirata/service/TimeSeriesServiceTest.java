@@ -0,0 +1,129 @@
+package mundoPirata.mundoPirata.service;
+
+import mundoPirata.mundoPirata.dto.TimeSeriesDTO;
+import mundoPirata.mundoPirata.entity.BucketGranularity;
+import mundoPirata.mundoPirata.entity.Donation;
+import mundoPirata.mundoPirata.entity.Order;
+import mundoPirata.mundoPirata.repository.DonationBucketRepository;
+import mundoPirata.mundoPirata.repository.DonationRepository;
+import mundoPirata.mundoPirata.repository.OrderRepository;
+import mundoPirata.mundoPirata.repository.TicketRepository;
+import mundoPirata.mundoPirata.repository.TicketSalesBucketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TimeSeriesServiceTest {
+
+    private static final LocalDateTime MATCH = LocalDateTime.of(2025, 3, 1, 21, 0);
+
+    private final TicketSalesBucketRepository ticketSalesBucketRepository = mock(TicketSalesBucketRepository.class);
+    private final DonationBucketRepository donationBucketRepository = mock(DonationBucketRepository.class);
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final DonationRepository donationRepository = mock(DonationRepository.class);
+    private final TimeSeriesService timeSeriesService = new TimeSeriesService(ticketSalesBucketRepository,
+            donationBucketRepository, ticketRepository, orderRepository, donationRepository,
+            mock(PlatformTransactionManager.class),
+            Duration.ofDays(14), Duration.ofDays(400));
+
+    @Test
+    void approvalAddsTheOrderToEveryGranularityAndCancellationSubtractsIt() {
+        LocalDateTime purchased = LocalDateTime.now().minusHours(1).withMinute(37).withSecond(12);
+        Order order = new Order();
+        order.setId(9L);
+        order.setPurchaseDate(purchased);
+        when(ticketSalesBucketRepository.countOrderBuckets(9L)).thenReturn(1);
+        when(ticketSalesBucketRepository.subtractOrder(anyString(), any(), eq(9L))).thenReturn(1);
+
+        timeSeriesService.orderStateChanged(order, Order.PurchaseState.pending, Order.PurchaseState.approved);
+        timeSeriesService.orderStateChanged(order, Order.PurchaseState.approved, Order.PurchaseState.cancelled);
+
+        verify(ticketSalesBucketRepository).addOrder("minute", purchased.withSecond(0).withNano(0), 9L);
+        verify(ticketSalesBucketRepository).addOrder("hour", purchased.withMinute(0).withSecond(0).withNano(0), 9L);
+        verify(ticketSalesBucketRepository).addOrder("day", purchased.toLocalDate().atStartOfDay(), 9L);
+        verify(ticketSalesBucketRepository).subtractOrder("day", purchased.toLocalDate().atStartOfDay(), 9L);
+    }
+
+    @Test
+    void stateChangesThatKeepTheApprovalDoNothingAndOldDonationsSkipExpiredGranularities() {
+        Order order = new Order();
+        order.setId(9L);
+        order.setPurchaseDate(LocalDateTime.now());
+        timeSeriesService.orderStateChanged(order, Order.PurchaseState.pending, Order.PurchaseState.rejected);
+        verify(ticketSalesBucketRepository, never()).addOrder(anyString(), any(), anyLong());
+        verify(ticketSalesBucketRepository, never()).subtractOrder(anyString(), any(), anyLong());
+
+        LocalDateTime donated = LocalDateTime.now().minusDays(30);
+        Donation donation = new Donation();
+        donation.setId(4L);
+        donation.setDonationDate(donated);
+        timeSeriesService.donationStateChanged(donation, Donation.PurchaseState.pending, Donation.PurchaseState.approved);
+
+        verify(donationBucketRepository, never()).addDonation(eq("minute"), any(), anyLong());
+        verify(donationBucketRepository).addDonation("hour", donated.withMinute(0).withSecond(0).withNano(0), 4L);
+        verify(donationBucketRepository).addDonation("day", donated.toLocalDate().atStartOfDay(), 4L);
+    }
+
+    @Test
+    void startupBackfillOnlyLoadsSeriesWithHistoryButNoBuckets() {
+        when(ticketSalesBucketRepository.existsByGranularity(BucketGranularity.day)).thenReturn(false);
+        when(orderRepository.existsByPurchaseState(Order.PurchaseState.approved)).thenReturn(true);
+        when(donationBucketRepository.existsByGranularity(BucketGranularity.day)).thenReturn(true);
+
+        timeSeriesService.backfill();
+
+        verify(ticketSalesBucketRepository).lockApprovedOrders();
+        verify(ticketSalesBucketRepository).rebuild(eq("day"), anyString(), any());
+        verify(donationBucketRepository, never()).lockApprovedDonations();
+        verify(donationBucketRepository, never()).rebuild(anyString(), anyString(), any());
+    }
+
+    @Test
+    void ticketSalesStartAtTheSalesOpeningAndAreDownsampledWithZeroFilledGaps() {
+        LocalDateTime opening = MATCH.minusHours(6).plusMinutes(20);
+        when(ticketRepository.findSalesOpening(MATCH, 2L)).thenReturn(opening);
+        when(ticketSalesBucketRepository.findSeries(BucketGranularity.hour, MATCH, 2L, MATCH.minusHours(6), MATCH))
+                .thenReturn(List.of(
+                        new Object[]{MATCH.minusHours(6), 10L, new BigDecimal("1000.00")},
+                        new Object[]{MATCH.minusHours(5), 5L, new BigDecimal("500.00")},
+                        new Object[]{MATCH.minusHours(1), 2L, new BigDecimal("200.00")}));
+
+        TimeSeriesDTO series = timeSeriesService.getTicketSales(MATCH, 2L, BucketGranularity.hour, "2h", null, null);
+
+        assertThat(series.getSalesOpenedAt()).isEqualTo(opening);
+        assertThat(series.getStep()).isEqualTo("PT2H");
+        assertThat(series.getPoints())
+                .extracting(TimeSeriesDTO.PointDTO::getStart, TimeSeriesDTO.PointDTO::getCount)
+                .containsExactly(
+                        tuple(MATCH.minusHours(6), 15L),
+                        tuple(MATCH.minusHours(4), 0L),
+                        tuple(MATCH.minusHours(2), 2L));
+        assertThat(series.getPoints().get(0).getAmount()).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    void stepMustBeAMultipleOfTheGranularity() {
+        assertThatThrownBy(() -> timeSeriesService.getDonations(1L, BucketGranularity.hour, "90m", null, null))
+                .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> timeSeriesService.getDonations(1L, BucketGranularity.minute, null,
+                LocalDateTime.now().minusDays(30), null))
+                .hasMessageContaining("demasiados puntos");
+    }
+}
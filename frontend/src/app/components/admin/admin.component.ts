@@ -3,12 +3,7 @@ import { CommonModule } from '@angular/common';
 import { Router } from '@angular/router';
 import { AuthService } from '../../services/auth.service';
 import { NotificationService } from '../../services/notification.service';
-import { UserService } from '../../services/user.service';
-import { NewsService } from '../../services/news.service';
-import { CalendarService } from '../../services/calendar.service';
-import { TicketService } from '../../services/ticket.service';
-import { DonationService } from '../../services/donation.service';
-import { MapLocationService } from '../../services/map-location.service';
+import { AdminDashboardService } from '../../services/admin-dashboard.service';
 import { NewsManagementComponent } from './news-management/news-management.component';
 import { UserManagementComponent } from './user-management/user-management.component';
 import { CalendarManagementComponent } from './calendar-management/calendar-management.component';
@@ -61,12 +56,7 @@ export class AdminComponent implements OnInit {
   constructor(
     private authService: AuthService,
     private notificationService: NotificationService,
-    private userService: UserService,
-    private newsService: NewsService,
-    private calendarService: CalendarService,
-    private ticketService: TicketService,
-    private donationService: DonationService,
-    private mapLocationService: MapLocationService,
+    private adminDashboardService: AdminDashboardService,
     private router: Router
   ) {}
 
@@ -106,97 +96,29 @@ export class AdminComponent implements OnInit {
     return titles[this.activeTab] || 'Panel de Administración';
   }
 
+  // Un solo documento con todos los totales (GET /api/admin/dashboard); un total que no
+  // llegó a tiempo viene en null y se muestra en 0
   loadStats(): void {
     this.loading = true;
-    
-    try {
-      // Cargar usuarios
-      this.userService.getAllUsers().subscribe({
-        next: (users) => {
-          this.stats.totalUsers = Array.isArray(users) ? users.length : 0;
-        },
-        error: (error) => {
-          console.error('Error cargando usuarios:', error);
-          this.stats.totalUsers = 0;
-        }
-      });
-
-      // Cargar noticias
-      this.newsService.getAllNews().subscribe({
-        next: (news) => {
-          this.stats.totalNews = Array.isArray(news) ? news.length : 0;
-        },
-        error: (error) => {
-          console.error('Error cargando noticias:', error);
-          this.stats.totalNews = 0;
-        }
-      });
-
-      // Cargar eventos
-      this.calendarService.getAllEvents().subscribe({
-        next: (events) => {
-          const eventsArray = Array.isArray(events) ? events : [];
-          this.stats.totalEvents = this.getEventsThisMonth(eventsArray);
-        },
-        error: (error) => {
-          console.error('Error cargando eventos:', error);
-          this.stats.totalEvents = 0;
-        }
-      });
-
-      // Cargar tickets
-      this.ticketService.getAllTickets().subscribe({
-        next: (tickets) => {
-          const ticketsArray = Array.isArray(tickets) ? tickets : [];
-          this.stats.totalTickets = this.getAvailableTickets(ticketsArray);
-          this.stats.ticketsSold = this.getSoldTickets(ticketsArray);
-        },
-        error: (error) => {
-          console.error('Error cargando tickets:', error);
-          this.stats.totalTickets = 0;
-          this.stats.ticketsSold = 0;
-        }
-      });
-
-      // Cargar donaciones
-      this.donationService.getAllDonations().subscribe({
-        next: (donations) => {
-          const donationsArray = Array.isArray(donations) ? donations : [];
-          this.stats.pendingDonations = this.getPendingDonations(donationsArray);
-        },
-        error: (error) => {
-          console.error('Error cargando donaciones:', error);
-          this.stats.pendingDonations = 0;
-        }
-      });
-
-      // Cargar estadísticas de donaciones
-      this.donationService.getDonationStatistics().subscribe({
-        next: (donationStats) => {
-          this.stats.totalDonations = donationStats?.totalAmount || 0;
-        },
-        error: (error) => {
-          console.error('Error cargando estadísticas de donaciones:', error);
-          this.stats.totalDonations = 0;
-        }
-      });
-
-      // Cargar ubicaciones del mapa
-      this.mapLocationService.getAllLocations().subscribe({
-        next: (locations) => {
-          this.stats.totalLocations = Array.isArray(locations) ? locations.length : 0;
-        },
-        error: (error) => {
-          console.error('Error cargando ubicaciones:', error);
-          this.stats.totalLocations = 0;
-        }
-      });
-
-    } catch (error) {
-      console.error('Error general cargando estadísticas:', error);
-    } finally {
-      this.loading = false;
-    }
+    this.adminDashboardService.getDashboard().subscribe({
+      next: (dashboard) => {
+        this.stats = {
+          totalUsers: (dashboard.users ?? 0) + (dashboard.admins ?? 0),
+          totalNews: dashboard.news ?? 0,
+          totalEvents: dashboard.eventsThisMonth ?? 0,
+          totalTickets: dashboard.availableTickets ?? 0,
+          totalDonations: dashboard.totalDonations ?? 0,
+          totalLocations: dashboard.activeMapLocations ?? 0,
+          pendingDonations: dashboard.pendingDonations ?? 0,
+          ticketsSold: dashboard.soldTickets ?? 0
+        };
+        this.loading = false;
+      },
+      error: (error) => {
+        console.error('Error cargando estadísticas:', error);
+        this.loading = false;
+      }
+    });
   }
 
   refreshStats(): void {
@@ -207,47 +129,4 @@ export class AdminComponent implements OnInit {
       console.error('Error actualizando estadísticas:', error);
     }
   }
-
-  private getEventsThisMonth(events: any[]): number {
-    try {
-      const now = new Date();
-      const thisMonth = now.getMonth();
-      const thisYear = now.getFullYear();
-      
-      return events.filter(event => {
-        try {
-          const eventDate = new Date(event.date);
-          return eventDate.getMonth() === thisMonth && eventDate.getFullYear() === thisYear;
-        } catch {
-          return false;
-        }
-      }).length;
-    } catch {
-      return 0;
-    }
-  }
-
-  private getAvailableTickets(tickets: any[]): number {
-    try {
-      return tickets.filter(ticket => ticket && ticket.available === true).length;
-    } catch {
-      return 0;
-    }
-  }
-
-  private getSoldTickets(tickets: any[]): number {
-    try {
-      return tickets.filter(ticket => ticket && ticket.available === false).length;
-    } catch {
-      return 0;
-    }
-  }
-
-  private getPendingDonations(donations: any[]): number {
-    try {
-      return donations.filter(donation => donation && donation.purchase_state === 'pending').length;
-    } catch {
-      return 0;
-    }
-  }
-} 
\ No newline at end of file
+}
@@ -20,6 +20,9 @@ export class CalendarManagementComponent implements OnInit {
   selectedEventType: string = 'all';
   selectedState: string = 'all';
   isLoading = false;
+  isLoadingMore = false;
+  // Cursor de la página siguiente del listado; null si ya se cargaron todas
+  nextCursor: string | null = null;
   
   // Formularios
   eventForm!: FormGroup;
@@ -72,9 +75,10 @@ export class CalendarManagementComponent implements OnInit {
 
   loadEvents() {
     this.isLoading = true;
-    this.calendarService.getAllEvents().subscribe({
-      next: (events) => {
-        this.events = events.sort((a, b) => new Date(b.date).getTime() - new Date(a.date).getTime());
+    this.calendarService.getEventsPage().subscribe({
+      next: (page) => {
+        this.events = this.sortByDate(page.items);
+        this.nextCursor = page.nextCursor;
         this.applyFilters();
         this.isLoading = false;
       },
@@ -89,6 +93,33 @@ export class CalendarManagementComponent implements OnInit {
     });
   }
 
+  loadMoreEvents() {
+    if (!this.nextCursor || this.isLoadingMore) {
+      return;
+    }
+    this.isLoadingMore = true;
+    this.calendarService.getEventsPage(this.nextCursor).subscribe({
+      next: (page) => {
+        this.events = this.sortByDate([...this.events, ...page.items]);
+        this.nextCursor = page.nextCursor;
+        this.applyFilters();
+        this.isLoadingMore = false;
+      },
+      error: (error) => {
+        console.error('Error cargando eventos:', error);
+        this.notificationService.error(
+          'Error al cargar eventos',
+          'No se pudieron cargar más eventos. Intenta nuevamente.'
+        );
+        this.isLoadingMore = false;
+      }
+    });
+  }
+
+  private sortByDate(events: CalendarEvent[]): CalendarEvent[] {
+    return events.sort((a, b) => new Date(b.date).getTime() - new Date(a.date).getTime());
+  }
+
   applyFilters() {
     let filtered = [...this.events];
 
@@ -21,11 +21,14 @@ export class DonationManagementComponent implements OnInit, OnDestroy {
 
   // Estados
   isLoading = false;
+  isLoadingMore = false;
   isSubmitting = false;
   activeView: 'donations' | 'destinations' | 'stats' = 'donations';
 
   // Datos
   donations: Donation[] = [];
+  // Cursor de la página siguiente de donaciones; null si ya se cargaron todas
+  nextCursor: string | null = null;
   destinations: Destination[] = [];
   stats: DonationStats = {
     totalDonations: 0,
@@ -94,11 +97,12 @@ export class DonationManagementComponent implements OnInit, OnDestroy {
 
   async loadDonations(): Promise<void> {
     try {
-      this.donationService.getAllDonations()
+      this.donationService.getDonationsPage()
         .pipe(takeUntil(this.destroy$))
         .subscribe({
-          next: (donations: DonationResponse[]) => {
-            this.donations = donations;
+          next: (page) => {
+            this.donations = page.items;
+            this.nextCursor = page.nextCursor;
           },
           error: (error: any) => {
             console.error('Error cargando donaciones:', error);
@@ -110,6 +114,27 @@ export class DonationManagementComponent implements OnInit, OnDestroy {
     }
   }
 
+  loadMoreDonations(): void {
+    if (!this.nextCursor || this.isLoadingMore) {
+      return;
+    }
+    this.isLoadingMore = true;
+    this.donationService.getDonationsPage(this.nextCursor)
+      .pipe(takeUntil(this.destroy$))
+      .subscribe({
+        next: (page) => {
+          this.donations = [...this.donations, ...page.items];
+          this.nextCursor = page.nextCursor;
+          this.isLoadingMore = false;
+        },
+        error: (error: any) => {
+          console.error('Error cargando donaciones:', error);
+          this.notificationService.error('Error', 'Error al cargar más donaciones');
+          this.isLoadingMore = false;
+        }
+      });
+  }
+
   async loadDestinations(): Promise<void> {
     try {
       this.donationService.getAllDestinations()
@@ -22,6 +22,9 @@ export class NewsManagementComponent implements OnInit {
   searchTerm = '';
   selectedTypeFilter = '';
   selectedStateFilter = '';
+  // Cursor de la página siguiente del listado; null si ya se cargaron todas
+  nextCursor: string | null = null;
+  isLoadingMore = false;
   
   newsForm: FormGroup;
   
@@ -47,12 +50,13 @@ export class NewsManagementComponent implements OnInit {
   loadNews(): void {
     this.notificationService.showLoading('Cargando noticias...');
     
-    this.newsService.getAllNews().subscribe({
-      next: (data) => {
-        this.news = data;
-        this.filteredNews = data;
+    this.newsService.getNewsPage().subscribe({
+      next: (page) => {
+        this.news = page.items;
+        this.nextCursor = page.nextCursor;
+        this.filterNews();
         this.notificationService.hideLoading();
-        console.log('📰 Noticias cargadas:', data.length);
+        console.log('📰 Noticias cargadas:', page.items.length);
       },
       error: (error) => {
         console.error('Error cargando noticias:', error);
@@ -65,6 +69,29 @@ export class NewsManagementComponent implements OnInit {
     });
   }
 
+  loadMoreNews(): void {
+    if (!this.nextCursor || this.isLoadingMore) {
+      return;
+    }
+    this.isLoadingMore = true;
+    this.newsService.getNewsPage(this.nextCursor).subscribe({
+      next: (page) => {
+        this.news = [...this.news, ...page.items];
+        this.nextCursor = page.nextCursor;
+        this.filterNews();
+        this.isLoadingMore = false;
+      },
+      error: (error) => {
+        console.error('Error cargando noticias:', error);
+        this.isLoadingMore = false;
+        this.notificationService.error(
+          'Error al cargar noticias',
+          'No se pudieron cargar más noticias. Intenta nuevamente.'
+        );
+      }
+    });
+  }
+
   loadNewsTypes(): void {
     this.newsService.getNewsTypes().subscribe({
       next: (data) => {
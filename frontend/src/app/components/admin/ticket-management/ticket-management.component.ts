@@ -484,10 +484,10 @@ export class TicketManagementComponent implements OnInit, OnDestroy {
         }
       });
     } else {
-      // Fallback: buscar por título si no hay ID válido
+      // Fallback: buscar por título entre los eventos de esa fecha si no hay ID válido
       console.log('⚠️ No hay ID válido, buscando por título:', localEvent.eventTitle);
       
-      this.calendarService.getAllEvents().pipe(
+      this.calendarService.getEventsByDate(localEvent.eventDate.substring(0, 10)).pipe(
         takeUntil(this.destroy$)
       ).subscribe({
         next: (calendarEvents) => {
@@ -19,7 +19,10 @@ export class UserManagementComponent implements OnInit {
   searchTerm: string = '';
   selectedRole: string = 'all';
   isLoading = false;
+  isLoadingMore = false;
   isSubmitting = false;
+  // Cursor de la página siguiente del listado; null si ya se cargaron todas
+  nextCursor: string | null = null;
   
   // Formularios
   userForm!: FormGroup;
@@ -57,9 +60,10 @@ export class UserManagementComponent implements OnInit {
 
   loadUsers() {
     this.isLoading = true;
-    this.userService.getAllUsers().subscribe({
-      next: (users) => {
-        this.users = users;
+    this.userService.getUsersPage().subscribe({
+      next: (page) => {
+        this.users = page.items;
+        this.nextCursor = page.nextCursor;
         this.applyFilters();
         this.isLoading = false;
       },
@@ -74,6 +78,29 @@ export class UserManagementComponent implements OnInit {
     });
   }
 
+  loadMoreUsers() {
+    if (!this.nextCursor || this.isLoadingMore) {
+      return;
+    }
+    this.isLoadingMore = true;
+    this.userService.getUsersPage(this.nextCursor).subscribe({
+      next: (page) => {
+        this.users = [...this.users, ...page.items];
+        this.nextCursor = page.nextCursor;
+        this.applyFilters();
+        this.isLoadingMore = false;
+      },
+      error: (error) => {
+        console.error('Error cargando usuarios:', error);
+        this.notificationService.error(
+          'Error al cargar usuarios',
+          'No se pudieron cargar más usuarios. Intenta nuevamente.'
+        );
+        this.isLoadingMore = false;
+      }
+    });
+  }
+
   applyFilters() {
     let filtered = [...this.users];
 
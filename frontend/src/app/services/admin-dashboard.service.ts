@@ -0,0 +1,40 @@
+import { Injectable } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { environment } from '../../environments/environment';
+
+export interface ComponentStatus {
+  // ok, timeout, error o rejected
+  status: string;
+  latencyMs: number;
+}
+
+// Un total en null indica que su consulta no respondió a tiempo o falló (ver components)
+export interface AdminDashboard {
+  totalSales: number | null;
+  soldTickets: number | null;
+  availableTickets: number | null;
+  totalDonations: number | null;
+  pendingDonations: number | null;
+  activeMapLocations: number | null;
+  users: number | null;
+  admins: number | null;
+  news: number | null;
+  eventsThisMonth: number | null;
+  generatedAt: string;
+  components: { [name: string]: ComponentStatus };
+}
+
+@Injectable({
+  providedIn: 'root'
+})
+export class AdminDashboardService {
+  private readonly API_URL = `${environment.apiUrl}/api/admin/dashboard`;
+
+  constructor(private http: HttpClient) {}
+
+  // Todos los totales del panel en una sola petición
+  getDashboard(): Observable<AdminDashboard> {
+    return this.http.get<AdminDashboard>(this.API_URL);
+  }
+}
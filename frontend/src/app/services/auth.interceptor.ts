@@ -5,7 +5,7 @@ import {
   HttpErrorResponse
 } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
-import { catchError } from 'rxjs/operators';
+import { catchError, switchMap } from 'rxjs/operators';
 import { inject } from '@angular/core';
 import { AuthService } from './auth.service';
 import { NotificationService } from './notification.service';
@@ -19,29 +19,38 @@ export function authInterceptor(
   const notificationService = inject(NotificationService);
   const router = inject(Router);
 
+  const expireSession = () => {
+    authService.logout();
+    notificationService.warning(
+      'Sesión expirada',
+      'Tu sesión ha caducado. Por favor, inicia sesión nuevamente.'
+    );
+    router.navigate(['/auth/login']);
+  };
+
   // Obtener el token del servicio de autenticación
   const token = authService.getAuthToken();
 
-  // Si hay token, agregarlo al header Authorization
-  if (token) {
-    request = request.clone({
-      setHeaders: {
-        Authorization: `Bearer ${token}`
-      }
-    });
-  }
-
   // Continuar con la petición y manejar errores
-  return next(request).pipe(
+  return next(withToken(request, token)).pipe(
     catchError((error: HttpErrorResponse) => {
-      // Si el error es 401 (Unauthorized), hacer logout y redirigir
+      // Si el error es 401 (Unauthorized), renovar el access token una vez y reintentar;
+      // solo se cierra la sesión si la renovación falla
       if (error.status === 401) {
-        authService.logout();
-        notificationService.warning(
-          'Sesión expirada',
-          'Tu sesión ha caducado. Por favor, inicia sesión nuevamente.'
-        );
-        router.navigate(['/auth/login']);
+        // La renovación rechazada la maneja la petición que la pidió; el logout no cierra la sesión dos veces
+        if (isRefreshOrLogout(request)) {
+          return throwError(() => error);
+        }
+        if (token && authService.hasRefreshToken() && !isSessionEndpoint(request)) {
+          return authService.refreshAccessToken().pipe(
+            catchError(refreshError => {
+              expireSession();
+              return throwError(() => refreshError);
+            }),
+            switchMap(newToken => next(withToken(request, newToken)))
+          );
+        }
+        expireSession();
       }
       
       // Si el error es 403 (Forbidden), redirigir a home
@@ -56,4 +65,20 @@ export function authInterceptor(
       return throwError(() => error);
     })
   );
-} 
\ No newline at end of file
+}
+
+// Si hay token, agregarlo al header Authorization
+function withToken(request: HttpRequest<unknown>, token: string | null): HttpRequest<unknown> {
+  return token
+    ? request.clone({ setHeaders: { Authorization: `Bearer ${token}` } })
+    : request;
+}
+
+function isRefreshOrLogout(request: HttpRequest<unknown>): boolean {
+  return /\/api\/auth\/(refresh|logout)$/.test(request.url);
+}
+
+// Login, renovación y logout no se reintentan con un token renovado
+function isSessionEndpoint(request: HttpRequest<unknown>): boolean {
+  return /\/api\/auth\/(login|refresh|logout)$/.test(request.url);
+}
@@ -1,6 +1,6 @@
 import { Injectable, Inject, PLATFORM_ID } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { BehaviorSubject, Observable, tap, switchMap } from 'rxjs';
+import { BehaviorSubject, Observable, tap, switchMap, map, finalize, shareReplay } from 'rxjs';
 import { LoginRequest, AuthResponse, User, UserRegistration, UserUpdate } from './auth.interface';
 import { isPlatformBrowser } from '@angular/common';
 import { environment } from '../../environments/environment';
@@ -12,6 +12,8 @@ export class AuthService {
   private readonly API_URL = `${environment.apiUrl}/api`;
   private currentUserSubject = new BehaviorSubject<User | null>(null);
   public currentUser$ = this.currentUserSubject.asObservable();
+  // Renovación en curso: los 401 simultáneos esperan la misma en lugar de rotar el token varias veces
+  private refreshInFlight: Observable<string> | null = null;
 
   constructor(
     private http: HttpClient,
@@ -22,10 +24,11 @@ export class AuthService {
 
   // Login
   login(credentials: LoginRequest): Observable<AuthResponse> {
-    return this.http.post<{token: string}>(`${this.API_URL}/auth/login`, credentials)
+    return this.http.post<{token: string, refreshToken: string}>(`${this.API_URL}/auth/login`, credentials)
       .pipe(
         tap(response => {
           this.storeToken(response.token);
+          this.storeRefreshToken(response.refreshToken);
         }),
         switchMap(response => {
           // Después del login exitoso, obtener los datos del usuario
@@ -49,8 +52,36 @@ export class AuthService {
       );
   }
 
+  // Canjea el refresh token por un nuevo par y devuelve el access token nuevo
+  refreshAccessToken(): Observable<string> {
+    if (!this.refreshInFlight) {
+      const refreshToken = this.getRefreshToken();
+      this.refreshInFlight = this.http.post<{token: string, refreshToken: string}>(
+        `${this.API_URL}/auth/refresh`, { refreshToken }
+      ).pipe(
+        tap(response => {
+          this.storeToken(response.token);
+          this.storeRefreshToken(response.refreshToken);
+        }),
+        map(response => response.token),
+        finalize(() => this.refreshInFlight = null),
+        shareReplay(1)
+      );
+    }
+    return this.refreshInFlight;
+  }
+
+  hasRefreshToken(): boolean {
+    return !!this.getRefreshToken();
+  }
+
   // Logout
   logout(): void {
+    const refreshToken = this.getRefreshToken();
+    if (refreshToken) {
+      // Revoca el refresh token en el backend; la sesión local se cierra igual si falla
+      this.http.post(`${this.API_URL}/auth/logout`, { refreshToken }).subscribe({ error: () => {} });
+    }
     this.removeToken();
     this.removeUser();
     this.currentUserSubject.next(null);
@@ -118,9 +149,23 @@ export class AuthService {
   private removeToken(): void {
     if (this.isBrowser()) {
       localStorage.removeItem('auth_token');
+      localStorage.removeItem('refresh_token');
     }
   }
 
+  private storeRefreshToken(refreshToken: string): void {
+    if (this.isBrowser() && refreshToken) {
+      localStorage.setItem('refresh_token', refreshToken);
+    }
+  }
+
+  private getRefreshToken(): string | null {
+    if (this.isBrowser()) {
+      return localStorage.getItem('refresh_token');
+    }
+    return null;
+  }
+
   // Manejo de usuario
   private storeUser(user: User): void {
     if (this.isBrowser()) {
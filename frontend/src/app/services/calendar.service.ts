@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../environments/environment';
+import { CursorPage, getPage } from './cursor-pagination';
 
 export interface EventType {
   id: number;
@@ -64,8 +65,9 @@ export class CalendarService {
   }
 
   // Métodos administrativos (requieren autenticación)
-  getAllEvents(): Observable<CalendarEvent[]> {
-    return this.http.get<CalendarEvent[]>(this.API_URL);
+  // Una página de eventos; sin cursor, la primera
+  getEventsPage(cursor?: string | null): Observable<CursorPage<CalendarEvent>> {
+    return getPage<CalendarEvent>(this.http, this.API_URL, cursor);
   }
 
   createEvent(eventData: CalendarEventCreate): Observable<CalendarEvent> {
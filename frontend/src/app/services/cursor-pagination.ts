@@ -0,0 +1,34 @@
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { map } from 'rxjs/operators';
+
+export interface CursorPage<T> {
+  items: T[];
+  // Cursor de la página siguiente (header X-Next-Cursor); null en la última
+  nextCursor: string | null;
+}
+
+export const DEFAULT_PAGE_SIZE = 50;
+
+/**
+ * Pide una página de un listado paginado por cursor del backend. Sin cursor devuelve la
+ * primera; las siguientes se piden con el nextCursor de la anterior ("cargar más").
+ */
+export function getPage<T>(
+  http: HttpClient,
+  url: string,
+  cursor?: string | null,
+  headers?: HttpHeaders,
+  pageSize = DEFAULT_PAGE_SIZE
+): Observable<CursorPage<T>> {
+  let params = new HttpParams().set('size', String(pageSize));
+  if (cursor) {
+    params = params.set('cursor', cursor);
+  }
+  return http.get<T[]>(url, { headers, params, observe: 'response' }).pipe(
+    map(response => ({
+      items: response.body ?? [],
+      nextCursor: response.headers.get('X-Next-Cursor')
+    }))
+  );
+}
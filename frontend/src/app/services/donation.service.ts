@@ -3,6 +3,7 @@ import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
 import { catchError } from 'rxjs/operators';
 import { environment } from '../../environments/environment';
+import { CursorPage, getPage } from './cursor-pagination';
 
 // Interfaces
 export interface Destination {
@@ -87,11 +88,11 @@ export class DonationService {
   // ========== MÉTODOS ADMINISTRATIVOS ==========
 
   /**
-   * Obtener todas las donaciones (admin)
+   * Obtener una página de donaciones (admin); sin cursor, la primera
    */
-  getAllDonations(): Observable<DonationResponse[]> {
+  getDonationsPage(cursor?: string | null): Observable<CursorPage<DonationResponse>> {
     const headers = this.getHeaders();
-    return this.http.get<DonationResponse[]>(`${this.apiUrl}/donations`, { headers }).pipe(
+    return getPage<DonationResponse>(this.http, `${this.apiUrl}/donations`, cursor, headers).pipe(
       catchError(this.handleError)
     );
   }
@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { environment } from '../../environments/environment';
+import { CursorPage, getPage } from './cursor-pagination';
 
 export interface NewsType {
   id: number;
@@ -65,9 +66,9 @@ export class NewsService {
     return this.http.get<News[]>(`${this.apiUrl}/public/search?title=${encodeURIComponent(title)}`);
   }
 
-  // Obtener todas las noticias (admin)
-  getAllNews(): Observable<News[]> {
-    return this.http.get<News[]>(this.apiUrl);
+  // Obtener una página de noticias (admin); sin cursor, la primera
+  getNewsPage(cursor?: string | null): Observable<CursorPage<News>> {
+    return getPage<News>(this.http, this.apiUrl, cursor);
   }
 
   // Obtener noticias por tipo
@@ -3,6 +3,7 @@ import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { User, UserAdminCreate, UserAdminUpdate } from './auth.interface';
 import { environment } from '../../environments/environment';
+import { CursorPage, getPage } from './cursor-pagination';
 
 @Injectable({
   providedIn: 'root'
@@ -12,9 +13,9 @@ export class UserService {
 
   constructor(private http: HttpClient) {}
 
-  // Obtener todos los usuarios
-  getAllUsers(): Observable<User[]> {
-    return this.http.get<User[]>(this.API_URL);
+  // Obtener una página de usuarios; sin cursor, la primera
+  getUsersPage(cursor?: string | null): Observable<CursorPage<User>> {
+    return getPage<User>(this.http, this.API_URL, cursor);
   }
 
   // Obtener usuario por ID